@@ -27,6 +27,19 @@ import javax.annotation.Nullable;
 public interface IDocumentNode extends IObjectNode {
         String NAME = "###ROOT###";
 
+        /**
+         * Registers a listener which is notified about all modifications within this document.
+         *
+         * @param listener The listener.
+         * @return The document.
+         *
+         * @throws java.lang.UnsupportedOperationException when the document does not support listeners.
+         */
+        @Nonnull
+        default IDocumentNode addListener (@Nonnull ITreeListener listener) {
+                throw new UnsupportedOperationException ("Document does not support listeners");
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -62,6 +75,53 @@ public interface IDocumentNode extends IObjectNode {
                 return NAME;
         }
 
+        /**
+         * Notifies all registered listeners about the addition of a node within this document.
+         *
+         * @param container The container.
+         * @param node      The node which has been added.
+         */
+        default void added (@Nonnull IObjectNode container, @Nonnull INode node) {
+        }
+
+        /**
+         * Notifies all registered listeners about a pending modification within this document.
+         *
+         * @param node The node which is about to be modified.
+         */
+        default void modified (@Nonnull INode node) {
+        }
+
+        /**
+         * Notifies all registered listeners about the removal of a node within this document.
+         *
+         * @param container The container.
+         * @param node      The node which has been removed.
+         */
+        default void removed (@Nonnull IObjectNode container, @Nonnull INode node) {
+        }
+
+        /**
+         * Removes a previously registered listener.
+         * Documents which do not support listeners ignore this call.
+         *
+         * @param listener The listener.
+         * @return The document.
+         */
+        @Nonnull
+        default IDocumentNode removeListener (@Nonnull ITreeListener listener) {
+                return this;
+        }
+
+        /**
+         * Notifies all registered listeners about the renaming of a node within this document.
+         *
+         * @param node         The node which has been renamed.
+         * @param previousName The previous name.
+         */
+        default void renamed (@Nonnull INamedNode node, @Nonnull String previousName) {
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -22,10 +22,12 @@ import javax.annotation.Nullable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents an object node.
@@ -156,6 +158,54 @@ public interface IObjectNode extends INamedNode, Iterable<INode> {
         @Nullable
         boolean[] getBooleanArray (@Nonnull String name, @Nullable boolean[] defaultValue) throws IllegalStateException, NoSuchElementException;
 
+        /**
+         * Retrieves a double value from within the tree.
+         *
+         * @param name The node name.
+         * @return The double value.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        double getDouble (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves a double value from within the tree.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default value.
+         * @return The double value.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        double getDouble (@Nonnull String name, double defaultValue) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves a double array from within the tree.
+         *
+         * @param name The node name.
+         * @return The double array.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        double[] getDoubleArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves a double array from within the tree.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default array.
+         * @return The double array.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        double[] getDoubleArray (@Nonnegative String name, @Nullable double[] defaultValue) throws IllegalStateException, NoSuchElementException;
+
         /**
          * Retrieves an enum value from within the tree.
          *
@@ -374,6 +424,58 @@ public interface IObjectNode extends INamedNode, Iterable<INode> {
         @Nullable
         int[] getIntegerArray (@Nonnull String name, @Nullable int[] defaultValue) throws IllegalStateException, NoSuchElementException;
 
+        /**
+         * Retrieves a long value from within the tree.
+         * Integer values are widened.
+         *
+         * @param name The node name.
+         * @return The long value.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        long getLong (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves a long value from within the tree.
+         * Integer values are widened.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default value.
+         * @return The long value.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        long getLong (@Nonnull String name, long defaultValue) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves a long array from within the tree.
+         * Integer arrays are widened.
+         *
+         * @param name The node name.
+         * @return The long array.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        long[] getLongArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves a long array from within the tree.
+         * Integer arrays are widened.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default array.
+         * @return The long array.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        long[] getLongArray (@Nonnull String name, @Nullable long[] defaultValue) throws IllegalStateException, NoSuchElementException;
+
         /**
          * Retrieves a property node.
          *
@@ -463,6 +565,58 @@ public interface IObjectNode extends INamedNode, Iterable<INode> {
         @Nullable
         String[] getStringArray (@Nonnull String name, @Nullable String[] defaultValue) throws IllegalStateException, NoSuchElementException;
 
+        /**
+         * Retrieves an unsigned double value from within the tree.
+         *
+         * @param name The node name.
+         * @return The unsigned double value.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nonnegative
+        double getUnsignedDouble (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves an unsigned double value from within the tree.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default value.
+         * @return The unsigned double value.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nonnegative
+        double getUnsignedDouble (@Nonnull String name, @Nonnegative double defaultValue) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves an unsigned double array from within the tree.
+         *
+         * @param name The node name.
+         * @return The unsigned double array.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        @Nonnegative
+        double[] getUnsignedDoubleArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves an unsigned double array from within the tree.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default array.
+         * @return The unsigned double array.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        @Nonnegative
+        double[] getUnsignedDoubleArray (@Nonnull String name, @Nullable @Nonnegative double[] defaultValue) throws IllegalStateException, NoSuchElementException;
+
         /**
          * Retrieves an unsigned float value from within the tree.
          *
@@ -567,6 +721,62 @@ public interface IObjectNode extends INamedNode, Iterable<INode> {
         @Nonnegative
         int[] getUnsignedIntegerArray (@Nonnull String name, @Nullable @Nonnegative int[] defaultValue) throws IllegalStateException, NoSuchElementException;
 
+        /**
+         * Retrieves an unsigned long value from within the tree.
+         * Integer values are widened.
+         *
+         * @param name The node name.
+         * @return The unsigned long value.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nonnegative
+        long getUnsignedLong (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves an unsigned long value from within the tree.
+         * Integer values are widened.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default value.
+         * @return The unsigned long value.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nonnegative
+        long getUnsignedLong (@Nonnegative String name, @Nonnegative long defaultValue) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves an unsigned long array from within the tree.
+         * Integer arrays are widened.
+         *
+         * @param name The node name.
+         * @return The unsigned long array.
+         *
+         * @throws java.lang.IllegalStateException  when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        @Nonnegative
+        long[] getUnsignedLongArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException;
+
+        /**
+         * Retrieves an unsigned long array from within the tree.
+         * Integer arrays are widened.
+         *
+         * @param name         The node name.
+         * @param defaultValue The default array.
+         * @return The unsigned long array.
+         *
+         * @throws java.lang.IllegalStateException when the node type differs from the expected type.
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nullable
+        @Nonnegative
+        long[] getUnsignedLongArray (@Nonnull String name, @Nullable @Nonnegative long[] defaultValue) throws IllegalStateException, NoSuchElementException;
+
         /**
          * Inserts node {@code node} after node {@code after}.
          *
@@ -745,6 +955,35 @@ public interface IObjectNode extends INamedNode, Iterable<INode> {
         @Nonnull
         <T extends INode> Stream<T> stream (@Nonnull Class<T> nodeType);
 
+        /**
+         * Retrieves a depth-first spliterator over all nodes within the subtree (excluding this node).
+         * Nodes are reported in document order (each object is directly followed by its own children).
+         *
+         * @return The spliterator.
+         */
+        @Nonnull
+        Spliterator<INode> treeSpliterator ();
+
+        /**
+         * Retrieves a stream of all nodes within the subtree (excluding this node) in document order.
+         *
+         * @return The stream.
+         */
+        @Nonnull
+        default Stream<INode> treeStream () {
+                return StreamSupport.stream (this.treeSpliterator (), false);
+        }
+
+        /**
+         * Retrieves a parallel stream of all nodes within the subtree (excluding this node).
+         *
+         * @return The stream.
+         */
+        @Nonnull
+        default Stream<INode> parallelTreeStream () {
+                return StreamSupport.stream (this.treeSpliterator (), true);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.api;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives notifications about modifications within a document tree.
+ *
+ * @author Johannes Donath
+ */
+@FunctionalInterface
+public interface ITreeListener {
+
+        /**
+         * Handles a pending modification.
+         * Listeners are notified right before a node is altered (e.g. when a property value is changed or when children
+         * are added to or removed from an object). Structural changes are additionally reported once they have been
+         * completed.
+         *
+         * @param node The node which is about to be modified.
+         */
+        void onModification (@Nonnull INode node);
+
+        /**
+         * Handles the addition of a node.
+         * Listeners are notified right after the node has been added to its container.
+         *
+         * @param container The container.
+         * @param node      The node.
+         */
+        default void onAddition (@Nonnull IObjectNode container, @Nonnull INode node) {
+        }
+
+        /**
+         * Handles the removal of a node.
+         * Listeners are notified right after the node has been removed from its container.
+         *
+         * @param container The container.
+         * @param node      The node.
+         */
+        default void onRemoval (@Nonnull IObjectNode container, @Nonnull INode node) {
+        }
+
+        /**
+         * Handles the renaming of a node.
+         * Listeners are notified right after the name has been changed.
+         *
+         * @param node         The node.
+         * @param previousName The previous name.
+         */
+        default void onRename (@Nonnull INamedNode node, @Nonnull String previousName) {
+        }
+}
@@ -37,6 +37,11 @@ public enum NodeValueType {
          */
         DEFAULT,
 
+        /**
+         * Represents a double precision floating point number.
+         */
+        DOUBLE,
+
         /**
          * Represents a value within a list of possible values.
          */
@@ -52,6 +57,11 @@ public enum NodeValueType {
          */
         INTEGER,
 
+        /**
+         * Represents a 64-bit integer.
+         */
+        LONG,
+
         /**
          * Represents a null (empty) value.
          */
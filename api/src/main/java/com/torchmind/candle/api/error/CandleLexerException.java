@@ -28,8 +28,45 @@ import javax.annotation.Nullable;
 public class CandleLexerException extends CandleException {
         public static final String FORMAT = "In line %d:%d: %s";
 
+        private final int line;
+        private final int offset;
+
         public CandleLexerException (@Nullable Object offendingSymbol, @Nonnegative int line, @Nonnegative int offset, @Nonnull String message, @Nullable Throwable cause) {
                 super (String.format (FORMAT, line, offset, message));
+                this.line = line;
+                this.offset = offset;
                 // TODO: See whether offendingSymbol can be integrated into the error message in a sane way when set ...
         }
+
+        /**
+         * Constructs an exception which optionally omits its stack trace.
+         *
+         * @param line               The line.
+         * @param offset             The offset within the line.
+         * @param message            The message.
+         * @param writableStackTrace False if the stack trace is to be omitted.
+         */
+        public CandleLexerException (@Nonnegative int line, @Nonnegative int offset, @Nonnull String message, boolean writableStackTrace) {
+                super (String.format (FORMAT, line, offset, message), null, false, writableStackTrace);
+                this.line = line;
+                this.offset = offset;
+        }
+
+        /**
+         * Retrieves the line in which the error occurred.
+         *
+         * @return The line.
+         */
+        public int line () {
+                return this.line;
+        }
+
+        /**
+         * Retrieves the offset within the line at which the error occurred.
+         *
+         * @return The offset.
+         */
+        public int offset () {
+                return this.offset;
+        }
 }
@@ -16,30 +16,93 @@
  */
 package com.torchmind.candle.api.error;
 
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
 /**
  * Provides an exception for parser error cases.
  *
  * @author Johannes Donath
  */
 public class CandleParserException extends CandleException {
+        public static final String FORMAT = "In line %d:%d: %s";
+
+        private final int line;
+        private final int offset;
 
         protected CandleParserException (String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
                 super (message, cause, enableSuppression, writableStackTrace);
+                this.line = -1;
+                this.offset = -1;
         }
 
         public CandleParserException () {
                 super ();
+                this.line = -1;
+                this.offset = -1;
         }
 
         public CandleParserException (String message) {
                 super (message);
+                this.line = -1;
+                this.offset = -1;
         }
 
         public CandleParserException (String message, Throwable cause) {
                 super (message, cause);
+                this.line = -1;
+                this.offset = -1;
         }
 
         public CandleParserException (Throwable cause) {
                 super (cause);
+                this.line = -1;
+                this.offset = -1;
+        }
+
+        public CandleParserException (@Nonnegative int line, @Nonnegative int offset, @Nonnull String message) {
+                this (line, offset, message, null);
+        }
+
+        public CandleParserException (@Nonnegative int line, @Nonnegative int offset, @Nonnull String message, @Nullable Throwable cause) {
+                super (String.format (FORMAT, line, offset, message), cause);
+                this.line = line;
+                this.offset = offset;
+        }
+
+        /**
+         * Constructs a positioned exception which optionally omits its stack trace.
+         * Omitting the stack trace considerably reduces the cost of exceptions which are merely collected for reporting
+         * purposes.
+         *
+         * @param line               The line.
+         * @param offset             The offset within the line.
+         * @param message            The message.
+         * @param cause              The cause (if any).
+         * @param writableStackTrace False if the stack trace is to be omitted.
+         */
+        public CandleParserException (@Nonnegative int line, @Nonnegative int offset, @Nonnull String message, @Nullable Throwable cause, boolean writableStackTrace) {
+                super (String.format (FORMAT, line, offset, message), cause, false, writableStackTrace);
+                this.line = line;
+                this.offset = offset;
+        }
+
+        /**
+         * Retrieves the line in which the error occurred.
+         *
+         * @return The line (or -1 if unknown).
+         */
+        public int line () {
+                return this.line;
+        }
+
+        /**
+         * Retrieves the offset within the line at which the error occurred.
+         *
+         * @return The offset (or -1 if unknown).
+         */
+        public int offset () {
+                return this.offset;
         }
 }
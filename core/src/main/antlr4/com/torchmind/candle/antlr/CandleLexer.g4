@@ -21,14 +21,17 @@ COMMENT: '/*' .*? '*/';
 COMMENT_LINE: '//' ~[\r\n]*;
 
 // String Literals & Numbers
-STRING_LITERAL_START: '"' -> pushMode (String);
+STRING_LITERAL: '"' (STRING_ESCAPE | ~[\\"])* '"';
 
+NUMBER_DOUBLE: '-'? (NUMBER? '.' [0-9]+ NUMBER_EXP? | NUMBER NUMBER_EXP?) [Dd];
 NUMBER_FLOAT: '-'? NUMBER? '.' [0-9]+ NUMBER_EXP?;
+NUMBER_LONG: ('0x' NUMBER_HEX+ | '-'? NUMBER) [Ll];
 NUMBER_INTEGER: '0x' NUMBER_HEX+ | '-'? NUMBER;
 
 fragment NUMBER: '0' | [1-9] [0-9]*;
 fragment NUMBER_EXP: [Ee] [+\-]? NUMBER;
 fragment NUMBER_HEX: [0-9A-Fa-f];
+fragment STRING_ESCAPE: '\\' (["\\bfnrt] | 'u' NUMBER_HEX NUMBER_HEX NUMBER_HEX NUMBER_HEX);
 
 // Keywords
 COPY: 'copy';
@@ -55,25 +58,3 @@ SEMICOLON: ';';
 
 // Newlines and other whitespace characters
 WHITESPACE: [ \t\r\n\u000C]+ -> skip;
-
-// String Literal Contents
-mode String;
-        STRING_LITERAL_QUOTE: '\\"' { setText ("\""); };
-        STRING_LITERAL_BACKSLASH: '\\\\' { setText ("\\"); };
-        STRING_LITERAL_BACKSPACE: '\\b' { setText ("\b"); };
-        STRING_LITERAL_FORMFILL: '\\f' { setText ("\f"); };
-        STRING_LITERAL_NEWLINE: '\\n' { setText ("\n"); };
-        STRING_LITERAL_CARRIAGE_RETURN: '\\r' { setText ("\r"); };
-        STRING_LITERAL_HORIZONTAL_TAB: '\\t' { setText ("\t"); };
-
-        STRING_LITERAL_ESCAPE_UNICODE: '\\u' NUMBER_HEX NUMBER_HEX NUMBER_HEX NUMBER_HEX {
-                String code = getText ();
-                code = code.substring (2);
-
-                int unicodeNumber = Integer.decode ("0x" + code).intValue ();
-                setText (Character.toString (((char) unicodeNumber)));
-        };
-
-        STRING_LITERAL_TEXT: ~[\\"];
-
-        STRING_LITERAL_END: '"' -> popMode;
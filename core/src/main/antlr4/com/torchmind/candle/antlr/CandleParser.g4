@@ -21,8 +21,8 @@ options {
 }
 
 // Entrypoint Rule
-candle: expression*;
-expression: comment | assignment;
+candle: expression* EOF;
+expression: comment | assignment | objectEnd;
 assignment: object | property;
 
 // Comments
@@ -31,33 +31,27 @@ commentMultiline: COMMENT;
 commentSingleline: COMMENT_LINE;
 
 // Objects & Properties
-object: objectIdentifier BRACE_OPEN expression* BRACE_CLOSE;
+// Note: Objects are matched as a flat sequence of opening and closing braces (which are paired by the listener) in
+// order to keep the parser from recursing for every level of nesting
+object: objectIdentifier BRACE_OPEN;
 objectIdentifier: IDENTIFIER;
+objectEnd: BRACE_CLOSE;
 
 property: propertyIdentifier EQUALS propertyValue;
 propertyIdentifier: IDENTIFIER;
 
 // Property Value Types
-propertyValue: propertyValueArray | propertyValueBoolean | propertyValueDefault | propertyValueEnum | propertyValueFloat | propertyValueInteger | propertyValueNull | propertyValueString;
+propertyValue: propertyValueArray | propertyValueBoolean | propertyValueDefault | propertyValueDouble | propertyValueEnum | propertyValueFloat | propertyValueInteger | propertyValueLong | propertyValueNull | propertyValueString;
 propertyValueBoolean: TRUE | FALSE;
 propertyValueDefault: DEFAULT;
+propertyValueDouble: NUMBER_DOUBLE;
 propertyValueEnum: IDENTIFIER;
 propertyValueFloat: NUMBER_FLOAT;
 propertyValueInteger: NUMBER_INTEGER;
+propertyValueLong: NUMBER_LONG;
 propertyValueNull: NULL;
-propertyValueString:
-        STRING_LITERAL_START (
-                STRING_LITERAL_QUOTE |
-                STRING_LITERAL_BACKSLASH |
-                STRING_LITERAL_BACKSPACE |
-                STRING_LITERAL_FORMFILL |
-                STRING_LITERAL_NEWLINE |
-                STRING_LITERAL_CARRIAGE_RETURN |
-                STRING_LITERAL_HORIZONTAL_TAB |
-                STRING_LITERAL_ESCAPE_UNICODE |
-                STRING_LITERAL_TEXT
-        )* STRING_LITERAL_END;
+propertyValueString: STRING_LITERAL;
 
 propertyValueArray: BRACKET_OPEN propertyValueArrayElementList? BRACKET_CLOSE;
-propertyValueArrayElementList: propertyValueArrayElement (COMMA propertyValueArrayElementList?)?;
-propertyValueArrayElement: propertyValueBoolean | propertyValueEnum | propertyValueFloat | propertyValueInteger | propertyValueNull | propertyValueString;
+propertyValueArrayElementList: propertyValueArrayElement (COMMA propertyValueArrayElement)* COMMA?;
+propertyValueArrayElement: propertyValueBoolean | propertyValueDouble | propertyValueEnum | propertyValueFloat | propertyValueInteger | propertyValueLong | propertyValueNull | propertyValueString;
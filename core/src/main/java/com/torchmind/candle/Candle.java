@@ -18,17 +18,24 @@ package com.torchmind.candle;
 
 import com.torchmind.candle.antlr.*;
 import com.torchmind.candle.api.IDocumentNode;
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.IObjectNode;
+import com.torchmind.candle.api.ITreeListener;
 import com.torchmind.candle.api.error.CandleException;
 import com.torchmind.candle.node.ObjectNode;
-import org.antlr.v4.runtime.ANTLRFileStream;
+import com.torchmind.candle.node.PathIndex;
 import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Provides a root document for the Candle Configuration File Format.
@@ -36,11 +43,171 @@ import java.io.InputStream;
  * @author Johannes Donath
  */
 public class Candle extends ObjectNode implements IDocumentNode {
+        private final List<ITreeListener> listeners = new CopyOnWriteArrayList<> ();
+        private ParseOptions parseOptions = new ParseOptions ();
+        private PathIndex pathIndex = null;
 
         public Candle () {
                 super ();
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public Candle addListener (@Nonnull ITreeListener listener) {
+                this.listeners.add (listener);
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void added (@Nonnull IObjectNode container, @Nonnull INode node) {
+                if (this.listeners.isEmpty ()) { return; }
+
+                for (ITreeListener listener : this.listeners) {
+                        listener.onAddition (container, node);
+                }
+        }
+
+        /**
+         * Retrieves the minimum length of numeric arrays which are stored off-heap when read.
+         *
+         * @return The threshold (zero if disabled).
+         */
+        @Nonnegative
+        public int directArrayThreshold () {
+                return this.parseOptions.directArrayThreshold ();
+        }
+
+        /**
+         * Sets the minimum length of numeric arrays which are stored off-heap when read.
+         *
+         * @param directArrayThreshold The threshold (zero to disable).
+         * @return The document.
+         */
+        @Nonnull
+        public Candle directArrayThreshold (@Nonnegative int directArrayThreshold) {
+                this.parseOptions.directArrayThreshold (directArrayThreshold);
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public Candle document () {
+                return this;
+        }
+
+        /**
+         * Prevents any further modification of this document and all of its nodes.
+         *
+         * @return The document.
+         */
+        @Nonnull
+        @Override
+        public Candle freeze () {
+                super.freeze ();
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public INode get (@Nonnull String name) throws NoSuchElementException {
+                PathIndex pathIndex = this.pathIndex;
+
+                if (pathIndex != null) {
+                        INode node = pathIndex.get (name);
+                        if (node != null) { return node; }
+                }
+
+                return super.get (name);
+        }
+
+        /**
+         * Checks whether lookups are served from a document-wide path index.
+         *
+         * @return True if enabled.
+         */
+        public boolean indexPaths () {
+                return (this.pathIndex != null);
+        }
+
+        /**
+         * Enables/Disables the document-wide path index.
+         * When enabled, nodes are looked up by their full path with a single hash table probe regardless of their depth.
+         * The index is updated incrementally when the document is modified.
+         *
+         * @param indexPaths True if enabled.
+         * @return The document.
+         */
+        @Nonnull
+        public Candle indexPaths (boolean indexPaths) {
+                if (indexPaths == (this.pathIndex != null)) { return this; }
+
+                if (indexPaths) {
+                        this.pathIndex = new PathIndex (this);
+                } else {
+                        this.pathIndex.close ();
+                        this.pathIndex = null;
+                }
+
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void modified (@Nonnull INode node) {
+                if (this.listeners.isEmpty ()) { return; }
+
+                for (ITreeListener listener : this.listeners) {
+                        listener.onModification (node);
+                }
+        }
+
+        /**
+         * Retrieves the options used when processing documents without explicit options.
+         *
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions parseOptions () {
+                return this.parseOptions;
+        }
+
+        /**
+         * Sets the options used when processing documents without explicit options.
+         *
+         * @param parseOptions The options.
+         * @return The document.
+         */
+        @Nonnull
+        public Candle parseOptions (@Nonnull ParseOptions parseOptions) {
+                this.parseOptions = parseOptions;
+                return this;
+        }
+
+        /**
+         * Retrieves the document-wide path index.
+         *
+         * @return The index or null if disabled.
+         * @see #indexPaths(boolean)
+         */
+        @Nullable
+        public PathIndex pathIndex () {
+                return this.pathIndex;
+        }
+
         /**
          * Processes a {@link java.io.File}.
          *
@@ -52,7 +219,22 @@ public class Candle extends ObjectNode implements IDocumentNode {
          */
         @Nonnull
         public Candle read (@Nonnull File file) throws CandleException, IOException {
-                return this.read (file.getPath ());
+                return this.read (file, this.parseOptions);
+        }
+
+        /**
+         * Processes a {@link java.io.File}.
+         *
+         * @param file    The file.
+         * @param options The parse options.
+         * @return The document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        public Candle read (@Nonnull File file, @Nonnull ParseOptions options) throws CandleException, IOException {
+                return this.read (file.getPath (), options);
         }
 
         /**
@@ -66,7 +248,24 @@ public class Candle extends ObjectNode implements IDocumentNode {
          */
         @Nonnull
         public Candle read (@Nonnull String fileName) throws CandleException, IOException {
-                return this.read (new ANTLRFileStream (fileName));
+                return this.read (fileName, this.parseOptions);
+        }
+
+        /**
+         * Processes a file.
+         * When a cache directory is configured, the document is loaded from its compiled image if the file is unchanged.
+         *
+         * @param fileName The file name/path.
+         * @param options  The parse options.
+         * @return The document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        public Candle read (@Nonnull String fileName, @Nonnull ParseOptions options) throws CandleException, IOException {
+                if (options.cacheDirectory () != null) { return CandleImage.read (this, new File (fileName).toPath (), options); }
+                return this.read (CandleInputStream.open (new File (fileName)), options);
         }
 
         /**
@@ -80,7 +279,22 @@ public class Candle extends ObjectNode implements IDocumentNode {
          */
         @Nonnull
         public Candle read (@Nonnull InputStream inputStream) throws CandleException, IOException {
-                return this.read (new ANTLRInputStream (inputStream));
+                return this.read (inputStream, this.parseOptions);
+        }
+
+        /**
+         * Processes an {@link java.io.InputStream}.
+         *
+         * @param inputStream The input stream.
+         * @param options     The parse options.
+         * @return The document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        public Candle read (@Nonnull InputStream inputStream, @Nonnull ParseOptions options) throws CandleException, IOException {
+                return this.read (new CandleInputStream (inputStream), options);
         }
 
         /**
@@ -93,19 +307,22 @@ public class Candle extends ObjectNode implements IDocumentNode {
          */
         @Nonnull
         protected Candle read (@Nonnull ANTLRInputStream inputStream) throws CandleException {
-                try {
-                        CandleLexer lexer = new CandleLexer (inputStream);
-                        lexer.addErrorListener (new LexerErrorListener ());
-
-                        CommonTokenStream tokenStream = new CommonTokenStream (lexer);
-                        CandleParser parser = new CandleParser (tokenStream);
-                        parser.setErrorHandler (new ParserErrorStrategy ());
-
-                        ParseTreeWalker walker = new ParseTreeWalker ();
-                        CandleListener listener = new CandleListener (this);
+                return this.read (inputStream, this.parseOptions);
+        }
 
-                        this.clear ();
-                        walker.walk (listener, parser.candle ());
+        /**
+         * Processes an {@link org.antlr.v4.runtime.ANTLRInputStream}.
+         *
+         * @param inputStream The input stream.
+         * @param options     The parse options.
+         * @return The document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         */
+        @Nonnull
+        protected Candle read (@Nonnull ANTLRInputStream inputStream, @Nonnull ParseOptions options) throws CandleException {
+                try {
+                        ParseEngine.parse (this, options, inputStream);
                         return this;
                 } catch (RuntimeException ex) {
                         if (ex.getCause () instanceof CandleException) { throw ((CandleException) ex.getCause ()); }
@@ -113,6 +330,117 @@ public class Candle extends ObjectNode implements IDocumentNode {
                 }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public Candle removeListener (@Nonnull ITreeListener listener) {
+                this.listeners.remove (listener);
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void removed (@Nonnull IObjectNode container, @Nonnull INode node) {
+                if (this.listeners.isEmpty ()) { return; }
+
+                for (ITreeListener listener : this.listeners) {
+                        listener.onRemoval (container, node);
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void renamed (@Nonnull INamedNode node, @Nonnull String previousName) {
+                if (this.listeners.isEmpty ()) { return; }
+
+                for (ITreeListener listener : this.listeners) {
+                        listener.onRename (node, previousName);
+                }
+        }
+
+        /**
+         * Validates a {@link java.io.File}.
+         *
+         * @param file The file.
+         * @return The errors in order of their position (empty if the document is valid).
+         *
+         * @throws java.io.IOException when reading the document fails.
+         * @see #validate(org.antlr.v4.runtime.ANTLRInputStream, ParseOptions)
+         */
+        @Nonnull
+        public List<CandleException> validate (@Nonnull File file) throws IOException {
+                return this.validate (file, this.parseOptions);
+        }
+
+        /**
+         * Validates a {@link java.io.File}.
+         *
+         * @param file    The file.
+         * @param options The parse options.
+         * @return The errors in order of their position (empty if the document is valid).
+         *
+         * @throws java.io.IOException when reading the document fails.
+         * @see #validate(org.antlr.v4.runtime.ANTLRInputStream, ParseOptions)
+         */
+        @Nonnull
+        public List<CandleException> validate (@Nonnull File file, @Nonnull ParseOptions options) throws IOException {
+                return this.validate (CandleInputStream.open (file), options);
+        }
+
+        /**
+         * Validates an {@link java.io.InputStream}.
+         *
+         * @param inputStream The input stream.
+         * @return The errors in order of their position (empty if the document is valid).
+         *
+         * @throws java.io.IOException when reading the document fails.
+         * @see #validate(org.antlr.v4.runtime.ANTLRInputStream, ParseOptions)
+         */
+        @Nonnull
+        public List<CandleException> validate (@Nonnull InputStream inputStream) throws IOException {
+                return this.validate (inputStream, this.parseOptions);
+        }
+
+        /**
+         * Validates an {@link java.io.InputStream}.
+         *
+         * @param inputStream The input stream.
+         * @param options     The parse options.
+         * @return The errors in order of their position (empty if the document is valid).
+         *
+         * @throws java.io.IOException when reading the document fails.
+         * @see #validate(org.antlr.v4.runtime.ANTLRInputStream, ParseOptions)
+         */
+        @Nonnull
+        public List<CandleException> validate (@Nonnull InputStream inputStream, @Nonnull ParseOptions options) throws IOException {
+                return this.validate (new CandleInputStream (inputStream), options);
+        }
+
+        /**
+         * Validates an {@link org.antlr.v4.runtime.ANTLRInputStream}.
+         *
+         * Unlike {@link #read(org.antlr.v4.runtime.ANTLRInputStream, ParseOptions)}, processing continues after
+         * recovering from an error and all errors are returned instead of being thrown. The returned exceptions carry
+         * their position but no stack trace. Limit violations end processing of the document.
+         *
+         * The document is populated with all content which could be processed and is thus only reliable when no errors
+         * were reported.
+         *
+         * @param inputStream The input stream.
+         * @param options     The parse options.
+         * @return The errors in order of their position (empty if the document is valid).
+         */
+        @Nonnull
+        protected List<CandleException> validate (@Nonnull ANTLRInputStream inputStream, @Nonnull ParseOptions options) {
+                return ParseEngine.validate (this, options, inputStream);
+        }
+
         /**
          * Reads a Candle document.
          * @param file The file.
@@ -125,6 +453,19 @@ public class Candle extends ObjectNode implements IDocumentNode {
                 return (new Candle ()).read (file);
         }
 
+        /**
+         * Reads a Candle document.
+         * @param file    The file.
+         * @param options The parse options.
+         * @return The document.
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        public static Candle readFile (@Nonnull File file, @Nonnull ParseOptions options) throws CandleException, IOException {
+                return (new Candle ()).read (file, options);
+        }
+
         /**
          * Reads a Candle document.
          * @param inputStream The input stream.
@@ -137,6 +478,41 @@ public class Candle extends ObjectNode implements IDocumentNode {
                 return (new Candle ()).read (inputStream);
         }
 
+        /**
+         * Reads a Candle document.
+         * @param inputStream The input stream.
+         * @param options     The parse options.
+         * @return The document.
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        public static Candle readFile (@Nonnull InputStream inputStream, @Nonnull ParseOptions options) throws CandleException, IOException {
+                return (new Candle ()).read (inputStream, options);
+        }
+
+        /**
+         * Validates a Candle document.
+         * @param file The file.
+         * @return The errors in order of their position (empty if the document is valid).
+         * @throws java.io.IOException when reading the document fails.
+         */
+        @Nonnull
+        public static List<CandleException> validateFile (@Nonnull File file) throws IOException {
+                return (new Candle ()).validate (file);
+        }
+
+        /**
+         * Validates a Candle document.
+         * @param inputStream The input stream.
+         * @return The errors in order of their position (empty if the document is valid).
+         * @throws java.io.IOException when reading the document fails.
+         */
+        @Nonnull
+        public static List<CandleException> validateFile (@Nonnull InputStream inputStream) throws IOException {
+                return (new Candle ()).validate (inputStream);
+        }
+
         /**
          * {@inheritDoc}
          */
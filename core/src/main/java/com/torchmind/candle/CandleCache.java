@@ -0,0 +1,472 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle;
+
+import com.torchmind.candle.api.IArrayPropertyNode;
+import com.torchmind.candle.api.ICommentNode;
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.IObjectNode;
+import com.torchmind.candle.api.error.CandleException;
+import com.torchmind.candle.node.property.EnumPropertyNode;
+import com.torchmind.candle.node.property.StringPropertyNode;
+import com.torchmind.candle.node.property.array.EnumArrayPropertyNode;
+import com.torchmind.candle.node.property.array.StringArrayPropertyNode;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Caches parsed documents by file.
+ *
+ * Documents are identified by their canonical path along with their modification time and size. A changed file is thus
+ * parsed again on its next access and replaces the previous revision. Cached documents are frozen and may be shared
+ * freely between threads (any attempt to modify them results in an {@link java.lang.IllegalStateException}).
+ *
+ * The cache is bounded by an estimate of the memory retained by its documents. When the budget is exceeded, the least
+ * recently used documents are evicted. Documents which exceed the entire budget on their own are returned but never
+ * cached.
+ *
+ * When multiple threads request the same document at the same time, it is parsed only once while all other threads
+ * wait for its result.
+ *
+ * @author Johannes Donath
+ */
+public class CandleCache {
+        public static final long DEFAULT_MAXIMUM_WEIGHT = (64L * 1024L * 1024L);
+
+        private static final CandleCache SHARED = new CandleCache ();
+
+        // rough estimates of the memory retained by a 64-bit VM with compressed references
+        private static final int NODE_WEIGHT = 48;
+        private static final int CHILD_WEIGHT = 24;
+        private static final int ARRAY_WEIGHT = 16;
+        private static final int STRING_WEIGHT = 40;
+
+        private final Map<String, Entry> entries = new LinkedHashMap<> (16, 0.75f, true);
+        private final ConcurrentMap<Key, FutureTask<Candle>> pending = new ConcurrentHashMap<> ();
+        private long weight = 0;
+        private volatile long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+        private volatile ParseOptions parseOptions = new ParseOptions ();
+
+        /**
+         * Retrieves the cache shared by the entire process.
+         *
+         * @return The cache.
+         */
+        @Nonnull
+        public static CandleCache shared () {
+                return SHARED;
+        }
+
+        /**
+         * Retrieves a document.
+         *
+         * @param file The file.
+         * @return The frozen document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         * @see #get(java.nio.file.Path)
+         */
+        @Nonnull
+        public Candle get (@Nonnull File file) throws CandleException, IOException {
+                return this.get (file.toPath ());
+        }
+
+        /**
+         * Retrieves a document.
+         * The document is parsed if it is not present within the cache or has changed since it was parsed.
+         *
+         * @param path The path.
+         * @return The frozen document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        public Candle get (@Nonnull Path path) throws CandleException, IOException {
+                Path canonicalPath = path.toRealPath ();
+                BasicFileAttributes attributes = Files.readAttributes (canonicalPath, BasicFileAttributes.class);
+                Key key = new Key (canonicalPath.toString (), attributes.lastModifiedTime ().toMillis (), attributes.size ());
+
+                Candle candle = this.lookup (key);
+                if (candle != null) { return candle; }
+
+                FutureTask<Candle> task = new FutureTask<> (() -> this.load (canonicalPath, key));
+                FutureTask<Candle> existing = this.pending.putIfAbsent (key, task);
+
+                if (existing == null) {
+                        try {
+                                task.run ();
+                        } finally {
+                                this.pending.remove (key, task);
+                        }
+
+                        existing = task;
+                }
+
+                try {
+                        return existing.get ();
+                } catch (InterruptedException ex) {
+                        Thread.currentThread ().interrupt ();
+                        throw new InterruptedIOException ("Interrupted while waiting for document " + canonicalPath);
+                } catch (ExecutionException ex) {
+                        Throwable cause = ex.getCause ();
+
+                        if (cause instanceof CandleException) { throw ((CandleException) cause); }
+                        if (cause instanceof IOException) { throw ((IOException) cause); }
+                        if (cause instanceof RuntimeException) { throw ((RuntimeException) cause); }
+                        if (cause instanceof Error) { throw ((Error) cause); }
+                        throw new IOException ("Could not load document " + canonicalPath, cause);
+                }
+        }
+
+        /**
+         * Removes a document from the cache.
+         *
+         * @param path The path.
+         * @throws java.io.IOException when the canonical path cannot be resolved.
+         */
+        public void invalidate (@Nonnull Path path) throws IOException {
+                String canonicalPath;
+
+                try {
+                        canonicalPath = path.toRealPath ().toString ();
+                } catch (NoSuchFileException ex) {
+                        canonicalPath = path.toAbsolutePath ().normalize ().toString ();
+                }
+
+                synchronized (this.entries) {
+                        Entry entry = this.entries.remove (canonicalPath);
+                        if (entry != null) { this.weight -= entry.weight; }
+                }
+        }
+
+        /**
+         * Removes all documents from the cache.
+         */
+        public void invalidateAll () {
+                synchronized (this.entries) {
+                        this.entries.clear ();
+                        this.weight = 0;
+                }
+        }
+
+        /**
+         * Retrieves the estimated amount of memory the cache may retain.
+         *
+         * @return The budget in bytes.
+         */
+        @Nonnegative
+        public long maximumWeight () {
+                return this.maximumWeight;
+        }
+
+        /**
+         * Sets the estimated amount of memory the cache may retain.
+         * Documents are evicted immediately if the new budget is exceeded.
+         *
+         * @param maximumWeight The budget in bytes.
+         * @return The cache.
+         */
+        @Nonnull
+        public CandleCache maximumWeight (@Nonnegative long maximumWeight) {
+                synchronized (this.entries) {
+                        this.maximumWeight = maximumWeight;
+                        this.evict ();
+                }
+
+                return this;
+        }
+
+        /**
+         * Retrieves the options used when parsing documents.
+         *
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions parseOptions () {
+                return this.parseOptions;
+        }
+
+        /**
+         * Sets the options used when parsing documents.
+         * Documents which are already cached are not affected.
+         *
+         * @param parseOptions The options.
+         * @return The cache.
+         */
+        @Nonnull
+        public CandleCache parseOptions (@Nonnull ParseOptions parseOptions) {
+                this.parseOptions = new ParseOptions (parseOptions);
+                return this;
+        }
+
+        /**
+         * Retrieves the amount of cached documents.
+         *
+         * @return The amount.
+         */
+        @Nonnegative
+        public int size () {
+                synchronized (this.entries) {
+                        return this.entries.size ();
+                }
+        }
+
+        /**
+         * Retrieves the estimated amount of memory retained by all cached documents.
+         *
+         * @return The weight in bytes.
+         */
+        @Nonnegative
+        public long weight () {
+                synchronized (this.entries) {
+                        return this.weight;
+                }
+        }
+
+        /**
+         * Estimates the amount of memory retained by a document.
+         *
+         * @param candle The document.
+         * @return The weight in bytes.
+         */
+        @Nonnegative
+        static long weigh (@Nonnull Candle candle) {
+                Deque<IObjectNode> pending = new ArrayDeque<> ();
+                pending.push (candle);
+
+                long weight = 0;
+                while (!pending.isEmpty ()) {
+                        IObjectNode container = pending.pop ();
+                        weight += NODE_WEIGHT;
+
+                        for (INode node : container) {
+                                weight += CHILD_WEIGHT;
+
+                                if (node instanceof IObjectNode) {
+                                        pending.push (((IObjectNode) node));
+                                        continue;
+                                }
+
+                                weight += NODE_WEIGHT;
+                                if (node instanceof INamedNode) { weight += weigh (((INamedNode) node).name ()); }
+
+                                if (node instanceof ICommentNode) {
+                                        weight += weigh (((ICommentNode) node).text ());
+                                } else if (node instanceof StringPropertyNode) {
+                                        weight += weigh (((StringPropertyNode) node).value ());
+                                } else if (node instanceof EnumPropertyNode) {
+                                        weight += weigh (((EnumPropertyNode) node).value ());
+                                } else if (node instanceof StringArrayPropertyNode) {
+                                        weight += ARRAY_WEIGHT;
+                                        for (String value : ((StringArrayPropertyNode) node).values ()) { weight += 4 + weigh (value); }
+                                } else if (node instanceof EnumArrayPropertyNode) {
+                                        weight += ARRAY_WEIGHT;
+                                        for (String value : ((EnumArrayPropertyNode) node).values ()) { weight += 4 + weigh (value); }
+                                } else if (node instanceof IArrayPropertyNode) {
+                                        IArrayPropertyNode array = ((IArrayPropertyNode) node);
+                                        weight += ARRAY_WEIGHT + ((long) array.length () * itemWeight (array));
+                                }
+                        }
+
+                        if (container instanceof INamedNode) { weight += weigh (((INamedNode) container).name ()); }
+                }
+
+                return weight;
+        }
+
+        /**
+         * Estimates the amount of memory retained by a single array element.
+         */
+        @Nonnegative
+        private static int itemWeight (@Nonnull IArrayPropertyNode node) {
+                switch (node.itemType ()) {
+                        case BOOLEAN:
+                                return 1;
+                        case FLOAT:
+                        case INTEGER:
+                                return 4;
+                        case DOUBLE:
+                        case LONG:
+                                return 8;
+                        default:
+                                return 4;
+                }
+        }
+
+        /**
+         * Estimates the amount of memory retained by a string.
+         */
+        @Nonnegative
+        private static long weigh (@Nullable String value) {
+                if (value == null) { return 0; }
+                return STRING_WEIGHT + (2L * value.length ());
+        }
+
+        /**
+         * Parses a document and stores it within the cache.
+         *
+         * @param path The canonical path.
+         * @param key  The key.
+         * @return The frozen document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        private Candle load (@Nonnull Path path, @Nonnull Key key) throws CandleException, IOException {
+                // another thread may have finished loading the same revision right before this task was registered
+                Candle candle = this.lookup (key);
+                if (candle != null) { return candle; }
+
+                candle = new Candle ().read (path.toFile (), this.parseOptions);
+                candle.freeze ();
+
+                long weight = weigh (candle);
+
+                synchronized (this.entries) {
+                        if (weight > this.maximumWeight) { return candle; }
+
+                        // a slow load of an older revision must not replace a newer revision which has been cached meanwhile
+                        Entry previous = this.entries.get (key.path);
+                        Entry current = this.entries.merge (key.path, new Entry (key, candle, weight), CandleCache::latest);
+                        if (current.candle != candle) { return candle; }
+
+                        if (previous != null) { this.weight -= previous.weight; }
+
+                        this.weight += weight;
+                        this.evict ();
+                }
+
+                return candle;
+        }
+
+        /**
+         * Retrieves a cached document.
+         *
+         * @param key The key.
+         * @return The document or null if no matching revision is cached.
+         */
+        @Nullable
+        private Candle lookup (@Nonnull Key key) {
+                synchronized (this.entries) {
+                        Entry entry = this.entries.get (key.path);
+                        if (entry == null || !entry.key.equals (key)) { return null; }
+
+                        return entry.candle;
+                }
+        }
+
+        /**
+         * Selects the more recent of two cached revisions of the same file.
+         * Revisions with the same modification time are considered newer when stored later.
+         *
+         * @param previous The cached revision.
+         * @param next     The revision to store.
+         * @return The revision to keep.
+         */
+        @Nonnull
+        private static Entry latest (@Nonnull Entry previous, @Nonnull Entry next) {
+                return (previous.key.lastModified > next.key.lastModified ? previous : next);
+        }
+
+        /**
+         * Evicts the least recently used documents until the budget is met.
+         * Callers are expected to hold the lock on {@link #entries}.
+         */
+        private void evict () {
+                Iterator<Entry> iterator = this.entries.values ().iterator ();
+
+                while (this.weight > this.maximumWeight && iterator.hasNext ()) {
+                        this.weight -= iterator.next ().weight;
+                        iterator.remove ();
+                }
+        }
+
+        /**
+         * Represents a cached document.
+         */
+        private static class Entry {
+                private final Key key;
+                private final Candle candle;
+                private final long weight;
+
+                public Entry (@Nonnull Key key, @Nonnull Candle candle, @Nonnegative long weight) {
+                        this.key = key;
+                        this.candle = candle;
+                        this.weight = weight;
+                }
+        }
+
+        /**
+         * Identifies a single revision of a file.
+         */
+        private static class Key {
+                private final String path;
+                private final long lastModified;
+                private final long size;
+
+                public Key (@Nonnull String path, long lastModified, @Nonnegative long size) {
+                        this.path = path;
+                        this.lastModified = lastModified;
+                        this.size = size;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean equals (Object o) {
+                        if (this == o) { return true; }
+                        if (!(o instanceof Key)) { return false; }
+
+                        Key key = ((Key) o);
+                        return this.lastModified == key.lastModified && this.size == key.size && this.path.equals (key.path);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int hashCode () {
+                        int result = this.path.hashCode ();
+                        result = 31 * result + Long.hashCode (this.lastModified);
+                        result = 31 * result + Long.hashCode (this.size);
+                        return result;
+                }
+        }
+}
@@ -0,0 +1,674 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle;
+
+import com.torchmind.candle.antlr.CandleInputStream;
+import com.torchmind.candle.api.ICommentNode;
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.error.CandleException;
+import com.torchmind.candle.node.CommentNode;
+import com.torchmind.candle.node.ObjectNode;
+import com.torchmind.candle.node.property.*;
+import com.torchmind.candle.node.property.array.*;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Stores parsed documents within a compact binary image.
+ *
+ * Images are kept within the cache directory configured in {@link com.torchmind.candle.ParseOptions} and are named
+ * after a SHA-256 hash of the source path followed by a SHA-256 hash of the source bytes (and all options which affect
+ * the parsed tree). An unchanged document is thus loaded from its image with a single mapped read while a changed
+ * document results in a new image which replaces all previous images of the same source file. Images are written to a
+ * temporary file first and moved into place atomically so that concurrent readers never observe partial images.
+ *
+ * Names are stored once per image and shared between all nodes which use them. Numeric arrays are stored as raw
+ * big-endian values.
+ *
+ * @author Johannes Donath
+ */
+final class CandleImage {
+        private static final int MAGIC = 0x434E444C;
+        private static final int VERSION = 1;
+        private static final String EXTENSION = ".cndi";
+        private static final char[] HEX = "0123456789abcdef".toCharArray ();
+
+        private static final byte TAG_COMMENT = 0;
+        private static final byte TAG_OBJECT = 1;
+        private static final byte TAG_BOOLEAN = 2;
+        private static final byte TAG_DEFAULT = 3;
+        private static final byte TAG_DOUBLE = 4;
+        private static final byte TAG_ENUM = 5;
+        private static final byte TAG_FLOAT = 6;
+        private static final byte TAG_INTEGER = 7;
+        private static final byte TAG_LONG = 8;
+        private static final byte TAG_NULL = 9;
+        private static final byte TAG_STRING = 10;
+        private static final byte TAG_BOOLEAN_ARRAY = 11;
+        private static final byte TAG_DOUBLE_ARRAY = 12;
+        private static final byte TAG_ENUM_ARRAY = 13;
+        private static final byte TAG_FLOAT_ARRAY = 14;
+        private static final byte TAG_INTEGER_ARRAY = 15;
+        private static final byte TAG_LONG_ARRAY = 16;
+        private static final byte TAG_NULL_ARRAY = 17;
+        private static final byte TAG_STRING_ARRAY = 18;
+
+        private CandleImage () {
+        }
+
+        /**
+         * Reads a document from its image or parses it and stores its image when no matching image exists.
+         *
+         * @param candle  The document to populate.
+         * @param file    The source file.
+         * @param options The parse options (including the cache directory).
+         * @return The document.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException                            when reading the document fails.
+         */
+        @Nonnull
+        static Candle read (@Nonnull Candle candle, @Nonnull Path file, @Nonnull ParseOptions options) throws CandleException, IOException {
+                Path directory = options.cacheDirectory ();
+                if (directory == null) { throw new IllegalArgumentException ("No cache directory has been configured"); }
+
+                byte[] source = Files.readAllBytes (file);
+                String prefix = key (file) + "-";
+                Path image = directory.resolve (prefix + key (source, options) + EXTENSION);
+
+                if (load (candle, image, options)) { return candle; }
+
+                candle.read (new CandleInputStream (new InputStreamReader (new ByteArrayInputStream (source))), options);
+
+                try {
+                        store (candle, directory, image);
+                        prune (directory, prefix, image);
+                } catch (IOException ignore) {
+                        // the image is merely an optimization and is rebuilt on the next read
+                }
+
+                return candle;
+        }
+
+        /**
+         * Computes the key of a source file.
+         *
+         * @param file The source file.
+         * @return The key.
+         */
+        @Nonnull
+        static String key (@Nonnull Path file) {
+                MessageDigest digest = digest ();
+                digest.update (file.toAbsolutePath ().normalize ().toString ().getBytes (StandardCharsets.UTF_8));
+                return hex (digest.digest ());
+        }
+
+        /**
+         * Computes the key of a document revision.
+         *
+         * @param source  The source bytes.
+         * @param options The parse options.
+         * @return The key.
+         */
+        @Nonnull
+        static String key (@Nonnull byte[] source, @Nonnull ParseOptions options) {
+                MessageDigest digest = digest ();
+                digest.update (source);
+
+                ByteBuffer parameters = ByteBuffer.allocate (24);
+                parameters.putInt (VERSION);
+                parameters.putInt (options.discardComments () ? 1 : 0);
+                parameters.putInt (options.maximumArrayLength ());
+                parameters.putInt (options.maximumDepth ());
+                parameters.putInt (options.maximumNodes ());
+                parameters.putInt (options.maximumStringLength ());
+                digest.update (parameters.array ());
+
+                return hex (digest.digest ());
+        }
+
+        /**
+         * Creates a new SHA-256 digest.
+         *
+         * @return The digest.
+         */
+        @Nonnull
+        private static MessageDigest digest () {
+                try {
+                        return MessageDigest.getInstance ("SHA-256");
+                } catch (NoSuchAlgorithmException ex) {
+                        throw new IllegalStateException ("SHA-256 is not supported by this platform", ex);
+                }
+        }
+
+        /**
+         * Encodes a hash as a lower case hexadecimal string.
+         *
+         * @param hash The hash.
+         * @return The string.
+         */
+        @Nonnull
+        private static String hex (@Nonnull byte[] hash) {
+                char[] key = new char[(hash.length * 2)];
+
+                for (int i = 0; i < hash.length; i++) {
+                        key[(i * 2)] = HEX[((hash[i] >> 4) & 0xF)];
+                        key[(i * 2 + 1)] = HEX[(hash[i] & 0xF)];
+                }
+
+                return new String (key);
+        }
+
+        /**
+         * Populates a document from an image.
+         *
+         * @param candle  The document.
+         * @param image   The image file.
+         * @param options The parse options.
+         * @return True if the image was loaded, false if it does not exist or is damaged.
+         *
+         * @throws java.io.IOException when reading an existing image fails.
+         */
+        static boolean load (@Nonnull Candle candle, @Nonnull Path image, @Nonnull ParseOptions options) throws IOException {
+                ByteBuffer buffer;
+
+                try (FileChannel channel = FileChannel.open (image, StandardOpenOption.READ)) {
+                        buffer = channel.map (FileChannel.MapMode.READ_ONLY, 0, channel.size ());
+                } catch (NoSuchFileException ex) {
+                        return false;
+                }
+
+                try {
+                        decode (candle, buffer, options);
+                        return true;
+                } catch (BufferUnderflowException | IllegalArgumentException | IllegalStateException ex) {
+                        candle.clear ();
+                        return false;
+                }
+        }
+
+        /**
+         * Writes the image of a document.
+         *
+         * @param candle    The document.
+         * @param directory The cache directory.
+         * @param image     The image file.
+         * @throws java.io.IOException when writing the image fails.
+         */
+        static void store (@Nonnull Candle candle, @Nonnull Path directory, @Nonnull Path image) throws IOException {
+                Files.createDirectories (directory);
+                Path temporary = Files.createTempFile (directory, image.getFileName ().toString (), ".tmp");
+
+                try {
+                        try (OutputStream outputStream = Files.newOutputStream (temporary)) {
+                                encode (candle, outputStream);
+                        }
+
+                        try {
+                                Files.move (temporary, image, StandardCopyOption.ATOMIC_MOVE);
+                        } catch (AtomicMoveNotSupportedException ex) {
+                                Files.move (temporary, image, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                } finally {
+                        Files.deleteIfExists (temporary);
+                }
+        }
+
+        /**
+         * Deletes all images of a source file except for its current image.
+         *
+         * @param directory The cache directory.
+         * @param prefix    The common prefix of all images of the source file.
+         * @param image     The current image.
+         * @throws java.io.IOException when listing the cache directory fails.
+         */
+        static void prune (@Nonnull Path directory, @Nonnull String prefix, @Nonnull Path image) throws IOException {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream (directory, prefix + "*" + EXTENSION)) {
+                        for (Path previous : stream) {
+                                if (previous.equals (image)) { continue; }
+
+                                try {
+                                        Files.deleteIfExists (previous);
+                                } catch (IOException ignore) {
+                                        // images may still be mapped by other readers on some platforms
+                                }
+                        }
+                }
+        }
+
+        /**
+         * Encodes a document.
+         *
+         * @param candle       The document.
+         * @param outputStream The output stream.
+         * @throws java.io.IOException when writing fails.
+         */
+        static void encode (@Nonnull Candle candle, @Nonnull OutputStream outputStream) throws IOException {
+                Map<String, Integer> names = new HashMap<> ();
+                List<String> nameList = new ArrayList<> ();
+                Deque<Iterator<INode>> pending = new ArrayDeque<> ();
+
+                // names are collected up front so that the name table precedes all nodes
+                pending.push (candle.iterator ());
+                while (!pending.isEmpty ()) {
+                        Iterator<INode> iterator = pending.peek ();
+                        if (!iterator.hasNext ()) {
+                                pending.pop ();
+                                continue;
+                        }
+
+                        INode node = iterator.next ();
+                        if (node instanceof INamedNode) { names.computeIfAbsent (((INamedNode) node).name (), (n) -> { nameList.add (n); return (nameList.size () - 1); }); }
+                        if (node instanceof ObjectNode) { pending.push (((ObjectNode) node).iterator ()); }
+                }
+
+                DataOutputStream out = new DataOutputStream (new BufferedOutputStream (outputStream));
+                out.writeInt (MAGIC);
+                out.writeInt (VERSION);
+
+                out.writeInt (nameList.size ());
+                for (String name : nameList) { writeString (out, name); }
+
+                out.writeInt (candle.size ());
+                pending.push (candle.iterator ());
+
+                while (!pending.isEmpty ()) {
+                        Iterator<INode> iterator = pending.peek ();
+                        if (!iterator.hasNext ()) {
+                                pending.pop ();
+                                continue;
+                        }
+
+                        INode node = iterator.next ();
+                        if (node instanceof ICommentNode) {
+                                out.writeByte (TAG_COMMENT);
+                                writeString (out, ((ICommentNode) node).text ());
+                                continue;
+                        }
+
+                        if (!(node instanceof INamedNode)) { throw new IllegalStateException ("Unsupported node type: " + node.getClass ().getName ()); }
+                        byte tag = tag (node);
+
+                        out.writeByte (tag);
+                        out.writeInt (names.get (((INamedNode) node).name ()));
+
+                        switch (tag) {
+                                case TAG_OBJECT:
+                                        out.writeInt (((ObjectNode) node).size ());
+                                        pending.push (((ObjectNode) node).iterator ());
+                                        break;
+                                case TAG_BOOLEAN:
+                                        out.writeBoolean (((BooleanPropertyNode) node).value ());
+                                        break;
+                                case TAG_DOUBLE:
+                                        out.writeDouble (((DoublePropertyNode) node).value ());
+                                        break;
+                                case TAG_ENUM:
+                                        writeString (out, ((EnumPropertyNode) node).value ());
+                                        break;
+                                case TAG_FLOAT:
+                                        out.writeFloat (((FloatPropertyNode) node).value ());
+                                        break;
+                                case TAG_INTEGER:
+                                        out.writeInt (((IntegerPropertyNode) node).value ());
+                                        break;
+                                case TAG_LONG:
+                                        out.writeLong (((LongPropertyNode) node).value ());
+                                        break;
+                                case TAG_STRING:
+                                        writeString (out, ((StringPropertyNode) node).value ());
+                                        break;
+                                case TAG_BOOLEAN_ARRAY:
+                                        boolean[] booleans = ((BooleanArrayPropertyNode) node).array ();
+                                        out.writeInt (booleans.length);
+                                        for (boolean value : booleans) { out.writeBoolean (value); }
+                                        break;
+                                case TAG_DOUBLE_ARRAY:
+                                        DoubleBuffer doubles = ((DoubleArrayPropertyNode) node).buffer ();
+                                        out.writeInt (doubles.remaining ());
+                                        while (doubles.hasRemaining ()) { out.writeDouble (doubles.get ()); }
+                                        break;
+                                case TAG_FLOAT_ARRAY:
+                                        FloatBuffer floats = ((FloatArrayPropertyNode) node).buffer ();
+                                        out.writeInt (floats.remaining ());
+                                        while (floats.hasRemaining ()) { out.writeFloat (floats.get ()); }
+                                        break;
+                                case TAG_INTEGER_ARRAY:
+                                        IntBuffer integers = ((IntegerArrayPropertyNode) node).buffer ();
+                                        out.writeInt (integers.remaining ());
+                                        while (integers.hasRemaining ()) { out.writeInt (integers.get ()); }
+                                        break;
+                                case TAG_LONG_ARRAY:
+                                        LongBuffer longs = ((LongArrayPropertyNode) node).buffer ();
+                                        out.writeInt (longs.remaining ());
+                                        while (longs.hasRemaining ()) { out.writeLong (longs.get ()); }
+                                        break;
+                                case TAG_ENUM_ARRAY:
+                                        writeStrings (out, ((EnumArrayPropertyNode) node).values ());
+                                        break;
+                                case TAG_STRING_ARRAY:
+                                        writeStrings (out, ((StringArrayPropertyNode) node).values ());
+                                        break;
+                        }
+                }
+
+                out.flush ();
+        }
+
+        /**
+         * Decodes a document.
+         *
+         * @param candle  The document to populate.
+         * @param buffer  The image.
+         * @param options The parse options.
+         * @throws java.nio.BufferUnderflowException when the image is truncated.
+         * @throws java.lang.IllegalArgumentException when the image is malformed.
+         */
+        static void decode (@Nonnull Candle candle, @Nonnull ByteBuffer buffer, @Nonnull ParseOptions options) throws BufferUnderflowException, IllegalArgumentException {
+                if (buffer.getInt () != MAGIC || buffer.getInt () != VERSION) { throw new IllegalArgumentException ("Unsupported image format"); }
+
+                String[] names = new String[checkLength (buffer.getInt (), buffer)];
+                for (int i = 0; i < names.length; i++) { names[i] = readString (buffer); }
+
+                candle.clear ();
+
+                Deque<ObjectNode> containers = new ArrayDeque<> ();
+                Deque<int[]> remaining = new ArrayDeque<> ();
+                containers.push (candle);
+                remaining.push (new int[] { buffer.getInt () });
+
+                while (!containers.isEmpty ()) {
+                        if (remaining.peek ()[0]-- == 0) {
+                                containers.pop ();
+                                remaining.pop ();
+                                continue;
+                        }
+
+                        ObjectNode container = containers.peek ();
+                        byte tag = buffer.get ();
+
+                        if (tag == TAG_COMMENT) {
+                                container.append (new CommentNode (candle, readString (buffer)));
+                                continue;
+                        }
+
+                        int nameIndex = buffer.getInt ();
+                        if (nameIndex < 0 || nameIndex >= names.length) { throw new IllegalArgumentException ("Illegal name reference: " + nameIndex); }
+                        String name = names[nameIndex];
+
+                        switch (tag) {
+                                case TAG_OBJECT:
+                                        ObjectNode node = new ObjectNode (candle, name);
+                                        container.append (node);
+
+                                        containers.push (node);
+                                        remaining.push (new int[] { buffer.getInt () });
+                                        break;
+                                case TAG_BOOLEAN:
+                                        container.append (new BooleanPropertyNode (candle, name, (buffer.get () != 0)));
+                                        break;
+                                case TAG_DEFAULT:
+                                        container.append (new DefaultPropertyNode (candle, name));
+                                        break;
+                                case TAG_DOUBLE:
+                                        container.append (new DoublePropertyNode (candle, name, buffer.getDouble ()));
+                                        break;
+                                case TAG_ENUM:
+                                        container.append (new EnumPropertyNode (candle, name, readString (buffer)));
+                                        break;
+                                case TAG_FLOAT:
+                                        container.append (new FloatPropertyNode (candle, name, buffer.getFloat ()));
+                                        break;
+                                case TAG_INTEGER:
+                                        container.append (new IntegerPropertyNode (candle, name, buffer.getInt ()));
+                                        break;
+                                case TAG_LONG:
+                                        container.append (new LongPropertyNode (candle, name, buffer.getLong ()));
+                                        break;
+                                case TAG_NULL:
+                                        container.append (new NullPropertyNode (candle, name));
+                                        break;
+                                case TAG_STRING:
+                                        container.append (new StringPropertyNode (candle, name, readString (buffer)));
+                                        break;
+                                case TAG_BOOLEAN_ARRAY:
+                                        boolean[] booleans = new boolean[checkLength (buffer.getInt (), buffer)];
+                                        for (int i = 0; i < booleans.length; i++) { booleans[i] = (buffer.get () != 0); }
+                                        container.append (new BooleanArrayPropertyNode (candle, name, booleans));
+                                        break;
+                                case TAG_DOUBLE_ARRAY:
+                                        container.append (readDoubles (candle, name, buffer, options));
+                                        break;
+                                case TAG_ENUM_ARRAY:
+                                        container.append (new EnumArrayPropertyNode (candle, name, readStrings (buffer)));
+                                        break;
+                                case TAG_FLOAT_ARRAY:
+                                        container.append (readFloats (candle, name, buffer, options));
+                                        break;
+                                case TAG_INTEGER_ARRAY:
+                                        container.append (readIntegers (candle, name, buffer, options));
+                                        break;
+                                case TAG_LONG_ARRAY:
+                                        container.append (readLongs (candle, name, buffer, options));
+                                        break;
+                                case TAG_NULL_ARRAY:
+                                        container.append (new NullArrayPropertyNode (candle, name));
+                                        break;
+                                case TAG_STRING_ARRAY:
+                                        container.append (new StringArrayPropertyNode (candle, name, readStrings (buffer)));
+                                        break;
+                                default:
+                                        throw new IllegalArgumentException ("Illegal node tag: " + tag);
+                        }
+                }
+
+                if (buffer.hasRemaining ()) { throw new IllegalArgumentException ("Unexpected data at end of image"); }
+        }
+
+        /**
+         * Selects the tag of a named node.
+         */
+        private static byte tag (@Nonnull INode node) {
+                if (node instanceof ObjectNode) { return TAG_OBJECT; }
+                if (node instanceof BooleanPropertyNode) { return TAG_BOOLEAN; }
+                if (node instanceof DefaultPropertyNode) { return TAG_DEFAULT; }
+                if (node instanceof DoublePropertyNode) { return TAG_DOUBLE; }
+                if (node instanceof EnumPropertyNode) { return TAG_ENUM; }
+                if (node instanceof FloatPropertyNode) { return TAG_FLOAT; }
+                if (node instanceof IntegerPropertyNode) { return TAG_INTEGER; }
+                if (node instanceof LongPropertyNode) { return TAG_LONG; }
+                if (node instanceof NullPropertyNode) { return TAG_NULL; }
+                if (node instanceof StringPropertyNode) { return TAG_STRING; }
+                if (node instanceof BooleanArrayPropertyNode) { return TAG_BOOLEAN_ARRAY; }
+                if (node instanceof DoubleArrayPropertyNode) { return TAG_DOUBLE_ARRAY; }
+                if (node instanceof EnumArrayPropertyNode) { return TAG_ENUM_ARRAY; }
+                if (node instanceof FloatArrayPropertyNode) { return TAG_FLOAT_ARRAY; }
+                if (node instanceof IntegerArrayPropertyNode) { return TAG_INTEGER_ARRAY; }
+                if (node instanceof LongArrayPropertyNode) { return TAG_LONG_ARRAY; }
+                if (node instanceof NullArrayPropertyNode) { return TAG_NULL_ARRAY; }
+                if (node instanceof StringArrayPropertyNode) { return TAG_STRING_ARRAY; }
+
+                throw new IllegalStateException ("Unsupported node type: " + node.getClass ().getName ());
+        }
+
+        /**
+         * Ensures a length prefix is plausible for the remaining image.
+         */
+        @Nonnegative
+        private static int checkLength (int length, @Nonnull ByteBuffer buffer) throws IllegalArgumentException {
+                if (length < 0 || length > buffer.remaining ()) { throw new IllegalArgumentException ("Illegal length: " + length); }
+                return length;
+        }
+
+        /**
+         * Reads a double array.
+         */
+        @Nonnull
+        private static DoubleArrayPropertyNode readDoubles (@Nonnull Candle candle, @Nonnull String name, @Nonnull ByteBuffer buffer, @Nonnull ParseOptions options) {
+                int length = checkLength (buffer.getInt (), buffer);
+                DoubleBuffer source = ((DoubleBuffer) buffer.asDoubleBuffer ().limit (length));
+                buffer.position (buffer.position () + (length * 8));
+
+                if (isDirect (length, options)) {
+                        DoubleBuffer target = DirectBuffers.allocateDoubles (length);
+                        target.put (source).flip ();
+                        return new DoubleArrayPropertyNode (candle, name, target);
+                }
+
+                double[] array = new double[length];
+                source.get (array);
+                return new DoubleArrayPropertyNode (candle, name, array);
+        }
+
+        /**
+         * Reads a float array.
+         */
+        @Nonnull
+        private static FloatArrayPropertyNode readFloats (@Nonnull Candle candle, @Nonnull String name, @Nonnull ByteBuffer buffer, @Nonnull ParseOptions options) {
+                int length = checkLength (buffer.getInt (), buffer);
+                FloatBuffer source = ((FloatBuffer) buffer.asFloatBuffer ().limit (length));
+                buffer.position (buffer.position () + (length * 4));
+
+                if (isDirect (length, options)) {
+                        FloatBuffer target = DirectBuffers.allocateFloats (length);
+                        target.put (source).flip ();
+                        return new FloatArrayPropertyNode (candle, name, target);
+                }
+
+                float[] array = new float[length];
+                source.get (array);
+                return new FloatArrayPropertyNode (candle, name, array);
+        }
+
+        /**
+         * Reads an integer array.
+         */
+        @Nonnull
+        private static IntegerArrayPropertyNode readIntegers (@Nonnull Candle candle, @Nonnull String name, @Nonnull ByteBuffer buffer, @Nonnull ParseOptions options) {
+                int length = checkLength (buffer.getInt (), buffer);
+                IntBuffer source = ((IntBuffer) buffer.asIntBuffer ().limit (length));
+                buffer.position (buffer.position () + (length * 4));
+
+                if (isDirect (length, options)) {
+                        IntBuffer target = DirectBuffers.allocateInts (length);
+                        target.put (source).flip ();
+                        return new IntegerArrayPropertyNode (candle, name, target);
+                }
+
+                int[] array = new int[length];
+                source.get (array);
+                return new IntegerArrayPropertyNode (candle, name, array);
+        }
+
+        /**
+         * Reads a long array.
+         */
+        @Nonnull
+        private static LongArrayPropertyNode readLongs (@Nonnull Candle candle, @Nonnull String name, @Nonnull ByteBuffer buffer, @Nonnull ParseOptions options) {
+                int length = checkLength (buffer.getInt (), buffer);
+                LongBuffer source = ((LongBuffer) buffer.asLongBuffer ().limit (length));
+                buffer.position (buffer.position () + (length * 8));
+
+                if (isDirect (length, options)) {
+                        LongBuffer target = DirectBuffers.allocateLongs (length);
+                        target.put (source).flip ();
+                        return new LongArrayPropertyNode (candle, name, target);
+                }
+
+                long[] array = new long[length];
+                source.get (array);
+                return new LongArrayPropertyNode (candle, name, array);
+        }
+
+        /**
+         * Checks whether an array of a certain length is stored off-heap.
+         */
+        private static boolean isDirect (@Nonnegative int length, @Nonnull ParseOptions options) {
+                return (options.directArrayThreshold () != 0 && length >= options.directArrayThreshold ());
+        }
+
+        /**
+         * Reads a string (a negative length denotes null).
+         */
+        @Nullable
+        private static String readString (@Nonnull ByteBuffer buffer) {
+                int length = buffer.getInt ();
+                if (length < 0) { return null; }
+
+                char[] value = new char[checkLength (length, buffer)];
+                for (int i = 0; i < value.length; i++) { value[i] = buffer.getChar (); }
+                return new String (value);
+        }
+
+        /**
+         * Reads a string array.
+         */
+        @Nonnull
+        private static String[] readStrings (@Nonnull ByteBuffer buffer) {
+                String[] array = new String[checkLength (buffer.getInt (), buffer)];
+                for (int i = 0; i < array.length; i++) { array[i] = readString (buffer); }
+                return array;
+        }
+
+        /**
+         * Writes a string (a negative length denotes null).
+         */
+        private static void writeString (@Nonnull DataOutputStream out, @Nullable String value) throws IOException {
+                if (value == null) {
+                        out.writeInt (-1);
+                        return;
+                }
+
+                out.writeInt (value.length ());
+                out.writeChars (value);
+        }
+
+        /**
+         * Writes a string array.
+         */
+        private static void writeStrings (@Nonnull DataOutputStream out, @Nonnull List<String> values) throws IOException {
+                out.writeInt (values.size ());
+                for (String value : values) { writeString (out, value); }
+        }
+}
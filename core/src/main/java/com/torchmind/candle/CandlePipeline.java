@@ -0,0 +1,352 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle;
+
+import com.torchmind.candle.antlr.ParseEngine;
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.IObjectNode;
+import com.torchmind.candle.api.error.CandleException;
+import com.torchmind.candle.node.NodeQuery;
+import com.torchmind.candle.node.ObjectNode;
+import org.antlr.v4.runtime.UnbufferedCharStream;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Transforms documents in a single streaming pass without building a tree.
+ *
+ * Documents are read as a sequence of events (see {@link com.torchmind.candle.ICandleHandler}) which is passed through
+ * all stages of the pipeline in order of their registration before it reaches its destination (usually a
+ * {@link com.torchmind.candle.CandleWriter}). Stages select nodes using a {@link com.torchmind.candle.node.NodeQuery}
+ * which is matched against the full path of each node as produced by the previous stages (a stage which precedes a
+ * rename thus refers to the original name). Memory use is thus bounded
+ * by the nesting depth and the size of the largest single node rather than the document size.
+ *
+ * Since objects are reported before their children, queries cannot refer to the contents of an object. Dropping an
+ * object drops all of its contents.
+ *
+ * @author Johannes Donath
+ */
+public class CandlePipeline {
+        private final List<Stage> stages = new ArrayList<> ();
+        private ParseOptions parseOptions = new ParseOptions ();
+        private CandleSerializer serializer = new CandleSerializer ();
+
+        /**
+         * Adds a stage which drops all matching nodes.
+         *
+         * @param query The query.
+         * @return The pipeline.
+         *
+         * @throws java.lang.IllegalArgumentException when the query is malformed.
+         */
+        @Nonnull
+        public CandlePipeline drop (@Nonnull String query) throws IllegalArgumentException {
+                this.stages.add (new Stage (NodeQuery.compile (query), (n) -> null, true));
+                return this;
+        }
+
+        /**
+         * Adds a stage which passes all matching properties through a function.
+         * Objects and comments are not passed to the function.
+         *
+         * @param query  The query.
+         * @param mapper The function which returns the (possibly modified or replaced) node or null to drop the node.
+         * @return The pipeline.
+         *
+         * @throws java.lang.IllegalArgumentException when the query is malformed.
+         */
+        @Nonnull
+        public CandlePipeline map (@Nonnull String query, @Nonnull UnaryOperator<INode> mapper) throws IllegalArgumentException {
+                this.stages.add (new Stage (NodeQuery.compile (query), mapper, false));
+                return this;
+        }
+
+        /**
+         * Adds a stage which renames all matching nodes.
+         *
+         * @param query The query.
+         * @param name  The new name.
+         * @return The pipeline.
+         *
+         * @throws java.lang.IllegalArgumentException when the query is malformed.
+         */
+        @Nonnull
+        public CandlePipeline rename (@Nonnull String query, @Nonnull String name) throws IllegalArgumentException {
+                this.stages.add (new Stage (NodeQuery.compile (query), (n) -> ((INamedNode) n).name (name), true));
+                return this;
+        }
+
+        /**
+         * Retrieves the options used to read documents.
+         *
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions parseOptions () {
+                return this.parseOptions;
+        }
+
+        /**
+         * Sets the options used to read documents.
+         *
+         * @param parseOptions The options.
+         * @return The pipeline.
+         */
+        @Nonnull
+        public CandlePipeline parseOptions (@Nonnull ParseOptions parseOptions) {
+                this.parseOptions = parseOptions;
+                return this;
+        }
+
+        /**
+         * Retrieves the serializer which provides the formatting options for written documents.
+         *
+         * @return The serializer.
+         */
+        @Nonnull
+        public CandleSerializer serializer () {
+                return this.serializer;
+        }
+
+        /**
+         * Sets the serializer which provides the formatting options for written documents.
+         *
+         * @param serializer The serializer.
+         * @return The pipeline.
+         */
+        @Nonnull
+        public CandlePipeline serializer (@Nonnull CandleSerializer serializer) {
+                this.serializer = serializer;
+                return this;
+        }
+
+        /**
+         * Creates a handler which passes all events through the stages of this pipeline before handing them on to
+         * another handler.
+         *
+         * @param handler The destination.
+         * @return The handler.
+         */
+        @Nonnull
+        public ICandleHandler handler (@Nonnull ICandleHandler handler) {
+                return new Filter (handler);
+        }
+
+        /**
+         * Reads a document and passes it through the pipeline.
+         *
+         * @param reader  The reader.
+         * @param handler The destination.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException when reading the document or handling an event fails.
+         */
+        public void process (@Nonnull Reader reader, @Nonnull ICandleHandler handler) throws CandleException, IOException {
+                try {
+                        ParseEngine.stream (new Candle (), this.parseOptions, new UnbufferedCharStream (reader), this.handler (handler));
+                } catch (UncheckedIOException ex) {
+                        throw ex.getCause ();
+                } catch (RuntimeException ex) {
+                        if (ex.getCause () instanceof CandleException) { throw ((CandleException) ex.getCause ()); }
+                        if (ex.getCause () instanceof IOException) { throw ((IOException) ex.getCause ()); }
+                        throw ex;
+                }
+        }
+
+        /**
+         * Reads a document from a file, passes it through the pipeline and writes the result into another file.
+         * The result is written to a temporary file within the same directory first and moved into place once it is
+         * complete. The output file is thus left untouched when the transformation fails (and may be the input file).
+         *
+         * @param input  The input file.
+         * @param output The output file.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException when reading or writing fails.
+         */
+        public void transform (@Nonnull File input, @Nonnull File output) throws CandleException, IOException {
+                Path target = output.toPath ().toAbsolutePath ();
+                Path temporary = Files.createTempFile (target.getParent (), target.getFileName ().toString (), ".tmp");
+
+                try {
+                        try (InputStream inputStream = new FileInputStream (input)) {
+                                try (OutputStream outputStream = Files.newOutputStream (temporary)) {
+                                        this.transform (inputStream, outputStream);
+                                }
+                        }
+
+                        try {
+                                Files.move (temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                        } catch (AtomicMoveNotSupportedException ex) {
+                                Files.move (temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                        }
+                } finally {
+                        Files.deleteIfExists (temporary);
+                }
+        }
+
+        /**
+         * Reads a document from a stream, passes it through the pipeline and writes the result into another stream.
+         * Both streams are encoded using UTF-8 and remain open.
+         *
+         * @param inputStream  The input stream.
+         * @param outputStream The output stream.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException when reading or writing fails.
+         */
+        public void transform (@Nonnull InputStream inputStream, @Nonnull OutputStream outputStream) throws CandleException, IOException {
+                this.transform (new InputStreamReader (inputStream, StandardCharsets.UTF_8), new OutputStreamWriter (outputStream, StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Reads a document from a reader, passes it through the pipeline and writes the result into a writer.
+         * The writer is flushed but remains open.
+         *
+         * @param reader The reader.
+         * @param writer The writer.
+         *
+         * @throws com.torchmind.candle.api.error.CandleException when lexing or parsing fails.
+         * @throws java.io.IOException when reading or writing fails.
+         */
+        public void transform (@Nonnull Reader reader, @Nonnull Writer writer) throws CandleException, IOException {
+                CandleWriter candleWriter = new CandleWriter (writer, this.serializer);
+                this.process (reader, candleWriter);
+                candleWriter.flush ();
+        }
+
+        /**
+         * Represents a single stage of the pipeline.
+         */
+        private static class Stage {
+                private final NodeQuery query;
+                private final UnaryOperator<INode> operator;
+                private final boolean objects;
+
+                public Stage (@Nonnull NodeQuery query, @Nonnull UnaryOperator<INode> operator, boolean objects) {
+                        this.query = query;
+                        this.operator = operator;
+                        this.objects = objects;
+                }
+        }
+
+        /**
+         * Passes events through all stages.
+         */
+        private class Filter implements ICandleHandler {
+                private final ICandleHandler handler;
+                private final List<Stage> stages = new ArrayList<> (CandlePipeline.this.stages);
+                private final List<List<String>> paths = new ArrayList<> ();
+                private int skipped = 0;
+
+                public Filter (@Nonnull ICandleHandler handler) {
+                        this.handler = handler;
+
+                        // each stage observes the path as produced by its predecessors
+                        for (int i = 0; i < this.stages.size (); i++) {
+                                this.paths.add (new ArrayList<> ());
+                        }
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void onBeginObject (@Nonnull ObjectNode node) throws IOException {
+                        // objects within dropped objects are only counted in order to locate the end of the dropped object
+                        if (this.skipped != 0 || this.apply (node) == null) {
+                                this.skipped++;
+                                return;
+                        }
+
+                        this.handler.onBeginObject (node);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void onEndObject () throws IOException {
+                        if (this.skipped != 0) {
+                                this.skipped--;
+                                return;
+                        }
+
+                        for (List<String> path : this.paths) {
+                                path.remove (path.size () - 1);
+                        }
+
+                        this.handler.onEndObject ();
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void onNode (@Nonnull INode node) throws IOException {
+                        if (this.skipped != 0) { return; }
+
+                        INode result = this.apply (node);
+                        if (result != null) { this.handler.onNode (result); }
+                }
+
+                /**
+                 * Passes a node through all stages.
+                 * Objects which pass all stages are entered (their name as seen by each stage is appended to the
+                 * respective path).
+                 *
+                 * @param node The node.
+                 * @return The resulting node or null if the node has been dropped.
+                 */
+                @Nullable
+                private INode apply (@Nonnull INode node) {
+                        boolean object = (node instanceof IObjectNode);
+                        String[] names = (object ? new String[this.stages.size ()] : null);
+
+                        for (int i = 0; i < this.stages.size (); i++) {
+                                Stage stage = this.stages.get (i);
+                                if (object) { names[i] = ((IObjectNode) node).name (); }
+
+                                if (object && !stage.objects) { continue; }
+                                if (!stage.query.matches (this.paths.get (i), node)) { continue; }
+
+                                node = stage.operator.apply (node);
+                                if (node == null) { return null; }
+                        }
+
+                        if (object) {
+                                for (int i = 0; i < names.length; i++) {
+                                        this.paths.get (i).add (names[i]);
+                                }
+                        }
+
+                        return node;
+                }
+        }
+}
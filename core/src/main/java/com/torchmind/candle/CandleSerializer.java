@@ -17,6 +17,10 @@
 package com.torchmind.candle;
 
 import com.torchmind.candle.api.*;
+import com.torchmind.candle.node.AbstractNode;
+import com.torchmind.candle.node.CommentNode;
+import com.torchmind.candle.node.INodeVisitor;
+import com.torchmind.candle.node.ObjectNode;
 import com.torchmind.candle.node.property.*;
 import com.torchmind.candle.node.property.array.*;
 
@@ -26,15 +30,28 @@ import javax.annotation.Nullable;
 import java.io.*;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 
 /**
  * Provides methods of serializing candle documents or nodes.
  * @author Johannes Donath
  */
 public class CandleSerializer {
+        private static final Set<Class<?>> DISPATCHED_TYPES = new HashSet<> (Arrays.asList (CommentNode.class, ObjectNode.class, BooleanPropertyNode.class, DefaultPropertyNode.class, DoublePropertyNode.class, EnumPropertyNode.class, FloatPropertyNode.class, IntegerPropertyNode.class, LongPropertyNode.class, NullPropertyNode.class, StringPropertyNode.class, BooleanArrayPropertyNode.class, DoubleArrayPropertyNode.class, EnumArrayPropertyNode.class, FloatArrayPropertyNode.class, IntegerArrayPropertyNode.class, LongArrayPropertyNode.class, NullArrayPropertyNode.class, StringArrayPropertyNode.class));
+
         private String indentation = "\t";
         private String newline = System.lineSeparator ();
+        private boolean hexadecimalIntegers = false;
         private boolean prettyPrint = true;
 
         /**
@@ -44,7 +61,7 @@ public class CandleSerializer {
          */
         @Nonnull
         protected String indent (@Nonnegative int level) {
-                if (level == 0) return "";
+                if (level == 0 || this.indentation == null || this.indentation.isEmpty ()) return "";
 
                 StringBuilder buffer = new StringBuilder ();
 
@@ -55,6 +72,27 @@ public class CandleSerializer {
                 return buffer.toString ();
         }
 
+        /**
+         * Checks whether positive integer values are written in hexadecimal notation.
+         * @return True if hexadecimal notation is enabled.
+         */
+        public boolean hexadecimalIntegers () {
+                return this.hexadecimalIntegers;
+        }
+
+        /**
+         * Enables/Disables hexadecimal notation for positive integer values.
+         * Negative values are always written in decimal notation as the format does not permit signed hexadecimal
+         * literals.
+         * @param hexadecimalIntegers True if enabled.
+         * @return The serializer.
+         */
+        @Nonnull
+        public CandleSerializer hexadecimalIntegers (boolean hexadecimalIntegers) {
+                this.hexadecimalIntegers = hexadecimalIntegers;
+                return this;
+        }
+
         /**
          * Retrieves the current indentation character.
          * @return The character.
@@ -227,6 +265,8 @@ public class CandleSerializer {
 
         /**
          * Serializes an object node.
+         * Nested objects are processed using an explicit stack and thus their depth is only limited by the available
+         * heap.
          * @param node The node.
          * @param level The lvel.
          * @return The serialized node.
@@ -234,20 +274,38 @@ public class CandleSerializer {
         @Nonnull
         protected String serialize (@Nonnull IObjectNode node, @Nonnegative int level) {
                 StringBuilder buffer = new StringBuilder ();
+                Deque<Iterator<INode>> iterators = new ArrayDeque<> ();
+                Dispatcher dispatcher = new Dispatcher ();
 
-                buffer.append (this.indent (level));
-                buffer.append (node.name ());
-                if (this.prettyPrint) buffer.append (" ");
-                buffer.append ("{");
-                if (this.prettyPrint) buffer.append (this.newline ());
+                this.appendObjectStart (buffer, node.name (), level);
+                iterators.push (node.iterator ());
 
-                node.forEach (n -> {
-                        buffer.append (this.serialize (n, (level + 1)));
-                        if (this.prettyPrint () || (n instanceof ICommentNode && !((ICommentNode) n).isMultiline ())) buffer.append (this.newline ());
-                });
+                while (!iterators.isEmpty ()) {
+                        Iterator<INode> iterator = iterators.peek ();
+                        int childLevel = (level + iterators.size ());
+
+                        if (!iterator.hasNext ()) {
+                                iterators.pop ();
+
+                                this.appendObjectEnd (buffer, (childLevel - 1));
+                                if (!iterators.isEmpty () && this.prettyPrint ()) buffer.append (this.newline ());
+
+                                continue;
+                        }
+
+                        INode child = iterator.next ();
+
+                        if (child instanceof IObjectNode) {
+                                this.appendObjectStart (buffer, ((IObjectNode) child).name (), childLevel);
+                                iterators.push (((IObjectNode) child).iterator ());
+
+                                continue;
+                        }
+
+                        buffer.append (this.serialize (child, dispatcher, childLevel));
+                        if (this.prettyPrint () || (child instanceof ICommentNode && !((ICommentNode) child).isMultiline ())) buffer.append (this.newline ());
+                }
 
-                buffer.append (this.indent (level));
-                buffer.append ("}");
                 return buffer.toString ();
         }
 
@@ -315,6 +373,40 @@ public class CandleSerializer {
          */
         @Nonnull
         protected String serialize (@Nonnull INode node, @Nonnegative int level) throws IllegalArgumentException {
+                return this.serialize (node, new Dispatcher (), level);
+        }
+
+        /**
+         * Serializes a single node on a certain level using a dispatcher.
+         * Nodes of the default implementation are dispatched to their respective method via
+         * {@link com.torchmind.candle.node.AbstractNode#accept(com.torchmind.candle.node.INodeVisitor)} while custom
+         * nodes (including subclasses of the default implementation) are resolved reflectively.
+         * @param node The node.
+         * @param dispatcher The dispatcher.
+         * @param level The level.
+         * @return The serialized node.
+         * @throws java.lang.IllegalArgumentException when no method for serialization is known for a custom node.
+         */
+        @Nonnull
+        private String serialize (@Nonnull INode node, @Nonnull Dispatcher dispatcher, @Nonnegative int level) throws IllegalArgumentException {
+                if (!DISPATCHED_TYPES.contains (node.getClass ())) return this.serializeReflectively (node, level);
+
+                dispatcher.level = level;
+                String serialized = ((AbstractNode) node).accept (dispatcher);
+
+                if (serialized == null) return this.serializeReflectively (node, level);
+                return serialized;
+        }
+
+        /**
+         * Serializes a custom node by looking up a matching method reflectively.
+         * @param node The node.
+         * @param level The level.
+         * @return The serialized node.
+         * @throws java.lang.IllegalArgumentException when no method for serialization is known for a custom node.
+         */
+        @Nonnull
+        private String serializeReflectively (@Nonnull INode node, @Nonnegative int level) throws IllegalArgumentException {
                 try {
                         Method method = null;
 
@@ -350,20 +442,9 @@ public class CandleSerializer {
          */
         @Nonnull
         protected String serialize (@Nonnull ICommentNode node, @Nonnegative int level) {
-                StringBuilder builder = new StringBuilder ();
-                builder.append (this.indent (level));
-
-                if (node.isMultiline ()) {
-                        builder.append ("/*");
-                        builder.append (node.text ());
-                        builder.append ("*/");
-
-                        return builder.toString ();
-                }
-
-                builder.append ("//");
-                builder.append (node.text ());
-                return builder.toString ();
+                StringBuilder buffer = new StringBuilder ();
+                this.appendComment (buffer, node.text (), node.isMultiline (), level);
+                return buffer.toString ();
         }
 
         /**
@@ -428,6 +509,22 @@ public class CandleSerializer {
                 return buffer.toString ();
         }
 
+        /**
+         * Serializes a double node on a certain level.
+         * @param node The node.
+         * @param level The level.
+         * @return The serialized node.
+         */
+        @Nonnull
+        protected String serialize (@Nonnull DoublePropertyNode node, @Nonnegative int level) {
+                StringBuilder buffer = new StringBuilder ();
+
+                buffer.append (this.serialize (((IPropertyNode) node), level));
+                this.appendDouble (buffer, node.value ());
+
+                return buffer.toString ();
+        }
+
         /**
          * Serializes an enum node on a certain level.
          * @param node The node.
@@ -439,7 +536,7 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append (node.value ());
+                this.appendEnum (buffer, node.value ());
 
                 return buffer.toString ();
         }
@@ -455,7 +552,7 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append (Float.toString (node.value ())); // TODO: Support scientific notation properly
+                this.appendFloat (buffer, node.value ());
 
                 return buffer.toString ();
         }
@@ -471,7 +568,23 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append (Integer.toString (node.value ())); // TODO: Support hex notation properly
+                this.appendInteger (buffer, node.value ());
+
+                return buffer.toString ();
+        }
+
+        /**
+         * Serializes a long node on a certain level.
+         * @param node The node.
+         * @param level The level.
+         * @return The serialized node.
+         */
+        @Nonnull
+        protected String serialize (@Nonnull LongPropertyNode node, @Nonnegative int level) {
+                StringBuilder buffer = new StringBuilder ();
+
+                buffer.append (this.serialize (((IPropertyNode) node), level));
+                this.appendLong (buffer, node.value ());
 
                 return buffer.toString ();
         }
@@ -503,7 +616,7 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append ("\"" + this.escapeString (node.value ()) + "\"");
+                this.appendString (buffer, node.value ());
 
                 return buffer.toString ();
         }
@@ -519,51 +632,64 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append ("[");
-                if (this.prettyPrint ()) buffer.append (this.newline ());
+                this.appendArrayStart (buffer);
 
-                for (boolean value : node.array ()) {
-                        if (this.prettyPrint ()) buffer.append (this.indent ((level + 1)));
-                        buffer.append (Boolean.toString (value));
-                        buffer.append (",");
-                        if (this.prettyPrint ()) buffer.append (this.newline ());
+                for (int i = 0; i < node.length (); i++) {
+                        this.appendElementStart (buffer, level);
+                        buffer.append (Boolean.toString (node.get (i)));
+                        this.appendElementEnd (buffer);
                 }
 
-                if (this.prettyPrint ()) buffer.append (this.indent (level));
-                buffer.append ("]");
+                this.appendArrayEnd (buffer, level);
 
                 return buffer.toString ();
         }
 
         /**
-         * Serializes an enum array node on a certain level.
+         * Serializes a double array node on a certain level.
          * @param node The node.
          * @param level The level.
          * @return The serialized node.
          */
         @Nonnull
-        protected String serialize (@Nonnull EnumArrayPropertyNode node, @Nonnegative int level) {
+        protected String serialize (@Nonnull DoubleArrayPropertyNode node, @Nonnegative int level) {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append ("[");
-                if (this.prettyPrint ()) buffer.append (this.newline ());
+                this.appendArrayStart (buffer);
 
-                for (String value : node.array ()) {
-                        if (this.prettyPrint ()) buffer.append (this.indent ((level + 1)));
+                DoubleBuffer values = node.buffer ();
+                for (int i = 0; i < values.limit (); i++) {
+                        this.appendElementStart (buffer, level);
+                        this.appendDouble (buffer, values.get (i));
+                        this.appendElementEnd (buffer);
+                }
 
-                        if (value != null)
-                                buffer.append (value);
-                        else
-                                buffer.append ("null");
+                this.appendArrayEnd (buffer, level);
 
-                        buffer.append (",");
+                return buffer.toString ();
+        }
 
-                        if (this.prettyPrint ()) buffer.append (this.newline ());
+        /**
+         * Serializes an enum array node on a certain level.
+         * @param node The node.
+         * @param level The level.
+         * @return The serialized node.
+         */
+        @Nonnull
+        protected String serialize (@Nonnull EnumArrayPropertyNode node, @Nonnegative int level) {
+                StringBuilder buffer = new StringBuilder ();
+
+                buffer.append (this.serialize (((IPropertyNode) node), level));
+                this.appendArrayStart (buffer);
+
+                for (String value : node.values ()) {
+                        this.appendElementStart (buffer, level);
+                        this.appendEnum (buffer, value);
+                        this.appendElementEnd (buffer);
                 }
 
-                if (this.prettyPrint ()) buffer.append (this.indent (level));
-                buffer.append ("]");
+                this.appendArrayEnd (buffer, level);
 
                 return buffer.toString ();
         }
@@ -579,18 +705,16 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append ("[");
-                if (this.prettyPrint ()) buffer.append (this.newline ());
+                this.appendArrayStart (buffer);
 
-                for (float value : node.array ()) {
-                        if (this.prettyPrint ()) buffer.append (this.indent ((level + 1)));
-                        buffer.append (Float.toString (value));
-                        buffer.append (",");
-                        if (this.prettyPrint ()) buffer.append (this.newline ());
+                FloatBuffer values = node.buffer ();
+                for (int i = 0; i < values.limit (); i++) {
+                        this.appendElementStart (buffer, level);
+                        this.appendFloat (buffer, values.get (i));
+                        this.appendElementEnd (buffer);
                 }
 
-                if (this.prettyPrint ()) buffer.append (this.indent (level));
-                buffer.append ("]");
+                this.appendArrayEnd (buffer, level);
 
                 return buffer.toString ();
         }
@@ -606,18 +730,41 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append ("[");
-                if (this.prettyPrint ()) buffer.append (this.newline ());
+                this.appendArrayStart (buffer);
 
-                for (int value : node.array ()) {
-                        if (this.prettyPrint ()) buffer.append (this.indent ((level + 1)));
-                        buffer.append (Integer.toString (value));
-                        buffer.append (",");
-                        if (this.prettyPrint ()) buffer.append (this.newline ());
+                IntBuffer values = node.buffer ();
+                for (int i = 0; i < values.limit (); i++) {
+                        this.appendElementStart (buffer, level);
+                        this.appendInteger (buffer, values.get (i));
+                        this.appendElementEnd (buffer);
                 }
 
-                if (this.prettyPrint ()) buffer.append (this.indent (level));
-                buffer.append ("]");
+                this.appendArrayEnd (buffer, level);
+
+                return buffer.toString ();
+        }
+
+        /**
+         * Serializes a long array node on a certain level.
+         * @param node The node.
+         * @param level The level.
+         * @return The serialized node.
+         */
+        @Nonnull
+        protected String serialize (@Nonnull LongArrayPropertyNode node, @Nonnegative int level) {
+                StringBuilder buffer = new StringBuilder ();
+
+                buffer.append (this.serialize (((IPropertyNode) node), level));
+                this.appendArrayStart (buffer);
+
+                LongBuffer values = node.buffer ();
+                for (int i = 0; i < values.limit (); i++) {
+                        this.appendElementStart (buffer, level);
+                        this.appendLong (buffer, values.get (i));
+                        this.appendElementEnd (buffer);
+                }
+
+                this.appendArrayEnd (buffer, level);
 
                 return buffer.toString ();
         }
@@ -633,9 +780,7 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append ("[");
-                if (this.prettyPrint ()) buffer.append (" ");
-                buffer.append ("]");
+                this.appendEmptyArray (buffer);
 
                 return buffer.toString ();
         }
@@ -651,24 +796,15 @@ public class CandleSerializer {
                 StringBuilder buffer = new StringBuilder ();
 
                 buffer.append (this.serialize (((IPropertyNode) node), level));
-                buffer.append ("[");
-                if (this.prettyPrint ()) buffer.append (this.newline ());
+                this.appendArrayStart (buffer);
 
-                for (String value : node.array ()) {
-                        if (this.prettyPrint ()) buffer.append (this.indent ((level + 1)));
-
-                        if (value != null)
-                                buffer.append ("\"" + this.escapeString (value) + "\"");
-                        else
-                                buffer.append ("null");
-
-                        buffer.append (",");
-
-                        if (this.prettyPrint ()) buffer.append (this.newline ());
+                for (String value : node.values ()) {
+                        this.appendElementStart (buffer, level);
+                        this.appendString (buffer, value);
+                        this.appendElementEnd (buffer);
                 }
 
-                if (this.prettyPrint ()) buffer.append (this.indent (level));
-                buffer.append ("]");
+                this.appendArrayEnd (buffer, level);
 
                 return buffer.toString ();
         }
@@ -699,4 +835,337 @@ public class CandleSerializer {
 
                 return builder.toString ();
         }
+
+        /**
+         * Appends the indentation of a certain level.
+         * @param buffer The buffer.
+         * @param level The level.
+         */
+        void appendIndentation (@Nonnull StringBuilder buffer, @Nonnegative int level) {
+                if (this.indentation == null || this.indentation.isEmpty ()) return;
+
+                for (int i = 0; i < level; i++) {
+                        buffer.append (this.indentation);
+                }
+        }
+
+        /**
+         * Appends the opening part of an object.
+         * @param buffer The buffer.
+         * @param name The object name.
+         * @param level The level.
+         */
+        void appendObjectStart (@Nonnull StringBuilder buffer, @Nonnull String name, @Nonnegative int level) {
+                this.appendIndentation (buffer, level);
+                buffer.append (name);
+                if (this.prettyPrint) buffer.append (" ");
+                buffer.append ("{");
+                if (this.prettyPrint) buffer.append (this.newline);
+        }
+
+        /**
+         * Appends the closing part of an object.
+         * @param buffer The buffer.
+         * @param level The level of the object.
+         */
+        void appendObjectEnd (@Nonnull StringBuilder buffer, @Nonnegative int level) {
+                this.appendIndentation (buffer, level);
+                buffer.append ("}");
+        }
+
+        /**
+         * Appends a comment.
+         * @param buffer The buffer.
+         * @param text The comment text.
+         * @param multiline True if the comment is written as a multi-line comment.
+         * @param level The level.
+         */
+        void appendComment (@Nonnull StringBuilder buffer, @Nonnull String text, boolean multiline, @Nonnegative int level) {
+                this.appendIndentation (buffer, level);
+                buffer.append (multiline ? "/*" : "//");
+                buffer.append (text);
+                if (multiline) buffer.append ("*/");
+        }
+
+        /**
+         * Appends a property name along with its assignment operator.
+         * @param buffer The buffer.
+         * @param name The property name.
+         * @param level The level.
+         */
+        void appendAssignment (@Nonnull StringBuilder buffer, @Nonnull String name, @Nonnegative int level) {
+                this.appendIndentation (buffer, level);
+                buffer.append (name);
+                buffer.append (this.prettyPrint ? " = " : "=");
+        }
+
+        /**
+         * Appends a double value.
+         * @param buffer The buffer.
+         * @param value The value.
+         */
+        void appendDouble (@Nonnull StringBuilder buffer, double value) {
+                NumberWriter.appendDouble (buffer, value);
+                buffer.append ("d");
+        }
+
+        /**
+         * Appends an (optional) enum value.
+         * @param buffer The buffer.
+         * @param value The value name.
+         */
+        void appendEnum (@Nonnull StringBuilder buffer, @Nullable String value) {
+                buffer.append (value != null ? value : "null");
+        }
+
+        /**
+         * Appends a float value.
+         * @param buffer The buffer.
+         * @param value The value.
+         */
+        void appendFloat (@Nonnull StringBuilder buffer, float value) {
+                NumberWriter.appendFloat (buffer, value);
+        }
+
+        /**
+         * Appends an integer value.
+         * @param buffer The buffer.
+         * @param value The value.
+         */
+        void appendInteger (@Nonnull StringBuilder buffer, int value) {
+                NumberWriter.appendInteger (buffer, value, this.hexadecimalIntegers);
+        }
+
+        /**
+         * Appends a long value.
+         * @param buffer The buffer.
+         * @param value The value.
+         */
+        void appendLong (@Nonnull StringBuilder buffer, long value) {
+                NumberWriter.appendLong (buffer, value, this.hexadecimalIntegers);
+                buffer.append ("L");
+        }
+
+        /**
+         * Appends a quoted (or null) string value.
+         * @param buffer The buffer.
+         * @param value The value.
+         */
+        void appendString (@Nonnull StringBuilder buffer, @Nullable String value) {
+                if (value == null) {
+                        buffer.append ("null");
+                        return;
+                }
+
+                buffer.append ("\"");
+                buffer.append (this.escapeString (value));
+                buffer.append ("\"");
+        }
+
+        /**
+         * Appends the opening part of a non-empty array.
+         * @param buffer The buffer.
+         */
+        void appendArrayStart (@Nonnull StringBuilder buffer) {
+                buffer.append ("[");
+                if (this.prettyPrint) buffer.append (this.newline);
+        }
+
+        /**
+         * Appends the prefix of an array element.
+         * @param buffer The buffer.
+         * @param level The level of the array property.
+         */
+        void appendElementStart (@Nonnull StringBuilder buffer, @Nonnegative int level) {
+                if (this.prettyPrint) this.appendIndentation (buffer, (level + 1));
+        }
+
+        /**
+         * Appends the suffix of an array element.
+         * @param buffer The buffer.
+         */
+        void appendElementEnd (@Nonnull StringBuilder buffer) {
+                buffer.append (",");
+                if (this.prettyPrint) buffer.append (this.newline);
+        }
+
+        /**
+         * Appends the closing part of a non-empty array.
+         * @param buffer The buffer.
+         * @param level The level of the array property.
+         */
+        void appendArrayEnd (@Nonnull StringBuilder buffer, @Nonnegative int level) {
+                if (this.prettyPrint) this.appendIndentation (buffer, level);
+                buffer.append ("]");
+        }
+
+        /**
+         * Appends an empty (untyped) array.
+         * @param buffer The buffer.
+         */
+        void appendEmptyArray (@Nonnull StringBuilder buffer) {
+                buffer.append ("[");
+                if (this.prettyPrint) buffer.append (" ");
+                buffer.append ("]");
+        }
+
+        /**
+         * Dispatches nodes to their respective serialization method.
+         * A single dispatcher is re-used for all nodes of a document in order to avoid allocations.
+         */
+        private class Dispatcher implements INodeVisitor<String> {
+                private int level;
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull CommentNode node) {
+                        return CandleSerializer.this.serialize (((ICommentNode) node), this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull ObjectNode node) {
+                        return CandleSerializer.this.serialize (((IObjectNode) node), this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull BooleanPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull DefaultPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull DoublePropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull EnumPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull FloatPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull IntegerPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull LongPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull NullPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull StringPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull BooleanArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull DoubleArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull EnumArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull FloatArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull IntegerArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull LongArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull NullArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public String visit (@Nonnull StringArrayPropertyNode node) {
+                        return CandleSerializer.this.serialize (node, this.level);
+                }
+        }
 }
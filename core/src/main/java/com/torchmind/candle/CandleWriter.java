@@ -0,0 +1,549 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle;
+
+import com.torchmind.candle.api.ICommentNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.node.ObjectNode;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes candle documents directly into a writer without building a tree first.
+ *
+ * The output is formatted exactly as the equivalent tree would be formatted by {@link com.torchmind.candle.CandleSerializer}
+ * (using the formatting options and formatting helpers of the passed serializer). Output is collected within a fixed size buffer which is
+ * passed on to the underlying writer regularly and thus only memory for the currently written value is required
+ * regardless of the document size.
+ *
+ * Writers are not thread safe.
+ * @author Johannes Donath
+ */
+public class CandleWriter implements Closeable, Flushable, ICandleHandler {
+        private static final int BUFFER_SIZE = 8192;
+
+        private final Writer writer;
+        private final CandleSerializer serializer;
+        private final StringBuilder buffer = new StringBuilder (BUFFER_SIZE);
+        private int level = 0;
+
+        public CandleWriter (@Nonnull Writer writer, @Nonnull CandleSerializer serializer) {
+                this.writer = writer;
+                this.serializer = serializer;
+        }
+
+        public CandleWriter (@Nonnull Writer writer) {
+                this (writer, new CandleSerializer ());
+        }
+
+        public CandleWriter (@Nonnull OutputStream outputStream, @Nonnull CandleSerializer serializer) {
+                this (new OutputStreamWriter (outputStream, StandardCharsets.UTF_8), serializer);
+        }
+
+        public CandleWriter (@Nonnull OutputStream outputStream) {
+                this (outputStream, new CandleSerializer ());
+        }
+
+        /**
+         * Opens a new object.
+         * @param name The object name.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter beginObject (@Nonnull String name) throws IOException {
+                this.serializer.appendObjectStart (this.buffer, name, this.level);
+
+                this.level++;
+                return this;
+        }
+
+        /**
+         * Closes the innermost open object.
+         * @return The writer.
+         * @throws java.lang.IllegalStateException when no object is open.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter endObject () throws IllegalStateException, IOException {
+                if (this.level == 0) throw new IllegalStateException ("No object is open");
+
+                this.level--;
+                this.serializer.appendObjectEnd (this.buffer, this.level);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes a comment.
+         * Comments which contain line breaks are written as multi-line comments.
+         * @param text The comment text.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter comment (@Nonnull String text) throws IOException {
+                boolean multiline = text.contains ("\n");
+
+                this.serializer.appendComment (this.buffer, text, multiline, this.level);
+                this.terminate (!multiline);
+
+                return this;
+        }
+
+        /**
+         * Writes an existing node.
+         * @param node The node.
+         * @return The writer.
+         * @throws java.lang.IllegalArgumentException when no method for serialization is known for a custom node.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter node (@Nonnull INode node) throws IllegalArgumentException, IOException {
+                this.buffer.append (this.serializer.serialize (node, this.level));
+                this.terminate ((node instanceof ICommentNode && !((ICommentNode) node).isMultiline ()));
+
+                return this;
+        }
+
+        /**
+         * Writes a boolean property.
+         * @param name The property name.
+         * @param value The value.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, boolean value) throws IOException {
+                this.name (name);
+                this.buffer.append (Boolean.toString (value));
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes a double property.
+         * @param name The property name.
+         * @param value The value.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, double value) throws IOException {
+                this.name (name);
+                this.serializer.appendDouble (this.buffer, value);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes an enum property.
+         * @param name The property name.
+         * @param value The value.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nullable Enum<?> value) throws IOException {
+                this.name (name);
+                this.serializer.appendEnum (this.buffer, (value != null ? value.name () : null));
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes a float property.
+         * @param name The property name.
+         * @param value The value.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, float value) throws IOException {
+                this.name (name);
+                this.serializer.appendFloat (this.buffer, value);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes an integer property.
+         * @param name The property name.
+         * @param value The value.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, int value) throws IOException {
+                this.name (name);
+                this.serializer.appendInteger (this.buffer, value);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes a long property.
+         * @param name The property name.
+         * @param value The value.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, long value) throws IOException {
+                this.name (name);
+                this.serializer.appendLong (this.buffer, value);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes a string property.
+         * @param name The property name.
+         * @param value The value.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nullable String value) throws IOException {
+                this.name (name);
+                this.serializer.appendString (this.buffer, value);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes a boolean array property.
+         * @param name The property name.
+         * @param values The values.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nonnull boolean[] values) throws IOException {
+                this.beginArray (name);
+
+                for (boolean value : values) {
+                        this.beginElement ();
+                        this.buffer.append (Boolean.toString (value));
+                        this.endElement ();
+                }
+
+                return this.endArray ();
+        }
+
+        /**
+         * Writes a double array property.
+         * @param name The property name.
+         * @param values The values.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nonnull double[] values) throws IOException {
+                this.beginArray (name);
+
+                for (double value : values) {
+                        this.beginElement ();
+                        this.serializer.appendDouble (this.buffer, value);
+                        this.endElement ();
+                }
+
+                return this.endArray ();
+        }
+
+        /**
+         * Writes an enum array property.
+         * @param name The property name.
+         * @param values The values.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nonnull Enum<?>[] values) throws IOException {
+                this.beginArray (name);
+
+                for (Enum<?> value : values) {
+                        this.beginElement ();
+                        this.serializer.appendEnum (this.buffer, (value != null ? value.name () : null));
+                        this.endElement ();
+                }
+
+                return this.endArray ();
+        }
+
+        /**
+         * Writes a float array property.
+         * @param name The property name.
+         * @param values The values.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nonnull float[] values) throws IOException {
+                this.beginArray (name);
+
+                for (float value : values) {
+                        this.beginElement ();
+                        this.serializer.appendFloat (this.buffer, value);
+                        this.endElement ();
+                }
+
+                return this.endArray ();
+        }
+
+        /**
+         * Writes an integer array property.
+         * @param name The property name.
+         * @param values The values.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nonnull int[] values) throws IOException {
+                this.beginArray (name);
+
+                for (int value : values) {
+                        this.beginElement ();
+                        this.serializer.appendInteger (this.buffer, value);
+                        this.endElement ();
+                }
+
+                return this.endArray ();
+        }
+
+        /**
+         * Writes a long array property.
+         * @param name The property name.
+         * @param values The values.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nonnull long[] values) throws IOException {
+                this.beginArray (name);
+
+                for (long value : values) {
+                        this.beginElement ();
+                        this.serializer.appendLong (this.buffer, value);
+                        this.endElement ();
+                }
+
+                return this.endArray ();
+        }
+
+        /**
+         * Writes a string array property.
+         * @param name The property name.
+         * @param values The values.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter property (@Nonnull String name, @Nonnull String[] values) throws IOException {
+                this.beginArray (name);
+
+                for (String value : values) {
+                        this.beginElement ();
+                        this.serializer.appendString (this.buffer, value);
+                        this.endElement ();
+                }
+
+                return this.endArray ();
+        }
+
+        /**
+         * Writes a property which refers to its default value.
+         * @param name The property name.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter defaultProperty (@Nonnull String name) throws IOException {
+                this.name (name);
+                this.buffer.append ("default");
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes a null property.
+         * @param name The property name.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter nullProperty (@Nonnull String name) throws IOException {
+                this.name (name);
+                this.buffer.append ("null");
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Writes an empty (untyped) array property.
+         * @param name The property name.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        public CandleWriter emptyArray (@Nonnull String name) throws IOException {
+                this.name (name);
+                this.serializer.appendEmptyArray (this.buffer);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onBeginObject (@Nonnull ObjectNode node) throws IOException {
+                this.beginObject (node.name ());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onEndObject () throws IOException {
+                this.endObject ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onNode (@Nonnull INode node) throws IOException {
+                this.node (node);
+        }
+
+        /**
+         * Retrieves the amount of currently open objects.
+         * @return The depth.
+         */
+        @Nonnegative
+        public int depth () {
+                return this.level;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void flush () throws IOException {
+                this.drain ();
+                this.writer.flush ();
+        }
+
+        /**
+         * Flushes all pending output and closes the underlying writer.
+         * Objects which are still open are not terminated.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Override
+        public void close () throws IOException {
+                try {
+                        this.drain ();
+                } finally {
+                        this.writer.close ();
+                }
+        }
+
+        /**
+         * Writes a property name along with its assignment operator.
+         * @param name The name.
+         */
+        private void name (@Nonnull String name) {
+                this.serializer.appendAssignment (this.buffer, name, this.level);
+        }
+
+        /**
+         * Writes the opening part of an array property.
+         * @param name The property name.
+         */
+        private void beginArray (@Nonnull String name) {
+                this.name (name);
+                this.serializer.appendArrayStart (this.buffer);
+        }
+
+        /**
+         * Writes the prefix of an array element.
+         */
+        private void beginElement () {
+                this.serializer.appendElementStart (this.buffer, this.level);
+        }
+
+        /**
+         * Writes the suffix of an array element and passes on the output when the buffer is full.
+         * @throws java.io.IOException when writing fails.
+         */
+        private void endElement () throws IOException {
+                this.serializer.appendElementEnd (this.buffer);
+                if (this.buffer.length () >= BUFFER_SIZE) this.drain ();
+        }
+
+        /**
+         * Writes the closing part of an array property.
+         * @return The writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        @Nonnull
+        private CandleWriter endArray () throws IOException {
+                this.serializer.appendArrayEnd (this.buffer, this.level);
+                this.terminate (false);
+
+                return this;
+        }
+
+        /**
+         * Terminates a node and passes on the output when the buffer is full.
+         * Top level nodes are always followed by a newline while nested nodes are only followed by a newline when pretty
+         * printing is enabled or when a newline is required to end a single line comment.
+         * @param lineComment True if the node is a single line comment.
+         * @throws java.io.IOException when writing fails.
+         */
+        private void terminate (boolean lineComment) throws IOException {
+                if (this.level == 0 || lineComment || this.serializer.prettyPrint ()) this.buffer.append (this.serializer.newline ());
+                if (this.buffer.length () >= BUFFER_SIZE) this.drain ();
+        }
+
+        /**
+         * Passes all buffered output on to the underlying writer.
+         * @throws java.io.IOException when writing fails.
+         */
+        private void drain () throws IOException {
+                if (this.buffer.length () == 0) return;
+
+                this.writer.append (this.buffer);
+                this.buffer.setLength (0);
+        }
+}
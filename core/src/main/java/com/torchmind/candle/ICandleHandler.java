@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle;
+
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.node.ObjectNode;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+
+/**
+ * Receives the contents of a document as a sequence of events rather than as a tree.
+ *
+ * Objects are reported by a pair of {@link #onBeginObject(com.torchmind.candle.node.ObjectNode)} and
+ * {@link #onEndObject()} events which enclose the events of their children. All other nodes (properties and comments)
+ * are reported via {@link #onNode(com.torchmind.candle.api.INode)}. Reported nodes are not attached to any tree and may
+ * thus be modified or discarded freely.
+ *
+ * @author Johannes Donath
+ */
+public interface ICandleHandler {
+
+        /**
+         * Handles the beginning of an object.
+         * The passed node never contains any children.
+         *
+         * @param node The object.
+         * @throws java.io.IOException when processing the event fails.
+         */
+        void onBeginObject (@Nonnull ObjectNode node) throws IOException;
+
+        /**
+         * Handles the end of the innermost object.
+         *
+         * @throws java.io.IOException when processing the event fails.
+         */
+        void onEndObject () throws IOException;
+
+        /**
+         * Handles a property or comment.
+         *
+         * @param node The node.
+         * @throws java.io.IOException when processing the event fails.
+         */
+        void onNode (@Nonnull INode node) throws IOException;
+}
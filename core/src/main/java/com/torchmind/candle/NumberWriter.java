@@ -0,0 +1,579 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle;
+
+import javax.annotation.Nonnull;
+import java.math.BigInteger;
+
+/**
+ * Encodes numeric values straight into a character buffer.
+ *
+ * Floating point numbers are encoded using the shortest decimal representation which reads back as the exact same
+ * value (as computed by the Ryu algorithm) and thus never require an intermediate string representation. Values within
+ * the range of 10<sup>-3</sup> (inclusive) and 10<sup>7</sup> (exclusive) are written in plain notation, all other
+ * values are written in scientific notation.
+ *
+ * @author Johannes Donath
+ */
+final class NumberWriter {
+        private static final long[] POWERS_OF_TEN = {
+                1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L,
+                100000000000L, 1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L,
+                10000000000000000L, 100000000000000000L, 1000000000000000000L
+        };
+        private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray ();
+
+        private static final int DOUBLE_MANTISSA_BITS = 52;
+        private static final int DOUBLE_EXPONENT_BIAS = 1023;
+        private static final int FLOAT_MANTISSA_BITS = 23;
+        private static final int FLOAT_EXPONENT_BIAS = 127;
+
+        private static final int POW5_BITCOUNT = 125;
+        private static final int POW5_INV_BITCOUNT = 125;
+        private static final int FLOAT_POW5_BITCOUNT = (POW5_BITCOUNT - 64);
+        private static final int FLOAT_POW5_INV_BITCOUNT = (POW5_INV_BITCOUNT - 64);
+
+        /**
+         * Stores the 125 most significant bits of 5<sup>i</sup> (as low and high word pairs).
+         */
+        private static final long[] POW5_SPLIT = new long[326 * 2];
+
+        /**
+         * Stores the 125 most significant bits of 2<sup>k</sup> / 5<sup>i</sup> + 1 (as low and high word pairs).
+         */
+        private static final long[] POW5_INV_SPLIT = new long[342 * 2];
+
+        static {
+                BigInteger mask = BigInteger.ONE.shiftLeft (64).subtract (BigInteger.ONE);
+
+                for (int i = 0; i < (POW5_INV_SPLIT.length / 2); i++) {
+                        BigInteger power = BigInteger.valueOf (5).pow (i);
+                        int length = power.bitLength ();
+
+                        if (i < (POW5_SPLIT.length / 2)) {
+                                int shift = (length - POW5_BITCOUNT);
+                                BigInteger value = (shift > 0 ? power.shiftRight (shift) : power.shiftLeft (-shift));
+
+                                POW5_SPLIT[(i * 2)] = value.and (mask).longValue ();
+                                POW5_SPLIT[(i * 2) + 1] = value.shiftRight (64).longValue ();
+                        }
+
+                        BigInteger inverse = BigInteger.ONE.shiftLeft (length - 1 + POW5_INV_BITCOUNT).divide (power).add (BigInteger.ONE);
+                        POW5_INV_SPLIT[(i * 2)] = inverse.and (mask).longValue ();
+                        POW5_INV_SPLIT[(i * 2) + 1] = inverse.shiftRight (64).longValue ();
+                }
+        }
+
+        private NumberWriter () {
+        }
+
+        /**
+         * Appends an integer.
+         *
+         * @param buffer      The buffer.
+         * @param value       The value.
+         * @param hexadecimal True if positive values shall be written in hexadecimal notation.
+         */
+        static void appendInteger (@Nonnull StringBuilder buffer, int value, boolean hexadecimal) {
+                if (hexadecimal && value >= 0) {
+                        appendHexadecimal (buffer, value);
+                        return;
+                }
+
+                buffer.append (value);
+        }
+
+        /**
+         * Appends a long integer (excluding its type suffix).
+         *
+         * @param buffer      The buffer.
+         * @param value       The value.
+         * @param hexadecimal True if positive values shall be written in hexadecimal notation.
+         */
+        static void appendLong (@Nonnull StringBuilder buffer, long value, boolean hexadecimal) {
+                if (hexadecimal && value >= 0) {
+                        appendHexadecimal (buffer, value);
+                        return;
+                }
+
+                buffer.append (value);
+        }
+
+        /**
+         * Appends a double (excluding its type suffix).
+         *
+         * @param buffer The buffer.
+         * @param value  The value.
+         * @throws java.lang.IllegalArgumentException when the value is infinite or not a number.
+         */
+        static void appendDouble (@Nonnull StringBuilder buffer, double value) throws IllegalArgumentException {
+                long bits = Double.doubleToRawLongBits (value);
+                long mantissa = (bits & ((1L << DOUBLE_MANTISSA_BITS) - 1));
+                int exponent = ((int) (bits >>> DOUBLE_MANTISSA_BITS) & 0x7FF);
+
+                if (exponent == 0x7FF) { throw new IllegalArgumentException ("Cannot represent value: " + value); }
+                if (bits < 0) { buffer.append ('-'); }
+
+                if (exponent == 0 && mantissa == 0) {
+                        buffer.append ("0.0");
+                        return;
+                }
+
+                int e2;
+                long m2;
+
+                if (exponent == 0) {
+                        e2 = (1 - DOUBLE_EXPONENT_BIAS - DOUBLE_MANTISSA_BITS - 2);
+                        m2 = mantissa;
+                } else {
+                        e2 = (exponent - DOUBLE_EXPONENT_BIAS - DOUBLE_MANTISSA_BITS - 2);
+                        m2 = ((1L << DOUBLE_MANTISSA_BITS) | mantissa);
+                }
+
+                boolean acceptBounds = ((m2 & 1) == 0);
+                long mv = (4 * m2);
+                int mmShift = (mantissa != 0 || exponent <= 1 ? 1 : 0);
+
+                long vr;
+                long vp;
+                long vm;
+                int e10;
+                boolean vmIsTrailingZeros = false;
+                boolean vrIsTrailingZeros = false;
+
+                if (e2 >= 0) {
+                        int q = (log10Pow2 (e2) - (e2 > 3 ? 1 : 0));
+                        int k = (POW5_INV_BITCOUNT + pow5Bits (q) - 1);
+                        int i = (-e2 + q + k);
+                        e10 = q;
+
+                        vr = mulShift64 (mv, POW5_INV_SPLIT, q, i);
+                        vp = mulShift64 (mv + 2, POW5_INV_SPLIT, q, i);
+                        vm = mulShift64 (mv - 1 - mmShift, POW5_INV_SPLIT, q, i);
+
+                        if (q <= 21) {
+                                if (mv % 5 == 0) {
+                                        vrIsTrailingZeros = multipleOfPowerOf5 (mv, q);
+                                } else if (acceptBounds) {
+                                        vmIsTrailingZeros = multipleOfPowerOf5 (mv - 1 - mmShift, q);
+                                } else if (multipleOfPowerOf5 (mv + 2, q)) {
+                                        vp--;
+                                }
+                        }
+                } else {
+                        int q = (log10Pow5 (-e2) - (-e2 > 1 ? 1 : 0));
+                        int i = (-e2 - q);
+                        int k = (pow5Bits (i) - POW5_BITCOUNT);
+                        int j = (q - k);
+                        e10 = (q + e2);
+
+                        vr = mulShift64 (mv, POW5_SPLIT, i, j);
+                        vp = mulShift64 (mv + 2, POW5_SPLIT, i, j);
+                        vm = mulShift64 (mv - 1 - mmShift, POW5_SPLIT, i, j);
+
+                        if (q <= 1) {
+                                vrIsTrailingZeros = true;
+
+                                if (acceptBounds) {
+                                        vmIsTrailingZeros = (mmShift == 1);
+                                } else {
+                                        vp--;
+                                }
+                        } else if (q < 63) {
+                                vrIsTrailingZeros = multipleOfPowerOf2 (mv, q);
+                        }
+                }
+
+                int removed = 0;
+                long output;
+
+                if (vmIsTrailingZeros || vrIsTrailingZeros) {
+                        int lastRemovedDigit = 0;
+
+                        while ((vp / 10) > (vm / 10)) {
+                                vmIsTrailingZeros &= (vm % 10 == 0);
+                                vrIsTrailingZeros &= (lastRemovedDigit == 0);
+                                lastRemovedDigit = ((int) (vr % 10));
+                                vr /= 10;
+                                vp /= 10;
+                                vm /= 10;
+                                removed++;
+                        }
+
+                        if (vmIsTrailingZeros) {
+                                while (vm % 10 == 0) {
+                                        vrIsTrailingZeros &= (lastRemovedDigit == 0);
+                                        lastRemovedDigit = ((int) (vr % 10));
+                                        vr /= 10;
+                                        vp /= 10;
+                                        vm /= 10;
+                                        removed++;
+                                }
+                        }
+
+                        // round half to even when the value lies exactly between two candidates
+                        if (vrIsTrailingZeros && lastRemovedDigit == 5 && (vr % 2) == 0) { lastRemovedDigit = 4; }
+                        output = vr + ((vr == vm && (!acceptBounds || !vmIsTrailingZeros)) || lastRemovedDigit >= 5 ? 1 : 0);
+                } else {
+                        boolean roundUp = false;
+
+                        if ((vp / 100) > (vm / 100)) {
+                                roundUp = ((vr % 100) >= 50);
+                                vr /= 100;
+                                vp /= 100;
+                                vm /= 100;
+                                removed += 2;
+                        }
+
+                        while ((vp / 10) > (vm / 10)) {
+                                roundUp = ((vr % 10) >= 5);
+                                vr /= 10;
+                                vp /= 10;
+                                vm /= 10;
+                                removed++;
+                        }
+
+                        output = vr + (vr == vm || roundUp ? 1 : 0);
+                }
+
+                appendDecimal (buffer, output, (e10 + removed));
+        }
+
+        /**
+         * Appends a float.
+         *
+         * @param buffer The buffer.
+         * @param value  The value.
+         * @throws java.lang.IllegalArgumentException when the value is infinite or not a number.
+         */
+        static void appendFloat (@Nonnull StringBuilder buffer, float value) throws IllegalArgumentException {
+                int bits = Float.floatToRawIntBits (value);
+                int mantissa = (bits & ((1 << FLOAT_MANTISSA_BITS) - 1));
+                int exponent = ((bits >>> FLOAT_MANTISSA_BITS) & 0xFF);
+
+                if (exponent == 0xFF) { throw new IllegalArgumentException ("Cannot represent value: " + value); }
+                if (bits < 0) { buffer.append ('-'); }
+
+                if (exponent == 0 && mantissa == 0) {
+                        buffer.append ("0.0");
+                        return;
+                }
+
+                int e2;
+                long m2;
+
+                if (exponent == 0) {
+                        e2 = (1 - FLOAT_EXPONENT_BIAS - FLOAT_MANTISSA_BITS - 2);
+                        m2 = mantissa;
+                } else {
+                        e2 = (exponent - FLOAT_EXPONENT_BIAS - FLOAT_MANTISSA_BITS - 2);
+                        m2 = ((1L << FLOAT_MANTISSA_BITS) | mantissa);
+                }
+
+                boolean acceptBounds = ((m2 & 1) == 0);
+                long mv = (4 * m2);
+                long mp = (4 * m2 + 2);
+                int mmShift = (mantissa != 0 || exponent <= 1 ? 1 : 0);
+                long mm = (4 * m2 - 1 - mmShift);
+
+                long vr;
+                long vp;
+                long vm;
+                int e10;
+                boolean vmIsTrailingZeros = false;
+                boolean vrIsTrailingZeros = false;
+                int lastRemovedDigit = 0;
+
+                if (e2 >= 0) {
+                        int q = log10Pow2 (e2);
+                        int k = (FLOAT_POW5_INV_BITCOUNT + pow5Bits (q) - 1);
+                        int i = (-e2 + q + k);
+                        e10 = q;
+
+                        vr = mulPow5InvDivPow2 (mv, q, i);
+                        vp = mulPow5InvDivPow2 (mp, q, i);
+                        vm = mulPow5InvDivPow2 (mm, q, i);
+
+                        if (q != 0 && ((vp - 1) / 10) <= (vm / 10)) {
+                                int l = (FLOAT_POW5_INV_BITCOUNT + pow5Bits (q - 1) - 1);
+                                lastRemovedDigit = ((int) (mulPow5InvDivPow2 (mv, (q - 1), (-e2 + q - 1 + l)) % 10));
+                        }
+
+                        if (q <= 9) {
+                                if (mv % 5 == 0) {
+                                        vrIsTrailingZeros = multipleOfPowerOf5 (mv, q);
+                                } else if (acceptBounds) {
+                                        vmIsTrailingZeros = multipleOfPowerOf5 (mm, q);
+                                } else if (multipleOfPowerOf5 (mp, q)) {
+                                        vp--;
+                                }
+                        }
+                } else {
+                        int q = log10Pow5 (-e2);
+                        int i = (-e2 - q);
+                        int k = (pow5Bits (i) - FLOAT_POW5_BITCOUNT);
+                        int j = (q - k);
+                        e10 = (q + e2);
+
+                        vr = mulPow5DivPow2 (mv, i, j);
+                        vp = mulPow5DivPow2 (mp, i, j);
+                        vm = mulPow5DivPow2 (mm, i, j);
+
+                        if (q != 0 && ((vp - 1) / 10) <= (vm / 10)) {
+                                j = (q - 1 - (pow5Bits (i + 1) - FLOAT_POW5_BITCOUNT));
+                                lastRemovedDigit = ((int) (mulPow5DivPow2 (mv, (i + 1), j) % 10));
+                        }
+
+                        if (q <= 1) {
+                                vrIsTrailingZeros = true;
+
+                                if (acceptBounds) {
+                                        vmIsTrailingZeros = (mmShift == 1);
+                                } else {
+                                        vp--;
+                                }
+                        } else if (q < 31) {
+                                vrIsTrailingZeros = multipleOfPowerOf2 (mv, (q - 1));
+                        }
+                }
+
+                int removed = 0;
+                long output;
+
+                if (vmIsTrailingZeros || vrIsTrailingZeros) {
+                        while ((vp / 10) > (vm / 10)) {
+                                vmIsTrailingZeros &= (vm % 10 == 0);
+                                vrIsTrailingZeros &= (lastRemovedDigit == 0);
+                                lastRemovedDigit = ((int) (vr % 10));
+                                vr /= 10;
+                                vp /= 10;
+                                vm /= 10;
+                                removed++;
+                        }
+
+                        if (vmIsTrailingZeros) {
+                                while (vm % 10 == 0) {
+                                        vrIsTrailingZeros &= (lastRemovedDigit == 0);
+                                        lastRemovedDigit = ((int) (vr % 10));
+                                        vr /= 10;
+                                        vp /= 10;
+                                        vm /= 10;
+                                        removed++;
+                                }
+                        }
+
+                        // round half to even when the value lies exactly between two candidates
+                        if (vrIsTrailingZeros && lastRemovedDigit == 5 && (vr % 2) == 0) { lastRemovedDigit = 4; }
+                        output = vr + ((vr == vm && (!acceptBounds || !vmIsTrailingZeros)) || lastRemovedDigit >= 5 ? 1 : 0);
+                } else {
+                        while ((vp / 10) > (vm / 10)) {
+                                lastRemovedDigit = ((int) (vr % 10));
+                                vr /= 10;
+                                vp /= 10;
+                                vm /= 10;
+                                removed++;
+                        }
+
+                        output = vr + (vr == vm || lastRemovedDigit >= 5 ? 1 : 0);
+                }
+
+                appendDecimal (buffer, output, (e10 + removed));
+        }
+
+        /**
+         * Appends a decimal significand and exponent in either plain or scientific notation.
+         *
+         * @param buffer      The buffer.
+         * @param significand The decimal significand.
+         * @param exponent    The decimal exponent.
+         */
+        private static void appendDecimal (@Nonnull StringBuilder buffer, long significand, int exponent) {
+                int length = decimalLength (significand);
+                int scientificExponent = (exponent + length - 1);
+
+                if (scientificExponent >= 0 && scientificExponent < 7) {
+                        int integerLength = (scientificExponent + 1);
+
+                        if (length <= integerLength) {
+                                appendDigits (buffer, significand, length);
+                                for (int i = length; i < integerLength; i++) { buffer.append ('0'); }
+                                buffer.append (".0");
+                                return;
+                        }
+
+                        long divisor = POWERS_OF_TEN[length - integerLength];
+                        appendDigits (buffer, (significand / divisor), integerLength);
+                        buffer.append ('.');
+                        appendDigits (buffer, (significand % divisor), (length - integerLength));
+                        return;
+                }
+
+                if (scientificExponent < 0 && scientificExponent >= -3) {
+                        buffer.append ("0.");
+                        for (int i = -1; i > scientificExponent; i--) { buffer.append ('0'); }
+                        appendDigits (buffer, significand, length);
+                        return;
+                }
+
+                long divisor = POWERS_OF_TEN[length - 1];
+                appendDigits (buffer, (significand / divisor), 1);
+                buffer.append ('.');
+
+                if (length == 1) {
+                        buffer.append ('0');
+                } else {
+                        appendDigits (buffer, (significand % divisor), (length - 1));
+                }
+
+                buffer.append ('E');
+                buffer.append (scientificExponent);
+        }
+
+        /**
+         * Appends a fixed amount of decimal digits (including leading zeros).
+         *
+         * @param buffer The buffer.
+         * @param value  The value.
+         * @param length The amount of digits.
+         */
+        private static void appendDigits (@Nonnull StringBuilder buffer, long value, int length) {
+                int offset = buffer.length ();
+                buffer.setLength (offset + length);
+
+                for (int i = (offset + length - 1); i >= offset; i--) {
+                        buffer.setCharAt (i, ((char) ('0' + (value % 10))));
+                        value /= 10;
+                }
+        }
+
+        /**
+         * Appends a non-negative value in hexadecimal notation.
+         *
+         * @param buffer The buffer.
+         * @param value  The value.
+         */
+        private static void appendHexadecimal (@Nonnull StringBuilder buffer, long value) {
+                int length = Math.max (1, ((67 - Long.numberOfLeadingZeros (value)) / 4));
+
+                buffer.append ("0x");
+                int offset = buffer.length ();
+                buffer.setLength (offset + length);
+
+                for (int i = (offset + length - 1); i >= offset; i--) {
+                        buffer.setCharAt (i, HEX_DIGITS[((int) value & 0xF)]);
+                        value >>>= 4;
+                }
+        }
+
+        /**
+         * Computes the amount of decimal digits within a positive value.
+         *
+         * @param value The value.
+         * @return The amount of digits.
+         */
+        private static int decimalLength (long value) {
+                int length = 1;
+                while (length < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[length]) { length++; }
+                return length;
+        }
+
+        /**
+         * Computes floor(log10(2<sup>e</sup>)) for 0 &lt;= e &lt;= 1650.
+         */
+        private static int log10Pow2 (int e) {
+                return ((int) ((e * 78913L) >>> 18));
+        }
+
+        /**
+         * Computes floor(log10(5<sup>e</sup>)) for 0 &lt;= e &lt;= 2620.
+         */
+        private static int log10Pow5 (int e) {
+                return ((int) ((e * 732923L) >>> 20));
+        }
+
+        /**
+         * Computes the bit length of 5<sup>e</sup> for 0 &lt;= e &lt;= 3528.
+         */
+        private static int pow5Bits (int e) {
+                return ((int) ((e * 1217359L) >>> 19) + 1);
+        }
+
+        private static boolean multipleOfPowerOf2 (long value, int p) {
+                return ((value & ((1L << p) - 1)) == 0);
+        }
+
+        private static boolean multipleOfPowerOf5 (long value, int p) {
+                int count = 0;
+
+                while (value % 5 == 0) {
+                        value /= 5;
+                        count++;
+                }
+
+                return (count >= p);
+        }
+
+        /**
+         * Computes (m * table[index]) &gt;&gt; j for the 125-bit table entries.
+         */
+        private static long mulShift64 (long m, @Nonnull long[] table, int index, int j) {
+                long low = table[(index * 2)];
+                long high = table[(index * 2) + 1];
+
+                long productHigh = multiplyHigh (m, high);
+                long sum = ((m * high) + multiplyHigh (m, low));
+                if (Long.compareUnsigned (sum, (m * high)) < 0) { productHigh++; }
+
+                int shift = (j - 64);
+                return ((sum >>> shift) | (productHigh << (64 - shift)));
+        }
+
+        /**
+         * Computes the upper 64 bits of the unsigned product of two values.
+         */
+        private static long multiplyHigh (long x, long y) {
+                long x0 = (x & 0xFFFFFFFFL);
+                long x1 = (x >>> 32);
+                long y0 = (y & 0xFFFFFFFFL);
+                long y1 = (y >>> 32);
+
+                long p01 = (x0 * y1);
+                long p10 = (x1 * y0);
+                long middle = (((x0 * y0) >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL));
+
+                return ((x1 * y1) + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32));
+        }
+
+        /**
+         * Computes (m * factor) &gt;&gt; shift for the upper 64 bits of the double precision tables.
+         */
+        private static long mulShift32 (long m, long factor, int shift) {
+                long low = ((m * (factor & 0xFFFFFFFFL)) >>> 32);
+                long high = (m * (factor >>> 32));
+
+                return (((low + high) >>> (shift - 32)) & 0xFFFFFFFFL);
+        }
+
+        private static long mulPow5InvDivPow2 (long m, int q, int j) {
+                // the table stores floor(2^k / 5^q) + 1 which leaves the upper word equal to the floor
+                return mulShift32 (m, (POW5_INV_SPLIT[(q * 2) + 1] + 1), j);
+        }
+
+        private static long mulPow5DivPow2 (long m, int i, int j) {
+                return mulShift32 (m, POW5_SPLIT[(i * 2) + 1], j);
+        }
+}
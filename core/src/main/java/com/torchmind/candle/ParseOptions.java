@@ -0,0 +1,248 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+
+/**
+ * Configures how documents are processed when read.
+ *
+ * @author Johannes Donath
+ */
+public class ParseOptions {
+        private Path cacheDirectory = null;
+        private boolean discardComments = false;
+        private boolean internNames = false;
+        private int directArrayThreshold = 0;
+        private int maximumArrayLength = 0;
+        private int maximumDepth = 0;
+        private int maximumNodes = 0;
+        private int maximumStringLength = 0;
+
+        public ParseOptions () {
+        }
+
+        public ParseOptions (@Nonnull ParseOptions options) {
+                this.cacheDirectory = options.cacheDirectory;
+                this.discardComments = options.discardComments;
+                this.internNames = options.internNames;
+                this.directArrayThreshold = options.directArrayThreshold;
+                this.maximumArrayLength = options.maximumArrayLength;
+                this.maximumDepth = options.maximumDepth;
+                this.maximumNodes = options.maximumNodes;
+                this.maximumStringLength = options.maximumStringLength;
+        }
+
+        /**
+         * Retrieves the directory in which compiled images of parsed files are stored.
+         *
+         * @return The directory or null if disabled.
+         */
+        @Nullable
+        public Path cacheDirectory () {
+                return this.cacheDirectory;
+        }
+
+        /**
+         * Sets the directory in which compiled images of parsed files are stored.
+         * When set, files are loaded from their image as long as their contents remain unchanged. Images are keyed by
+         * a hash of the file contents and are rebuilt whenever a file is changed. Only the most recent image of each
+         * file is kept. Documents read from an {@link java.io.InputStream} are not affected.
+         *
+         * @param cacheDirectory The directory or null to disable.
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions cacheDirectory (@Nullable Path cacheDirectory) {
+                this.cacheDirectory = cacheDirectory;
+                return this;
+        }
+
+        /**
+         * Retrieves the minimum length of numeric arrays which are stored off-heap when read.
+         *
+         * @return The threshold (zero if disabled).
+         */
+        @Nonnegative
+        public int directArrayThreshold () {
+                return this.directArrayThreshold;
+        }
+
+        /**
+         * Sets the minimum length of numeric arrays which are stored off-heap when read.
+         *
+         * @param directArrayThreshold The threshold (zero to disable).
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions directArrayThreshold (@Nonnegative int directArrayThreshold) {
+                this.directArrayThreshold = directArrayThreshold;
+                return this;
+        }
+
+        /**
+         * Checks whether comments are discarded.
+         * When enabled, comments are dropped by the lexer and no comment nodes are created.
+         *
+         * @return True if comments are discarded.
+         */
+        public boolean discardComments () {
+                return this.discardComments;
+        }
+
+        /**
+         * Enables/Disables discarding of comments.
+         * When enabled, comments are dropped by the lexer and no comment nodes are created.
+         *
+         * @param discardComments True if enabled.
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions discardComments (boolean discardComments) {
+                this.discardComments = discardComments;
+                return this;
+        }
+
+        /**
+         * Checks whether object and property names are interned.
+         * When enabled, all occurrences of a name within a document share a single string instance.
+         *
+         * @return True if names are interned.
+         */
+        public boolean internNames () {
+                return this.internNames;
+        }
+
+        /**
+         * Enables/Disables interning of object and property names.
+         * When enabled, all occurrences of a name within a document share a single string instance.
+         *
+         * @param internNames True if enabled.
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions internNames (boolean internNames) {
+                this.internNames = internNames;
+                return this;
+        }
+
+        /**
+         * Retrieves the maximum amount of elements within a single array.
+         *
+         * @return The limit (zero if disabled).
+         */
+        @Nonnegative
+        public int maximumArrayLength () {
+                return this.maximumArrayLength;
+        }
+
+        /**
+         * Sets the maximum amount of elements within a single array.
+         * Documents which exceed this limit are rejected with a {@link com.torchmind.candle.api.error.CandleParserException}.
+         *
+         * @param maximumArrayLength The limit (zero to disable).
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions maximumArrayLength (@Nonnegative int maximumArrayLength) {
+                this.maximumArrayLength = maximumArrayLength;
+                return this;
+        }
+
+        /**
+         * Retrieves the maximum nesting depth of objects.
+         *
+         * @return The limit (zero if disabled).
+         */
+        @Nonnegative
+        public int maximumDepth () {
+                return this.maximumDepth;
+        }
+
+        /**
+         * Sets the maximum nesting depth of objects.
+         * Documents which exceed this limit are rejected with a {@link com.torchmind.candle.api.error.CandleParserException}.
+         *
+         * @param maximumDepth The limit (zero to disable).
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions maximumDepth (@Nonnegative int maximumDepth) {
+                this.maximumDepth = maximumDepth;
+                return this;
+        }
+
+        /**
+         * Retrieves the maximum amount of nodes (objects, properties and comments) within a document.
+         *
+         * @return The limit (zero if disabled).
+         */
+        @Nonnegative
+        public int maximumNodes () {
+                return this.maximumNodes;
+        }
+
+        /**
+         * Sets the maximum amount of nodes (objects, properties and comments) within a document.
+         * Documents which exceed this limit are rejected with a {@link com.torchmind.candle.api.error.CandleParserException}.
+         *
+         * @param maximumNodes The limit (zero to disable).
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions maximumNodes (@Nonnegative int maximumNodes) {
+                this.maximumNodes = maximumNodes;
+                return this;
+        }
+
+        /**
+         * Retrieves the maximum length of names, comments and string values (measured without the enclosing quotes).
+         *
+         * @return The limit (zero if disabled).
+         */
+        @Nonnegative
+        public int maximumStringLength () {
+                return this.maximumStringLength;
+        }
+
+        /**
+         * Sets the maximum length of names, comments and string values (measured without the enclosing quotes).
+         * Documents which exceed this limit are rejected with a {@link com.torchmind.candle.api.error.CandleParserException}.
+         *
+         * The limit is enforced by the lexer before the offending token (and thus its text) is created. The characters
+         * of the token which is currently being matched are still held by the input stream, however.
+         *
+         * @param maximumStringLength The limit (zero to disable).
+         * @return The options.
+         */
+        @Nonnull
+        public ParseOptions maximumStringLength (@Nonnegative int maximumStringLength) {
+                this.maximumStringLength = maximumStringLength;
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString () {
+                return String.format ("ParseOptions{cacheDirectory=%s,discardComments=%s,internNames=%s,directArrayThreshold=%d,maximumArrayLength=%d,maximumDepth=%d,maximumNodes=%d,maximumStringLength=%d}", this.cacheDirectory, this.discardComments, this.internNames, this.directArrayThreshold, this.maximumArrayLength, this.maximumDepth, this.maximumNodes, this.maximumStringLength);
+        }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.antlr;
+
+import com.torchmind.candle.api.IDocumentNode;
+import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.property.array.*;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects array elements while parsing.
+ * Elements are written straight into growable primitive storage and trimmed once when the array node is created.
+ * The storage is retained between arrays so that subsequent arrays of the same type do not need to allocate again.
+ * Numeric arrays which reach the configured threshold are copied into off-heap buffers instead of heap arrays.
+ *
+ * Integer arrays which encounter a long element are widened to long arrays and float arrays which encounter a double
+ * element are widened to double arrays respectively.
+ *
+ * @author Johannes Donath
+ */
+public class ArrayBuffer {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final int directThreshold;
+
+        private NodeValueType itemType;
+        private NodeValueType rejectedType;
+        private int length;
+
+        private boolean[] booleans;
+        private double[] doubles;
+        private float[] floats;
+        private int[] integers;
+        private long[] longs;
+        private String[] strings;
+
+        public ArrayBuffer () {
+                this (0);
+        }
+
+        public ArrayBuffer (@Nonnegative int directThreshold) {
+                this.directThreshold = directThreshold;
+        }
+
+        /**
+         * Appends a boolean element.
+         *
+         * @param value The value.
+         * Elements of a type which differs from the array type are rejected (see {@link #rejectedType()}).
+         */
+        public void addBoolean (boolean value) {
+                if (!this.ensureItemType (NodeValueType.BOOLEAN)) { return; }
+                if (this.length == this.booleans.length) { this.booleans = Arrays.copyOf (this.booleans, this.grow ()); }
+                this.booleans[this.length++] = value;
+        }
+
+        /**
+         * Appends a double element.
+         *
+         * @param value The value.
+         * Elements of a type which differs from the array type are rejected (see {@link #rejectedType()}).
+         */
+        public void addDouble (double value) {
+                if (this.itemType == NodeValueType.FLOAT) {
+                        this.widen ();
+                } else if (!this.ensureItemType (NodeValueType.DOUBLE)) {
+                        return;
+                }
+
+                if (this.length == this.doubles.length) { this.doubles = Arrays.copyOf (this.doubles, this.grow ()); }
+                this.doubles[this.length++] = value;
+        }
+
+        /**
+         * Replaces a buffered element of a double array.
+         * This permits restoring the full precision of elements which were appended as floats before the array has
+         * been widened.
+         *
+         * @param index The element index.
+         * @param value The value.
+         */
+        public void setDouble (@Nonnegative int index, double value) {
+                if (this.itemType != NodeValueType.DOUBLE || index >= this.length) { throw new IndexOutOfBoundsException ("Index: " + index + ", Length: " + this.length); }
+                this.doubles[index] = value;
+        }
+
+        /**
+         * Appends an enum element.
+         *
+         * @param value The raw enum value.
+         * Elements of a type which differs from the array type are rejected (see {@link #rejectedType()}).
+         */
+        public void addEnum (@Nonnull String value) {
+                if (!this.ensureItemType (NodeValueType.ENUM)) { return; }
+                this.addObject (value);
+        }
+
+        /**
+         * Appends a float element.
+         *
+         * @param value The value.
+         * Elements of a type which differs from the array type are rejected (see {@link #rejectedType()}).
+         */
+        public void addFloat (float value) {
+                if (this.itemType == NodeValueType.DOUBLE) {
+                        this.addDouble (value);
+                        return;
+                }
+
+                if (!this.ensureItemType (NodeValueType.FLOAT)) { return; }
+                if (this.length == this.floats.length) { this.floats = Arrays.copyOf (this.floats, this.grow ()); }
+                this.floats[this.length++] = value;
+        }
+
+        /**
+         * Appends an integer element.
+         *
+         * @param value The value.
+         * Elements of a type which differs from the array type are rejected (see {@link #rejectedType()}).
+         */
+        public void addInteger (int value) {
+                if (this.itemType == NodeValueType.LONG) {
+                        this.addLong (value);
+                        return;
+                }
+
+                if (!this.ensureItemType (NodeValueType.INTEGER)) { return; }
+                if (this.length == this.integers.length) { this.integers = Arrays.copyOf (this.integers, this.grow ()); }
+                this.integers[this.length++] = value;
+        }
+
+        /**
+         * Appends a long element.
+         *
+         * @param value The value.
+         * Elements of a type which differs from the array type are rejected (see {@link #rejectedType()}).
+         */
+        public void addLong (long value) {
+                if (this.itemType == NodeValueType.INTEGER) {
+                        this.widen ();
+                } else if (!this.ensureItemType (NodeValueType.LONG)) {
+                        return;
+                }
+
+                if (this.length == this.longs.length) { this.longs = Arrays.copyOf (this.longs, this.grow ()); }
+                this.longs[this.length++] = value;
+        }
+
+        /**
+         * Appends a null element.
+         * Null elements are represented by the default value of the array type (e.g. zero for numbers).
+         */
+        public void addNull () {
+                if (this.itemType == null) {
+                        this.length++;
+                        return;
+                }
+
+                switch (this.itemType) {
+                        case BOOLEAN:
+                                this.addBoolean (false);
+                                break;
+                        case DOUBLE:
+                                this.addDouble (0.0);
+                                break;
+                        case FLOAT:
+                                this.addFloat (0.0f);
+                                break;
+                        case INTEGER:
+                                this.addInteger (0);
+                                break;
+                        case LONG:
+                                this.addLong (0L);
+                                break;
+                        default:
+                                this.addObject (null);
+                                break;
+                }
+        }
+
+        /**
+         * Appends a string element.
+         *
+         * @param value The value.
+         * Elements of a type which differs from the array type are rejected (see {@link #rejectedType()}).
+         */
+        public void addString (@Nonnull String value) {
+                if (!this.ensureItemType (NodeValueType.STRING)) { return; }
+                this.addObject (value);
+        }
+
+        /**
+         * Appends an element to the string storage.
+         *
+         * @param value The value.
+         */
+        private void addObject (@Nullable String value) {
+                if (this.length == this.strings.length) { this.strings = Arrays.copyOf (this.strings, this.grow ()); }
+                this.strings[this.length++] = value;
+        }
+
+        /**
+         * Creates an array node from the buffered elements and resets the buffer.
+         *
+         * @param documentNode The document node.
+         * @param name         The node name.
+         * @return The node.
+         */
+        @Nonnull
+        public AbstractArrayPropertyNode build (@Nonnull IDocumentNode documentNode, @Nonnull String name) {
+                try {
+                        if (this.itemType == null) { return new NullArrayPropertyNode (documentNode, name); }
+
+                        switch (this.itemType) {
+                                case BOOLEAN:
+                                        return new BooleanArrayPropertyNode (documentNode, name, Arrays.copyOf (this.booleans, this.length));
+                                case DOUBLE:
+                                        if (this.isDirect ()) {
+                                                DoubleBuffer buffer = DirectBuffers.allocateDoubles (this.length);
+                                                buffer.put (this.doubles, 0, this.length).flip ();
+                                                return new DoubleArrayPropertyNode (documentNode, name, buffer);
+                                        }
+
+                                        return new DoubleArrayPropertyNode (documentNode, name, Arrays.copyOf (this.doubles, this.length));
+                                case ENUM:
+                                        return new EnumArrayPropertyNode (documentNode, name, Arrays.copyOf (this.strings, this.length));
+                                case FLOAT:
+                                        if (this.isDirect ()) {
+                                                FloatBuffer buffer = DirectBuffers.allocateFloats (this.length);
+                                                buffer.put (this.floats, 0, this.length).flip ();
+                                                return new FloatArrayPropertyNode (documentNode, name, buffer);
+                                        }
+
+                                        return new FloatArrayPropertyNode (documentNode, name, Arrays.copyOf (this.floats, this.length));
+                                case INTEGER:
+                                        if (this.isDirect ()) {
+                                                IntBuffer buffer = DirectBuffers.allocateInts (this.length);
+                                                buffer.put (this.integers, 0, this.length).flip ();
+                                                return new IntegerArrayPropertyNode (documentNode, name, buffer);
+                                        }
+
+                                        return new IntegerArrayPropertyNode (documentNode, name, Arrays.copyOf (this.integers, this.length));
+                                case LONG:
+                                        if (this.isDirect ()) {
+                                                LongBuffer buffer = DirectBuffers.allocateLongs (this.length);
+                                                buffer.put (this.longs, 0, this.length).flip ();
+                                                return new LongArrayPropertyNode (documentNode, name, buffer);
+                                        }
+
+                                        return new LongArrayPropertyNode (documentNode, name, Arrays.copyOf (this.longs, this.length));
+                                default:
+                                        return new StringArrayPropertyNode (documentNode, name, Arrays.copyOf (this.strings, this.length));
+                        }
+                } finally {
+                        this.reset ();
+                }
+        }
+
+        /**
+         * Ensures the buffer is accepting elements of a certain type and allocates its storage if needed.
+         * All elements which were appended before the type was known are null elements and thus already represented by
+         * the default values within the freshly allocated storage.
+         *
+         * @param itemType The item type.
+         * @return True if accepted, false if the element has been rejected (see {@link #rejectedType()}).
+         */
+        private boolean ensureItemType (@Nonnull NodeValueType itemType) {
+                if (this.itemType == itemType) { return true; }
+                if (this.itemType != null) {
+                        this.rejectedType = itemType;
+                        return false;
+                }
+
+                this.itemType = itemType;
+                this.allocate (Math.max (INITIAL_CAPACITY, (this.length * 2)));
+                return true;
+        }
+
+        /**
+         * Allocates the storage for the current item type unless the retained storage is large enough.
+         *
+         * @param capacity The minimum capacity.
+         */
+        private void allocate (@Nonnegative int capacity) {
+                switch (this.itemType) {
+                        case BOOLEAN:
+                                if (this.booleans == null || this.booleans.length < capacity) { this.booleans = new boolean[capacity]; }
+                                break;
+                        case DOUBLE:
+                                if (this.doubles == null || this.doubles.length < capacity) { this.doubles = new double[capacity]; }
+                                break;
+                        case FLOAT:
+                                if (this.floats == null || this.floats.length < capacity) { this.floats = new float[capacity]; }
+                                break;
+                        case INTEGER:
+                                if (this.integers == null || this.integers.length < capacity) { this.integers = new int[capacity]; }
+                                break;
+                        case LONG:
+                                if (this.longs == null || this.longs.length < capacity) { this.longs = new long[capacity]; }
+                                break;
+                        default:
+                                if (this.strings == null || this.strings.length < capacity) { this.strings = new String[capacity]; }
+                                break;
+                }
+        }
+
+        /**
+         * Calculates the next storage capacity.
+         *
+         * @return The capacity.
+         */
+        @Nonnegative
+        private int grow () {
+                return (this.length + (this.length >> 1) + 1);
+        }
+
+        /**
+         * Checks whether the buffered elements are to be stored off-heap.
+         *
+         * @return True if off-heap.
+         */
+        private boolean isDirect () {
+                return (this.directThreshold != 0 && this.length >= this.directThreshold);
+        }
+
+        /**
+         * Retrieves the type of the buffered elements.
+         *
+         * @return The type or null if no typed element has been appended yet.
+         */
+        @Nullable
+        public NodeValueType itemType () {
+                return this.itemType;
+        }
+
+        /**
+         * Retrieves and clears the type of the last element which was rejected due to a type mismatch.
+         *
+         * @return The type or null if no element has been rejected.
+         */
+        @Nullable
+        public NodeValueType rejectedType () {
+                NodeValueType rejectedType = this.rejectedType;
+                this.rejectedType = null;
+                return rejectedType;
+        }
+
+        /**
+         * Retrieves the amount of buffered elements.
+         *
+         * @return The length.
+         */
+        @Nonnegative
+        public int length () {
+                return this.length;
+        }
+
+        /**
+         * Resets the buffer while retaining its storage.
+         * Retained storage is cleared up to the previous length since elements appended as null rely on default values.
+         */
+        public void reset () {
+                if (this.itemType != null) {
+                        switch (this.itemType) {
+                                case BOOLEAN:
+                                        Arrays.fill (this.booleans, 0, this.length, false);
+                                        break;
+                                case DOUBLE:
+                                        Arrays.fill (this.doubles, 0, this.length, 0.0);
+                                        break;
+                                case FLOAT:
+                                        Arrays.fill (this.floats, 0, this.length, 0.0f);
+                                        break;
+                                case INTEGER:
+                                        Arrays.fill (this.integers, 0, this.length, 0);
+                                        break;
+                                case LONG:
+                                        Arrays.fill (this.longs, 0, this.length, 0L);
+                                        break;
+                                default:
+                                        Arrays.fill (this.strings, 0, this.length, null);
+                                        break;
+                        }
+                }
+
+                this.itemType = null;
+                this.rejectedType = null;
+                this.length = 0;
+        }
+
+        /**
+         * Widens the buffered integer or float elements to long or double elements respectively.
+         */
+        private void widen () {
+                int capacity = Math.max (INITIAL_CAPACITY, (this.length * 2));
+
+                if (this.itemType == NodeValueType.INTEGER) {
+                        this.itemType = NodeValueType.LONG;
+                        this.allocate (capacity);
+
+                        for (int i = 0; i < this.length; i++) {
+                                this.longs[i] = this.integers[i];
+                                this.integers[i] = 0;
+                        }
+                } else {
+                        this.itemType = NodeValueType.DOUBLE;
+                        this.allocate (capacity);
+
+                        for (int i = 0; i < this.length; i++) {
+                                this.doubles[i] = this.floats[i];
+                                this.floats[i] = 0.0f;
+                        }
+                }
+        }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.antlr;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Provides an input stream which exposes its character buffer.
+ * This allows the listener to decode tokens (such as string literals) straight from the input instead of allocating
+ * intermediate token texts.
+ *
+ * @author Johannes Donath
+ */
+public class CandleInputStream extends ANTLRInputStream {
+
+        public CandleInputStream (@Nonnull String input) {
+                super (input);
+        }
+
+        public CandleInputStream (@Nonnull Reader reader) throws IOException {
+                super (reader);
+        }
+
+        public CandleInputStream (@Nonnull InputStream inputStream) throws IOException {
+                super (inputStream);
+        }
+
+        protected CandleInputStream (@Nonnull char[] data, int length) {
+                super (data, length);
+        }
+
+        /**
+         * Reads a file using the platform's default encoding.
+         *
+         * @param file The file.
+         * @return The input stream.
+         *
+         * @throws java.io.IOException when reading the file fails.
+         */
+        @Nonnull
+        public static CandleInputStream open (@Nonnull File file) throws IOException {
+                try (Reader reader = new InputStreamReader (new FileInputStream (file))) {
+                        // the file length is an upper bound for the amount of characters in all common encodings
+                        char[] data = new char[((int) Math.min (Integer.MAX_VALUE - 8, file.length ()))];
+                        int length = 0;
+
+                        while (true) {
+                                if (length == data.length) {
+                                        int next = reader.read ();
+                                        if (next == -1) { break; }
+
+                                        data = Arrays.copyOf (data, Math.max (16, data.length * 2));
+                                        data[length++] = ((char) next);
+                                        continue;
+                                }
+
+                                int read = reader.read (data, length, (data.length - length));
+                                if (read == -1) { break; }
+                                length += read;
+                        }
+
+                        CandleInputStream inputStream = new CandleInputStream (data, length);
+                        inputStream.name = file.getPath ();
+                        return inputStream;
+                }
+        }
+
+        /**
+         * Retrieves the backing character buffer.
+         * Only the first {@link #size()} characters are valid. The returned buffer must not be modified.
+         *
+         * @return The buffer.
+         */
+        @Nonnull
+        public char[] data () {
+                return this.data;
+        }
+}
@@ -17,16 +17,25 @@
 package com.torchmind.candle.antlr;
 
 import com.torchmind.candle.Candle;
+import com.torchmind.candle.ICandleHandler;
+import com.torchmind.candle.ParseOptions;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.api.error.CandleException;
 import com.torchmind.candle.api.error.CandleParserException;
 import com.torchmind.candle.node.CommentNode;
 import com.torchmind.candle.node.ObjectNode;
 import com.torchmind.candle.node.property.*;
-import com.torchmind.candle.node.property.array.*;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
 
 import javax.annotation.Nonnull;
-import java.lang.reflect.Array;
-import java.util.*;
-import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
 
 /**
  * @author Johannes Donath
@@ -37,10 +46,64 @@ public class CandleListener extends CandleParserBaseListener {
 
         private String lastIdentifier;
         private final Stack<ObjectNode> objectNodeStack = new Stack<> ();
-        private List<Object> arrayContent = null;
+        private final Stack<Token> objectTokenStack = new Stack<> ();
+        private final ArrayBuffer arrayBuffer;
+        private final NameTable nameTable;
+        private final int maximumArrayLength;
+        private final int maximumDepth;
+        private final int maximumNodes;
+        private final int maximumStringLength;
+        private int nodeCount = 0;
+        private final List<CandleException> diagnostics;
+        private final ICandleHandler handler;
+        private ArrayBuffer arrayContent = null;
+        private final List<Token> floatLiterals = new ArrayList<> ();
+        private final NumberParser numberParser = new NumberParser ();
+        private char[] tokenData;
+        private int tokenOffset;
+        private int tokenLength;
 
         public CandleListener (@Nonnull Candle candle) {
+                this (candle, candle.parseOptions ());
+        }
+
+        public CandleListener (@Nonnull Candle candle, @Nonnull ParseOptions options) {
+                this (candle, options, ((List<CandleException>) null));
+        }
+
+        /**
+         * Constructs a listener which optionally collects errors instead of failing on the first error.
+         *
+         * @param candle      The document to populate.
+         * @param options     The parse options.
+         * @param diagnostics The list to append errors to or null if the first error is to be thrown.
+         */
+        public CandleListener (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nullable List<CandleException> diagnostics) {
+                this (candle, options, diagnostics, null);
+        }
+
+        /**
+         * Constructs a listener which passes all nodes on to a handler instead of appending them to the document.
+         * The document is solely used as owner of the reported nodes and remains empty.
+         *
+         * @param candle  The document which owns the reported nodes.
+         * @param options The parse options.
+         * @param handler The handler.
+         */
+        public CandleListener (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nonnull ICandleHandler handler) {
+                this (candle, options, null, handler);
+        }
+
+        private CandleListener (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nullable List<CandleException> diagnostics, @Nullable ICandleHandler handler) {
                 this.candle = candle;
+                this.diagnostics = diagnostics;
+                this.handler = handler;
+                this.arrayBuffer = new ArrayBuffer (options.directArrayThreshold ());
+                this.nameTable = (options.internNames () ? new NameTable () : null);
+                this.maximumArrayLength = options.maximumArrayLength ();
+                this.maximumDepth = options.maximumDepth ();
+                this.maximumNodes = options.maximumNodes ();
+                this.maximumStringLength = options.maximumStringLength ();
                 this.objectNodeStack.push (candle);
         }
 
@@ -49,7 +112,11 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterCommentMultiline (CandleParser.CommentMultilineContext ctx) {
-                this.objectNodeStack.peek ().append (new CommentNode (this.candle, ctx.getText ().substring (2, (ctx.getText ().length () - 2))));
+                this.countNode (ctx.start);
+                this.checkLength (ctx.start, (length (ctx.start) - 4));
+
+                String text = ctx.start.getText ();
+                this.append (new CommentNode (this.candle, text.substring (2, (text.length () - 2))));
         }
 
         /**
@@ -57,7 +124,10 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterCommentSingleline (CandleParser.CommentSinglelineContext ctx) {
-                this.objectNodeStack.peek ().append (new CommentNode (this.candle, ctx.getText ().substring (2)));
+                this.countNode (ctx.start);
+                this.checkLength (ctx.start, (length (ctx.start) - 2));
+
+                this.append (new CommentNode (this.candle, ctx.start.getText ().substring (2)));
         }
 
         /**
@@ -65,10 +135,23 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterObjectIdentifier (CandleParser.ObjectIdentifierContext ctx) {
-                ObjectNode node = new ObjectNode (this.candle, ctx.getText ());
+                this.countNode (ctx.start);
+
+                // the document itself resides at the bottom of the stack
+                if (this.maximumDepth != 0 && this.objectNodeStack.size () > this.maximumDepth) {
+                        throw this.abort (ctx.start, "Object exceeds the maximum nesting depth of " + this.maximumDepth);
+                }
+
+                ObjectNode node = new ObjectNode (this.candle, this.decodeName (ctx.start));
+
+                if (this.handler != null) {
+                        this.dispatch (() -> this.handler.onBeginObject (node));
+                } else {
+                        this.append (node);
+                }
 
-                this.objectNodeStack.peek ().append (node);
                 this.objectNodeStack.push (node);
+                this.objectTokenStack.push (ctx.start);
         }
 
         /**
@@ -76,7 +159,8 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterPropertyIdentifier (CandleParser.PropertyIdentifierContext ctx) {
-                this.lastIdentifier = ctx.getText ();
+                this.countNode (ctx.start);
+                this.lastIdentifier = this.decodeName (ctx.start);
         }
 
         /**
@@ -84,7 +168,30 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterPropertyValueArray (CandleParser.PropertyValueArrayContext ctx) {
-                this.arrayContent = new ArrayList<> ();
+                this.arrayContent = this.arrayBuffer;
+                this.floatLiterals.clear ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void enterPropertyValueArrayElement (CandleParser.PropertyValueArrayElementContext ctx) {
+                if (this.maximumArrayLength != 0 && this.arrayContent.length () >= this.maximumArrayLength) {
+                        throw this.abort (ctx.start, "Array exceeds the maximum length of " + this.maximumArrayLength + " elements");
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void exitPropertyValueArrayElement (CandleParser.PropertyValueArrayElementContext ctx) {
+                NodeValueType rejectedType = this.arrayContent.rejectedType ();
+
+                if (rejectedType != null) {
+                        this.report (ctx.start, "Could not decode array contents: Expected element of type " + this.arrayContent.itemType () + " but got " + rejectedType, null);
+                }
         }
 
         /**
@@ -92,10 +199,10 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterPropertyValueBoolean (CandleParser.PropertyValueBooleanContext ctx) {
-                boolean value = Boolean.parseBoolean (ctx.getText ());
+                boolean value = Boolean.parseBoolean (ctx.start.getText ());
 
-                if (this.arrayContent != null) { this.arrayContent.add (value); } else {
-                        this.objectNodeStack.peek ().append (new BooleanPropertyNode (this.candle, this.lastIdentifier, value));
+                if (this.arrayContent != null) { this.arrayContent.addBoolean (value); } else {
+                        this.append (new BooleanPropertyNode (this.candle, this.lastIdentifier, value));
                         this.lastIdentifier = null;
                 }
         }
@@ -105,19 +212,43 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterPropertyValueDefault (CandleParser.PropertyValueDefaultContext ctx) {
-                this.objectNodeStack.peek ().append (new DefaultPropertyNode (this.candle, this.lastIdentifier));
+                this.append (new DefaultPropertyNode (this.candle, this.lastIdentifier));
                 this.lastIdentifier = null;
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void enterPropertyValueDouble (CandleParser.PropertyValueDoubleContext ctx) {
+                double value = this.decodeDouble (ctx.start);
+
+                if (this.arrayContent != null && this.arrayContent.itemType () == NodeValueType.FLOAT) {
+                        this.arrayContent.addDouble (value);
+
+                        // float elements are decoded again as they would otherwise retain float precision only
+                        for (int i = 0; i < this.floatLiterals.size (); i++) {
+                                Token literal = this.floatLiterals.get (i);
+                                if (literal != null) { this.arrayContent.setDouble (i, this.decodeDouble (literal)); }
+                        }
+
+                        this.floatLiterals.clear ();
+                } else if (this.arrayContent != null) { this.arrayContent.addDouble (value); } else {
+                        this.append (new DoublePropertyNode (this.candle, this.lastIdentifier, value));
+                        this.lastIdentifier = null;
+                }
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public void enterPropertyValueEnum (CandleParser.PropertyValueEnumContext ctx) {
-                String value = ctx.getText ();
+                this.checkLength (ctx.start, length (ctx.start));
+                String value = ctx.start.getText ();
 
-                if (this.arrayContent != null) { this.arrayContent.add (new EnumWrapper (value)); } else {
-                        this.objectNodeStack.peek ().append (new EnumPropertyNode (this.candle, this.lastIdentifier, value));
+                if (this.arrayContent != null) { this.arrayContent.addEnum (value); } else {
+                        this.append (new EnumPropertyNode (this.candle, this.lastIdentifier, value));
                         this.lastIdentifier = null;
                 }
         }
@@ -127,10 +258,23 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterPropertyValueFloat (CandleParser.PropertyValueFloatContext ctx) {
-                float value = Float.parseFloat (ctx.getText ());
+                if (this.arrayContent != null && this.arrayContent.itemType () == NodeValueType.DOUBLE) {
+                        this.arrayContent.addDouble (this.decodeDouble (ctx.start));
+                        return;
+                }
+
+                float value = this.decodeFloat (ctx.start);
+
+                if (this.arrayContent != null) {
+                        // literals are retained (indexed by element) until it is known whether the array is widened
+                        if (this.arrayContent.itemType () == null || this.arrayContent.itemType () == NodeValueType.FLOAT) {
+                                while (this.floatLiterals.size () < this.arrayContent.length ()) { this.floatLiterals.add (null); }
+                                this.floatLiterals.add (ctx.start);
+                        }
 
-                if (this.arrayContent != null) { this.arrayContent.add (value); } else {
-                        this.objectNodeStack.peek ().append (new FloatPropertyNode (this.candle, this.lastIdentifier, value));
+                        this.arrayContent.addFloat (value);
+                } else {
+                        this.append (new FloatPropertyNode (this.candle, this.lastIdentifier, value));
                         this.lastIdentifier = null;
                 }
         }
@@ -140,21 +284,35 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterPropertyValueInteger (CandleParser.PropertyValueIntegerContext ctx) {
-                int value = Integer.decode (ctx.getText ());
+                long value = this.decodeLong (ctx.start, false);
+
+                // integers which exceed the 32-bit range are promoted to long values
+                if (value != ((int) value)) {
+                        this.appendLong (value);
+                        return;
+                }
 
-                if (this.arrayContent != null) { this.arrayContent.add (value); } else {
-                        this.objectNodeStack.peek ().append (new IntegerPropertyNode (this.candle, this.lastIdentifier, value));
+                if (this.arrayContent != null) { this.arrayContent.addInteger (((int) value)); } else {
+                        this.append (new IntegerPropertyNode (this.candle, this.lastIdentifier, ((int) value)));
                         this.lastIdentifier = null;
                 }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void enterPropertyValueLong (CandleParser.PropertyValueLongContext ctx) {
+                this.appendLong (this.decodeLong (ctx.start, true));
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public void enterPropertyValueNull (CandleParser.PropertyValueNullContext ctx) {
-                if (this.arrayContent != null) { this.arrayContent.add (null); } else {
-                        this.objectNodeStack.peek ().append (new NullPropertyNode (this.candle, this.lastIdentifier));
+                if (this.arrayContent != null) { this.arrayContent.addNull (); } else {
+                        this.append (new NullPropertyNode (this.candle, this.lastIdentifier));
                         this.lastIdentifier = null;
                 }
         }
@@ -164,102 +322,298 @@ public class CandleListener extends CandleParserBaseListener {
          */
         @Override
         public void enterPropertyValueString (CandleParser.PropertyValueStringContext ctx) {
-                String value = ctx.getText ().substring (1);
-                value = value.substring (0, value.length () - 1);
+                String value = this.decodeString (ctx.start);
 
-                if (this.arrayContent != null) { this.arrayContent.add (value); } else {
-                        this.objectNodeStack.peek ().append (new StringPropertyNode (this.candle, this.lastIdentifier, value));
+                if (this.arrayContent != null) { this.arrayContent.addString (value); } else {
+                        this.append (new StringPropertyNode (this.candle, this.lastIdentifier, value));
                         this.lastIdentifier = null;
                 }
         }
 
         /**
-         * {@inheritDoc}
+         * Appends a long value to the current array or object.
+         *
+         * @param value The value.
          */
-        @Override
-        public void exitObject (CandleParser.ObjectContext ctx) {
-                this.objectNodeStack.pop ();
+        private void appendLong (long value) {
+                if (this.arrayContent != null) { this.arrayContent.addLong (value); } else {
+                        this.append (new LongPropertyNode (this.candle, this.lastIdentifier, value));
+                        this.lastIdentifier = null;
+                }
         }
 
         /**
-         * {@inheritDoc}
+         * Appends a node to the current object or passes it on to the handler.
+         *
+         * @param node The node.
          */
-        @Override
-        public void exitPropertyValueArray (CandleParser.PropertyValueArrayContext ctx) {
-                List<Object> arrayContent = this.arrayContent;
-                this.arrayContent = null;
+        private void append (@Nonnull INode node) {
+                if (this.handler != null) {
+                        this.dispatch (() -> this.handler.onNode (node));
+                        return;
+                }
+
+                this.objectNodeStack.peek ().append (node);
+        }
 
-                Object firstSaneValue = null;
-                Iterator<Object> arrayContentIterator = arrayContent.iterator ();
-                while (arrayContentIterator.hasNext () && firstSaneValue == null) {
-                        firstSaneValue = arrayContentIterator.next ();
+        /**
+         * Passes an event on to the handler.
+         *
+         * @param event The event.
+         * @throws java.io.UncheckedIOException when the handler fails.
+         */
+        private void dispatch (@Nonnull Event event) {
+                try {
+                        event.fire ();
+                } catch (IOException ex) {
+                        throw new UncheckedIOException (ex);
                 }
+        }
 
-                if (firstSaneValue == null) {
-                        this.objectNodeStack.peek ().append (new NullArrayPropertyNode (this.candle, this.lastIdentifier));
-                } else if (firstSaneValue.getClass ().equals (Boolean.class)) {
-                        this.objectNodeStack.peek ().append (new BooleanArrayPropertyNode (this.candle, this.lastIdentifier, this.getArrayContents (arrayContent, Boolean.class, () -> false)));
-                } else if (firstSaneValue.getClass ().equals (EnumWrapper.class)) {
-                        String[] values = Arrays.stream (this.getArrayContents (arrayContent, EnumWrapper.class)).map ((e) -> {
-                                if (e == null) { return null; }
-                                return e.name;
-                        }).toArray (String[]::new);
-
-                        this.objectNodeStack.peek ().append (new EnumArrayPropertyNode (this.candle, this.lastIdentifier, values));
-                } else if (firstSaneValue.getClass ().equals (Float.class)) {
-                        this.objectNodeStack.peek ().append (new FloatArrayPropertyNode (this.candle, this.lastIdentifier, this.getArrayContents (arrayContent, Float.class, () -> 0.0f)));
-                } else if (firstSaneValue.getClass ().equals (Integer.class)) {
-                        this.objectNodeStack.peek ().append (new IntegerArrayPropertyNode (this.candle, this.lastIdentifier, this.getArrayContents (arrayContent, Integer.class, () -> 0)));
-                } else if (firstSaneValue.getClass ().equals (String.class)) {
-                        this.objectNodeStack.peek ().append (new StringArrayPropertyNode (this.candle, this.lastIdentifier, this.getArrayContents (arrayContent, String.class)));
-                } else {
-                        throw new RuntimeException (new CandleParserException ("Cannot handle array element of type " + firstSaneValue.getClass ().getCanonicalName ()));
+        /**
+         * Decodes a double literal token.
+         *
+         * @param token The token.
+         * @return The value.
+         */
+        private double decodeDouble (@Nonnull Token token) {
+                this.locate (token);
+
+                try {
+                        return this.numberParser.parseDouble (this.tokenData, this.tokenOffset, this.tokenLength);
+                } catch (NumberFormatException ex) {
+                        this.invalidLiteral (token, ex);
+                        return 0;
+                }
+        }
+
+        /**
+         * Decodes a float literal token.
+         *
+         * @param token The token.
+         * @return The value.
+         */
+        private float decodeFloat (@Nonnull Token token) {
+                this.locate (token);
+
+                try {
+                        return this.numberParser.parseFloat (this.tokenData, this.tokenOffset, this.tokenLength);
+                } catch (NumberFormatException ex) {
+                        this.invalidLiteral (token, ex);
+                        return 0;
                 }
         }
 
         /**
-         * Retrieves the array contents.
+         * Decodes a decimal or hexadecimal integer literal token.
          *
-         * @param objects The array list.
-         * @param type    The expected array type.
-         * @param <R>     The expected array type.
-         * @return The array.
+         * @param token  The token.
+         * @param suffix Indicates whether the literal carries a type suffix.
+         * @return The value.
+         */
+        private long decodeLong (@Nonnull Token token, boolean suffix) {
+                this.locate (token);
+
+                try {
+                        return NumberParser.parseLong (this.tokenData, this.tokenOffset, (suffix ? this.tokenLength - 1 : this.tokenLength));
+                } catch (NumberFormatException ex) {
+                        this.invalidLiteral (token, ex);
+                        return 0;
+                }
+        }
+
+        /**
+         * Decodes an identifier token.
+         * When name interning is enabled, the canonical instance of the name is returned.
+         *
+         * @param token The token.
+         * @return The name.
          */
         @Nonnull
-        protected <R> R[] getArrayContents (@Nonnull List<Object> objects, @Nonnull Class<R> type) {
-                return this.getArrayContents (objects, type, () -> null);
+        private String decodeName (@Nonnull Token token) {
+                this.checkLength (token, length (token));
+                if (this.nameTable == null) { return token.getText (); }
+
+                this.locate (token);
+                return this.nameTable.intern (this.tokenData, this.tokenOffset, this.tokenLength);
         }
 
         /**
-         * Retrieves the array contents.
+         * Decodes a string literal token.
          *
-         * @param objects The array list.
-         * @param type    The expected array type.
-         * @param ifNull  The supplier for null values.
-         * @param <R>     The expected array type.
-         * @return The array.
+         * @param token The token.
+         * @return The value.
          */
         @Nonnull
-        @SuppressWarnings ("unchecked")
-        protected <R> R[] getArrayContents (@Nonnull List<Object> objects, @Nonnull Class<R> type, @Nonnull Supplier<R> ifNull) {
-                // @formatter:off
-                return objects.stream ()
-                              .map ((o) -> {
-                                      if (o != null && !type.isAssignableFrom (o.getClass ())) throw new IllegalStateException ("Could not decode array contents: Expected element of type " + type.getCanonicalName () + " but got " + o.getClass ().getCanonicalName ());
-                                      return (o == null ? ifNull.get () : o);
-                              })
-                              .toArray ((i) -> ((R[]) Array.newInstance (type, i)));
-                // @formatter:on
+        private String decodeString (@Nonnull Token token) {
+                // escape sequences only ever shrink a literal which permits rejecting it before it is decoded
+                this.checkLength (token, (length (token) - 2));
+                this.locate (token);
+
+                String value;
+
+                try {
+                        value = StringLiterals.decode (this.tokenData, this.tokenOffset, this.tokenLength);
+                } catch (IllegalArgumentException ex) {
+                        this.invalidLiteral (token, ex);
+                        return "";
+                }
+
+                return value;
+        }
+
+        /**
+         * Reports a literal which could not be decoded.
+         *
+         * @param token The token.
+         * @param cause The cause.
+         */
+        private void invalidLiteral (@Nonnull Token token, @Nonnull Exception cause) {
+                this.report (token, "Invalid literal: " + cause.getMessage (), cause);
+        }
+
+        /**
+         * Reports an error which is positioned at a token.
+         * When errors are collected, a stackless exception is recorded and processing continues. Otherwise the error is
+         * thrown immediately.
+         *
+         * @param token   The token.
+         * @param message The message.
+         * @param cause   The cause (if any).
+         */
+        private void report (@Nonnull Token token, @Nonnull String message, @Nullable Exception cause) {
+                if (this.diagnostics == null) {
+                        throw new RuntimeException (new CandleParserException (token.getLine (), token.getCharPositionInLine (), message, cause));
+                }
+
+                this.diagnostics.add (new CandleParserException (token.getLine (), token.getCharPositionInLine (), message, cause, false));
+        }
+
+        /**
+         * Reports an error which prevents any further processing (such as an exceeded limit).
+         *
+         * @param token   The token.
+         * @param message The message.
+         * @return The exception to throw.
+         */
+        @Nonnull
+        private RuntimeException abort (@Nonnull Token token, @Nonnull String message) {
+                this.report (token, message, null);
+                return new AbortException ();
+        }
+
+        /**
+         * Counts a node against the node limit.
+         *
+         * @param token The first token of the node.
+         */
+        private void countNode (@Nonnull Token token) {
+                if (this.maximumNodes != 0 && ++this.nodeCount > this.maximumNodes) {
+                        throw this.abort (token, "Document exceeds the maximum of " + this.maximumNodes + " nodes");
+                }
+        }
+
+        /**
+         * Checks a name, comment or string length against the string length limit.
+         *
+         * @param token  The token.
+         * @param length The length.
+         */
+        private void checkLength (@Nonnull Token token, int length) {
+                if (this.maximumStringLength != 0 && length > this.maximumStringLength) {
+                        throw this.abort (token, "String exceeds the maximum length of " + this.maximumStringLength + " characters");
+                }
+        }
+
+        /**
+         * Computes the length of a token without retrieving its text.
+         *
+         * @param token The token.
+         * @return The length.
+         */
+        private static int length (@Nonnull Token token) {
+                return (token.getStopIndex () - token.getStartIndex () + 1);
+        }
+
+        /**
+         * Locates the characters of a token.
+         * When the token originates from a {@link com.torchmind.candle.antlr.CandleInputStream}, its characters are
+         * read straight from the input buffer. Otherwise the token text is copied.
+         *
+         * @param token The token.
+         */
+        private void locate (@Nonnull Token token) {
+                CharStream inputStream = token.getInputStream ();
+
+                if (inputStream instanceof CandleInputStream) {
+                        this.tokenData = ((CandleInputStream) inputStream).data ();
+                        this.tokenOffset = token.getStartIndex ();
+                        this.tokenLength = (token.getStopIndex () - token.getStartIndex () + 1);
+                        return;
+                }
+
+                String text = token.getText ();
+                this.tokenData = text.toCharArray ();
+                this.tokenOffset = 0;
+                this.tokenLength = text.length ();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void enterObjectEnd (CandleParser.ObjectEndContext ctx) {
+                if (this.objectTokenStack.isEmpty ()) {
+                        this.report (ctx.start, "Unexpected closing brace", null);
+                        return;
+                }
+
+                this.objectNodeStack.pop ();
+                this.objectTokenStack.pop ();
+
+                if (this.handler != null) { this.dispatch (this.handler::onEndObject); }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void exitCandle (CandleParser.CandleContext ctx) {
+                for (int i = (this.objectTokenStack.size () - 1); i >= 0; i--) {
+                        Token token = this.objectTokenStack.get (i);
+                        this.report (token, "Object \"" + token.getText () + "\" is never closed", null);
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void exitPropertyValueArray (CandleParser.PropertyValueArrayContext ctx) {
+                ArrayBuffer arrayContent = this.arrayContent;
+                this.arrayContent = null;
+                this.floatLiterals.clear ();
+
+                this.append (arrayContent.build (this.candle, this.lastIdentifier));
+                this.lastIdentifier = null;
+        }
+
+        /**
+         * Represents a single handler invocation.
+         */
+        @FunctionalInterface
+        private interface Event {
+                void fire () throws IOException;
         }
 
         /**
-         * Represents enum values within array stacks.
+         * Indicates that processing of a document has been aborted after its cause has been collected.
          */
-        private static class EnumWrapper {
-                public String name;
+        static final class AbortException extends RuntimeException {
+                private static final long serialVersionUID = 1L;
 
-                public EnumWrapper (@Nonnull String name) {
-                        this.name = name;
+                AbortException () {
+                        super (null, null, false, false);
                 }
         }
 }
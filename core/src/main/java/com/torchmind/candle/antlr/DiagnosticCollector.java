@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.antlr;
+
+import com.torchmind.candle.api.error.CandleException;
+import com.torchmind.candle.api.error.CandleLexerException;
+import com.torchmind.candle.api.error.CandleParserException;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Provides an error listener which records lexer and parser errors as stackless exceptions instead of failing.
+ *
+ * @author Johannes Donath
+ */
+public class DiagnosticCollector extends BaseErrorListener {
+        private final List<CandleException> diagnostics;
+
+        public DiagnosticCollector (@Nonnull List<CandleException> diagnostics) {
+                this.diagnostics = diagnostics;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void syntaxError (Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException ex) {
+                if (recognizer instanceof Lexer) {
+                        this.diagnostics.add (new CandleLexerException (line, charPositionInLine, msg, false));
+                        return;
+                }
+
+                this.diagnostics.add (new CandleParserException (line, charPositionInLine, msg, null, false));
+        }
+}
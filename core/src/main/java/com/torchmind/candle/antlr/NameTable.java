@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.antlr;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Maps character sequences to canonical string instances.
+ *
+ * Lookups operate on the character buffer directly and thus only allocate a string when a name is encountered for the
+ * first time.
+ *
+ * @author Johannes Donath
+ */
+class NameTable {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private String[] entries = new String[INITIAL_CAPACITY];
+        private int size = 0;
+
+        /**
+         * Retrieves the canonical instance of a name.
+         *
+         * @param data   The character buffer.
+         * @param offset The name offset.
+         * @param length The name length.
+         * @return The canonical string.
+         */
+        @Nonnull
+        public String intern (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) {
+                int hash = 0;
+                for (int i = offset; i < (offset + length); i++) { hash = (31 * hash + data[i]); }
+
+                int mask = (this.entries.length - 1);
+                int index = (hash & mask);
+                String entry;
+
+                while ((entry = this.entries[index]) != null) {
+                        if (entry.hashCode () == hash && matches (entry, data, offset, length)) { return entry; }
+                        index = ((index + 1) & mask);
+                }
+
+                entry = new String (data, offset, length);
+                this.entries[index] = entry;
+
+                if (++this.size > (this.entries.length / 2)) { this.grow (); }
+                return entry;
+        }
+
+        /**
+         * Checks whether a string consists of the exact same characters as a section of a buffer.
+         */
+        private static boolean matches (@Nonnull String entry, @Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) {
+                if (entry.length () != length) { return false; }
+
+                for (int i = 0; i < length; i++) {
+                        if (entry.charAt (i) != data[offset + i]) { return false; }
+                }
+
+                return true;
+        }
+
+        /**
+         * Doubles the table capacity.
+         */
+        private void grow () {
+                String[] entries = new String[(this.entries.length * 2)];
+                int mask = (entries.length - 1);
+
+                for (String entry : this.entries) {
+                        if (entry == null) { continue; }
+
+                        int index = (entry.hashCode () & mask);
+                        while (entries[index] != null) { index = ((index + 1) & mask); }
+                        entries[index] = entry;
+                }
+
+                this.entries = entries;
+        }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.antlr;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Decodes numeric literals straight from a character buffer.
+ *
+ * Integers are decoded without any intermediate allocations. Floating point numbers are decoded using the exact fast
+ * path (e.g. when both the significand and the power of ten are exactly representable, a single multiplication or
+ * division yields the correctly rounded result) and fall back to the JDK implementation for all other values.
+ *
+ * Instances retain the state of the last decoded floating point literal and thus are not safe for use by multiple
+ * threads.
+ *
+ * @author Johannes Donath
+ */
+public final class NumberParser {
+        private static final double[] DOUBLE_POWERS = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+        private static final float[] FLOAT_POWERS = {
+                1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+        };
+        private static final int MAXIMUM_DIGITS = 18;
+
+        private boolean negative;
+        private long significand;
+        private int exponent;
+
+        /**
+         * Decodes a decimal or hexadecimal ({@code 0x} prefixed) integer literal.
+         *
+         * @param data   The character buffer.
+         * @param offset The literal offset.
+         * @param length The literal length (excluding any type suffix).
+         * @return The value.
+         *
+         * @throws java.lang.NumberFormatException when the literal is malformed or exceeds the 64-bit range.
+         */
+        public static long parseLong (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) throws NumberFormatException {
+                int end = (offset + length);
+                int i = offset;
+
+                if (length > 2 && data[i] == '0' && (data[i + 1] == 'x' || data[i + 1] == 'X')) {
+                        long value = 0;
+
+                        for (i += 2; i < end; i++) {
+                                int digit = Character.digit (data[i], 16);
+                                if (digit == -1) { throw malformed (data, offset, length); }
+                                if ((value >>> 59) != 0) { throw overflow (data, offset, length); }
+
+                                value = ((value << 4) | digit);
+                        }
+
+                        return value;
+                }
+
+                boolean negative = (i < end && data[i] == '-');
+                if (negative) { i++; }
+                if (i == end) { throw malformed (data, offset, length); }
+
+                // accumulate negatively in order to support Long.MIN_VALUE
+                long value = 0;
+                for (; i < end; i++) {
+                        int digit = (data[i] - '0');
+                        if (digit < 0 || digit > 9) { throw malformed (data, offset, length); }
+                        if (value < (Long.MIN_VALUE / 10)) { throw overflow (data, offset, length); }
+
+                        value *= 10;
+                        if (value < (Long.MIN_VALUE + digit)) { throw overflow (data, offset, length); }
+                        value -= digit;
+                }
+
+                if (negative) { return value; }
+                if (value == Long.MIN_VALUE) { throw overflow (data, offset, length); }
+                return -value;
+        }
+
+        /**
+         * Decodes a floating point literal at double precision.
+         * A trailing type suffix ({@code d}, {@code D}, {@code f} or {@code F}) is permitted.
+         *
+         * @param data   The character buffer.
+         * @param offset The literal offset.
+         * @param length The literal length.
+         * @return The value.
+         *
+         * @throws java.lang.NumberFormatException when the literal is malformed.
+         */
+        public double parseDouble (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) throws NumberFormatException {
+                if (this.decompose (data, offset, length)) {
+                        if (this.significand == 0) { return (this.negative ? -0.0 : 0.0); }
+
+                        if (this.significand <= (1L << 53) && Math.abs (this.exponent) < DOUBLE_POWERS.length) {
+                                double value = this.significand;
+                                value = (this.exponent < 0 ? value / DOUBLE_POWERS[-this.exponent] : value * DOUBLE_POWERS[this.exponent]);
+                                return (this.negative ? -value : value);
+                        }
+                }
+
+                return Double.parseDouble (new String (data, offset, length));
+        }
+
+        /**
+         * Decodes a floating point literal at single precision.
+         * A trailing type suffix ({@code d}, {@code D}, {@code f} or {@code F}) is permitted.
+         *
+         * @param data   The character buffer.
+         * @param offset The literal offset.
+         * @param length The literal length.
+         * @return The value.
+         *
+         * @throws java.lang.NumberFormatException when the literal is malformed.
+         */
+        public float parseFloat (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) throws NumberFormatException {
+                if (this.decompose (data, offset, length)) {
+                        if (this.significand == 0) { return (this.negative ? -0.0f : 0.0f); }
+
+                        if (this.significand <= (1L << 24) && Math.abs (this.exponent) < FLOAT_POWERS.length) {
+                                float value = this.significand;
+                                value = (this.exponent < 0 ? value / FLOAT_POWERS[-this.exponent] : value * FLOAT_POWERS[this.exponent]);
+                                return (this.negative ? -value : value);
+                        }
+                }
+
+                return Float.parseFloat (new String (data, offset, length));
+        }
+
+        /**
+         * Creates an exception for malformed literals.
+         */
+        @Nonnull
+        private static NumberFormatException malformed (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) {
+                return new NumberFormatException ("Malformed numeric literal: " + new String (data, offset, length));
+        }
+
+        /**
+         * Creates an exception for literals which exceed the 64-bit range.
+         */
+        @Nonnull
+        private static NumberFormatException overflow (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) {
+                return new NumberFormatException ("Integer literal exceeds the 64-bit range: " + new String (data, offset, length));
+        }
+
+        /**
+         * Splits a floating point literal into its sign, significand and power of ten.
+         *
+         * @param data   The character buffer.
+         * @param offset The literal offset.
+         * @param length The literal length.
+         * @return True if the literal is well formed and its significand is representable without loss of precision.
+         */
+        private boolean decompose (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) {
+                int end = (offset + length);
+                int i = offset;
+
+                if (i < end) {
+                        char last = data[end - 1];
+                        if (last == 'd' || last == 'D' || last == 'f' || last == 'F') { end--; }
+                }
+
+                boolean negative = (i < end && data[i] == '-');
+                if (negative) { i++; }
+
+                long significand = 0;
+                int digits = 0;
+                int exponent = 0;
+                boolean anyDigit = false;
+
+                for (; i < end && data[i] >= '0' && data[i] <= '9'; i++) {
+                        anyDigit = true;
+                        if (significand == 0 && data[i] == '0') { continue; }
+                        if (++digits > MAXIMUM_DIGITS) { return false; }
+                        significand = (significand * 10 + (data[i] - '0'));
+                }
+
+                if (i < end && data[i] == '.') {
+                        for (i++; i < end && data[i] >= '0' && data[i] <= '9'; i++) {
+                                anyDigit = true;
+                                exponent--;
+                                if (significand == 0 && data[i] == '0') { continue; }
+                                if (++digits > MAXIMUM_DIGITS) { return false; }
+                                significand = (significand * 10 + (data[i] - '0'));
+                        }
+                }
+
+                if (!anyDigit) { return false; }
+
+                if (i < end && (data[i] == 'e' || data[i] == 'E')) {
+                        i++;
+
+                        boolean negativeExponent = false;
+                        if (i < end && (data[i] == '-' || data[i] == '+')) { negativeExponent = (data[i++] == '-'); }
+                        if (i == end) { return false; }
+
+                        int explicitExponent = 0;
+                        for (; i < end && data[i] >= '0' && data[i] <= '9'; i++) {
+                                // exponents of this magnitude are out of range for the fast path either way
+                                if (explicitExponent > 10000) { return false; }
+                                explicitExponent = (explicitExponent * 10 + (data[i] - '0'));
+                        }
+
+                        exponent += (negativeExponent ? -explicitExponent : explicitExponent);
+                }
+
+                if (i != end) { return false; }
+
+                this.negative = negative;
+                this.significand = significand;
+                this.exponent = exponent;
+                return true;
+        }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.antlr;
+
+import com.torchmind.candle.Candle;
+import com.torchmind.candle.ICandleHandler;
+import com.torchmind.candle.ParseOptions;
+import com.torchmind.candle.api.error.CandleException;
+import com.torchmind.candle.api.error.CandleLexerException;
+import com.torchmind.candle.api.error.CandleParserException;
+import org.antlr.v4.runtime.ANTLRErrorStrategy;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenFactory;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Drives the lexer and parser for a single thread.
+ *
+ * Documents are parsed using the SLL prediction mode first which is considerably faster but may fail for some inputs
+ * which are valid under full LL prediction. When the first stage fails, the document is reset and parsed again using
+ * full LL prediction and regular error reporting. Since the grammar is SLL compatible for all valid inputs, the second
+ * stage is usually only entered for erroneous documents.
+ *
+ * No parse tree is built. Instead, the listener is notified while parsing.
+ *
+ * @author Johannes Donath
+ */
+public class ParseEngine {
+        private static final ThreadLocal<ParseEngine> ENGINE = ThreadLocal.withInitial (ParseEngine::new);
+        private static final CommonTokenFactory COPYING_TOKEN_FACTORY = new CommonTokenFactory (true);
+
+        private final FilteringLexer lexer;
+        private final ReusableTokenStream tokenStream;
+        private final CandleParser parser;
+        private final BailErrorStrategy bailErrorStrategy = new BailErrorStrategy ();
+        private final ParserErrorStrategy errorStrategy = new ParserErrorStrategy ();
+        private final DefaultErrorStrategy recoveringErrorStrategy = new DefaultErrorStrategy ();
+        private final LexerErrorListener lexerErrorListener = new LexerErrorListener ();
+        private boolean active = false;
+
+        protected ParseEngine () {
+                this.lexer = new FilteringLexer ();
+                this.lexer.removeErrorListeners ();
+                this.lexer.addErrorListener (this.lexerErrorListener);
+
+                this.tokenStream = new ReusableTokenStream (this.lexer);
+
+                this.parser = new CandleParser (null);
+                this.parser.removeErrorListeners ();
+                this.parser.setBuildParseTree (false);
+
+                this.lexer.parser = this.parser;
+        }
+
+        /**
+         * Parses a document using the engine of the calling thread.
+         *
+         * @param candle      The document to populate.
+         * @param options     The parse options.
+         * @param inputStream The input stream.
+         * @throws java.lang.RuntimeException when lexing or parsing fails (wrapping a {@link com.torchmind.candle.api.error.CandleException}).
+         */
+        public static void parse (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nonnull CharStream inputStream) {
+                ParseEngine engine = ENGINE.get ();
+
+                // a document is read while another document is being processed on the same thread
+                if (engine.active) { engine = new ParseEngine (); }
+
+                engine.run (candle, options, inputStream);
+        }
+
+        /**
+         * Validates a document using the engine of the calling thread.
+         *
+         * @param candle      The document to populate.
+         * @param options     The parse options.
+         * @param inputStream The input stream.
+         * @return The errors in order of their position within the document (empty if the document is valid).
+         */
+        @Nonnull
+        public static List<CandleException> validate (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nonnull CharStream inputStream) {
+                ParseEngine engine = ENGINE.get ();
+                if (engine.active) { engine = new ParseEngine (); }
+
+                return engine.runValidation (candle, options, inputStream);
+        }
+
+        /**
+         * Parses a document and passes its contents on to a handler using the engine of the calling thread.
+         *
+         * @param candle      The document which owns the reported nodes.
+         * @param options     The parse options.
+         * @param inputStream The input stream.
+         * @param handler     The handler.
+         * @throws java.lang.RuntimeException when lexing or parsing fails (wrapping a {@link com.torchmind.candle.api.error.CandleException}).
+         * @throws java.io.UncheckedIOException when the handler fails.
+         */
+        public static void stream (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nonnull CharStream inputStream, @Nonnull ICandleHandler handler) {
+                ParseEngine engine = ENGINE.get ();
+                if (engine.active) { engine = new ParseEngine (); }
+
+                engine.runStreaming (candle, options, inputStream, handler);
+        }
+
+        /**
+         * Parses a document.
+         *
+         * @param candle      The document to populate.
+         * @param options     The parse options.
+         * @param inputStream The input stream.
+         */
+        protected void run (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nonnull CharStream inputStream) {
+                this.active = true;
+
+                try {
+                        this.lexer.discardComments = options.discardComments ();
+                        this.lexer.maximumStringLength = options.maximumStringLength ();
+                        this.lexer.setInputStream (inputStream);
+                        this.tokenStream.setTokenSource (this.lexer);
+                        this.parser.setTokenStream (this.tokenStream);
+
+                        try {
+                                this.parse (candle, new CandleListener (candle, options), PredictionMode.SLL, this.bailErrorStrategy);
+                        } catch (ParseCancellationException ex) {
+                                this.parser.reset ();
+                                this.parse (candle, new CandleListener (candle, options), PredictionMode.LL, this.errorStrategy);
+                        }
+                } finally {
+                        this.parser.removeParseListeners ();
+                        this.lexer.setInputStream (null);
+                        this.tokenStream.setTokenSource (this.lexer);
+
+                        this.active = false;
+                }
+        }
+
+        /**
+         * Parses a document in a single pass while passing its contents on to a handler.
+         *
+         * Tokens are not buffered and their text is copied from the input as they are created which permits the use of
+         * unbuffered input streams. Since events cannot be retracted once they have been passed on, the document is
+         * parsed using full LL prediction right away.
+         *
+         * @param candle      The document which owns the reported nodes.
+         * @param options     The parse options.
+         * @param inputStream The input stream.
+         * @param handler     The handler.
+         */
+        protected void runStreaming (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nonnull CharStream inputStream, @Nonnull ICandleHandler handler) {
+                this.active = true;
+
+                try {
+                        this.lexer.discardComments = options.discardComments ();
+                        this.lexer.maximumStringLength = options.maximumStringLength ();
+                        this.lexer.setInputStream (inputStream);
+                        this.lexer.setTokenFactory (COPYING_TOKEN_FACTORY);
+                        this.parser.setTokenStream (new UnbufferedTokenStream<> (this.lexer));
+
+                        this.parse (candle, new CandleListener (candle, options, handler), PredictionMode.LL, this.errorStrategy);
+                } finally {
+                        this.parser.removeParseListeners ();
+                        this.lexer.setTokenFactory (CommonTokenFactory.DEFAULT);
+                        this.lexer.setInputStream (null);
+                        this.tokenStream.setTokenSource (this.lexer);
+                        this.parser.setTokenStream (this.tokenStream);
+
+                        this.active = false;
+                }
+        }
+
+        /**
+         * Validates a document.
+         * Lexer and parser errors are recovered from and collected along with any semantic errors. Limit violations
+         * are collected as well but end processing of the document.
+         *
+         * @param candle      The document to populate.
+         * @param options     The parse options.
+         * @param inputStream The input stream.
+         * @return The errors.
+         */
+        @Nonnull
+        protected List<CandleException> runValidation (@Nonnull Candle candle, @Nonnull ParseOptions options, @Nonnull CharStream inputStream) {
+                this.active = true;
+
+                // lexer errors are kept across both stages since tokens are only produced once
+                List<CandleException> lexerDiagnostics = new ArrayList<> ();
+                List<CandleException> diagnostics = new ArrayList<> ();
+
+                try {
+                        this.lexer.removeErrorListeners ();
+                        this.lexer.addErrorListener (new DiagnosticCollector (lexerDiagnostics));
+                        this.lexer.diagnostics = lexerDiagnostics;
+
+                        this.lexer.discardComments = options.discardComments ();
+                        this.lexer.maximumStringLength = options.maximumStringLength ();
+                        this.lexer.setInputStream (inputStream);
+                        this.tokenStream.setTokenSource (this.lexer);
+                        this.parser.setTokenStream (this.tokenStream);
+
+                        try {
+                                this.parse (candle, new CandleListener (candle, options, diagnostics), PredictionMode.SLL, this.bailErrorStrategy);
+                        } catch (ParseCancellationException ex) {
+                                diagnostics.clear ();
+                                this.parser.reset ();
+                                this.parser.addErrorListener (new DiagnosticCollector (diagnostics));
+                                this.parse (candle, new CandleListener (candle, options, diagnostics), PredictionMode.LL, this.recoveringErrorStrategy);
+                        }
+                } catch (CandleListener.AbortException ignore) {
+                } finally {
+                        this.parser.removeParseListeners ();
+                        this.parser.removeErrorListeners ();
+                        this.lexer.removeErrorListeners ();
+                        this.lexer.addErrorListener (this.lexerErrorListener);
+                        this.lexer.diagnostics = null;
+                        this.lexer.setInputStream (null);
+                        this.tokenStream.setTokenSource (this.lexer);
+
+                        this.active = false;
+                }
+
+                diagnostics.addAll (lexerDiagnostics);
+                diagnostics.sort (Comparator.comparingInt (ParseEngine::line).thenComparingInt (ParseEngine::offset));
+                return diagnostics;
+        }
+
+        /**
+         * Executes a single parse stage.
+         *
+         * @param candle         The document to populate.
+         * @param listener       The listener.
+         * @param predictionMode The prediction mode.
+         * @param errorStrategy  The error strategy.
+         */
+        private void parse (@Nonnull Candle candle, @Nonnull CandleListener listener, @Nonnull PredictionMode predictionMode, @Nonnull ANTLRErrorStrategy errorStrategy) {
+                candle.clear ();
+
+                this.parser.removeParseListeners ();
+                this.parser.addParseListener (listener);
+                this.parser.getInterpreter ().setPredictionMode (predictionMode);
+                this.parser.setErrorHandler (errorStrategy);
+                errorStrategy.reset (this.parser);
+
+                this.parser.candle ();
+        }
+
+        /**
+         * Retrieves the line of a collected error.
+         */
+        private static int line (@Nonnull CandleException ex) {
+                if (ex instanceof CandleParserException) { return ((CandleParserException) ex).line (); }
+                if (ex instanceof CandleLexerException) { return ((CandleLexerException) ex).line (); }
+                return -1;
+        }
+
+        /**
+         * Retrieves the offset of a collected error.
+         */
+        private static int offset (@Nonnull CandleException ex) {
+                if (ex instanceof CandleParserException) { return ((CandleParserException) ex).offset (); }
+                if (ex instanceof CandleLexerException) { return ((CandleLexerException) ex).offset (); }
+                return -1;
+        }
+
+        /**
+         * Provides a token stream which may be reused with a new token source.
+         */
+        private static class ReusableTokenStream extends CommonTokenStream {
+
+                public ReusableTokenStream (@Nonnull TokenSource tokenSource) {
+                        super (tokenSource);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void setTokenSource (TokenSource tokenSource) {
+                        super.setTokenSource (tokenSource);
+                        this.fetchedEOF = false;
+                }
+        }
+
+        /**
+         * Provides a lexer which optionally drops comment tokens before they reach the parser and rejects names,
+         * comments and string literals which exceed the string length limit before their token is created.
+         */
+        private static class FilteringLexer extends CandleLexer {
+                private boolean discardComments = false;
+                private int maximumStringLength = 0;
+                private List<CandleException> diagnostics = null;
+                private Parser parser = null;
+
+                public FilteringLexer () {
+                        super (null);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Token nextToken () {
+                        Token token = super.nextToken ();
+                        if (!this.discardComments) { return token; }
+
+                        while (token.getType () == COMMENT || token.getType () == COMMENT_LINE) {
+                                token = super.nextToken ();
+                        }
+
+                        return token;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Token emit () {
+                        if (this.maximumStringLength != 0) {
+                                int length = (this.getCharIndex () - this._tokenStartCharIndex - delimiters (this._type));
+
+                                if (length > this.maximumStringLength) {
+                                        String message = "String exceeds the maximum length of " + this.maximumStringLength + " characters";
+
+                                        // the parser is unwound by this exception and would otherwise notify its
+                                        // listeners of every rule exit (reporting any objects which are still open)
+                                        this.parser.removeParseListeners ();
+
+                                        if (this.diagnostics == null) {
+                                                throw new RuntimeException (new CandleParserException (this._tokenStartLine, this._tokenStartCharPositionInLine, message, null));
+                                        }
+
+                                        this.diagnostics.add (new CandleParserException (this._tokenStartLine, this._tokenStartCharPositionInLine, message, null, false));
+                                        throw new CandleListener.AbortException ();
+                                }
+                        }
+
+                        return super.emit ();
+                }
+
+                /**
+                 * Retrieves the amount of delimiting characters of a token type which are not counted against the
+                 * string length limit.
+                 *
+                 * @param type The token type.
+                 * @return The amount of delimiting characters ({@link Integer#MAX_VALUE} if the type is not limited).
+                 */
+                private static int delimiters (int type) {
+                        switch (type) {
+                                case IDENTIFIER:
+                                        return 0;
+                                case COMMENT_LINE:
+                                case STRING_LITERAL:
+                                        return 2;
+                                case COMMENT:
+                                        return 4;
+                                default:
+                                        return Integer.MAX_VALUE;
+                        }
+                }
+        }
+}
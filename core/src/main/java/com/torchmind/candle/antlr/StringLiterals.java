@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.antlr;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Provides utility methods for decoding string literals.
+ *
+ * @author Johannes Donath
+ */
+public final class StringLiterals {
+
+        private StringLiterals () {
+        }
+
+        /**
+         * Decodes a quoted string literal.
+         *
+         * @param literal The literal (including its quotes).
+         * @return The decoded value.
+         *
+         * @throws java.lang.IllegalArgumentException when the literal contains an invalid escape sequence.
+         */
+        @Nonnull
+        public static String decode (@Nonnull String literal) throws IllegalArgumentException {
+                return decode (literal.toCharArray (), 0, literal.length ());
+        }
+
+        /**
+         * Decodes a quoted string literal.
+         *
+         * @param data   The character buffer.
+         * @param offset The offset of the opening quote.
+         * @param length The literal length (including its quotes).
+         * @return The decoded value.
+         *
+         * @throws java.lang.IllegalArgumentException when the literal contains an invalid escape sequence.
+         */
+        @Nonnull
+        public static String decode (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) throws IllegalArgumentException {
+                return unescape (data, (offset + 1), (length - 2));
+        }
+
+        /**
+         * Replaces all escape sequences within a range of characters in a single pass.
+         * Ranges without escape sequences are copied into the resulting string as is.
+         *
+         * @param data   The character buffer.
+         * @param offset The offset.
+         * @param length The length.
+         * @return The unescaped value.
+         *
+         * @throws java.lang.IllegalArgumentException when the range contains an invalid escape sequence.
+         */
+        @Nonnull
+        public static String unescape (@Nonnull char[] data, @Nonnegative int offset, @Nonnegative int length) throws IllegalArgumentException {
+                int end = (offset + length);
+                int i = offset;
+
+                while (i < end && data[i] != '\\') { i++; }
+                if (i == end) { return new String (data, offset, length); }
+
+                // escape sequences only ever shrink the value so the input length is a sufficient upper bound
+                char[] buffer = new char[length];
+                int position = (i - offset);
+                System.arraycopy (data, offset, buffer, 0, position);
+
+                while (i < end) {
+                        char current = data[i++];
+
+                        if (current != '\\') {
+                                buffer[position++] = current;
+                                continue;
+                        }
+
+                        if (i == end) { throw new IllegalArgumentException ("Unterminated escape sequence"); }
+
+                        char escaped = data[i++];
+                        switch (escaped) {
+                                case '"':
+                                case '\\':
+                                        buffer[position++] = escaped;
+                                        break;
+                                case 'b':
+                                        buffer[position++] = '\b';
+                                        break;
+                                case 'f':
+                                        buffer[position++] = '\f';
+                                        break;
+                                case 'n':
+                                        buffer[position++] = '\n';
+                                        break;
+                                case 'r':
+                                        buffer[position++] = '\r';
+                                        break;
+                                case 't':
+                                        buffer[position++] = '\t';
+                                        break;
+                                case 'u':
+                                        if ((end - i) < 4) { throw new IllegalArgumentException ("Incomplete unicode escape sequence"); }
+
+                                        int code = 0;
+                                        for (int j = 0; j < 4; j++) {
+                                                int digit = Character.digit (data[i++], 16);
+                                                if (digit == -1) { throw new IllegalArgumentException ("Invalid unicode escape sequence"); }
+                                                code = ((code << 4) | digit);
+                                        }
+
+                                        buffer[position++] = ((char) code);
+                                        break;
+                                default:
+                                        throw new IllegalArgumentException ("Invalid escape sequence: \\" + escaped);
+                        }
+                }
+
+                return new String (buffer, 0, position);
+        }
+}
@@ -28,6 +28,8 @@ import javax.annotation.Nonnull;
  */
 public abstract class AbstractNamedNode extends AbstractNode implements INamedNode {
         private String name;
+        private String nameKey;
+        private int nameHash;
 
         protected AbstractNamedNode () {
                 super ();
@@ -54,10 +56,85 @@ public abstract class AbstractNamedNode extends AbstractNode implements INamedNo
         @Nonnull
         @Override
         public INamedNode name (@Nonnull String name) {
+                this.ensureMutable ();
+
+                String previousName = this.name;
                 this.name = name;
+                this.nameKey = foldName (name);
+                this.nameHash = this.nameKey.hashCode ();
+
+                IDocumentNode document = this.document ();
+                if (previousName != null && document != null) { document.renamed (this, previousName); }
                 return this;
         }
 
+        /**
+         * Retrieves the case-folded version of the node name.
+         * Two keys are equal if and only if their names are equal according to {@link String#equalsIgnoreCase(String)}.
+         *
+         * @return The key.
+         */
+        @Nonnull
+        public String nameKey () {
+                return this.nameKey;
+        }
+
+        /**
+         * Retrieves the cached hash of the case-folded node name.
+         *
+         * @return The hash.
+         */
+        public int nameHash () {
+                return this.nameHash;
+        }
+
+        /**
+         * Checks whether the node name matches a case-folded key.
+         *
+         * @param key  The case-folded key.
+         * @param hash The key hash.
+         * @return True if the names match.
+         */
+        public boolean nameEquals (@Nonnull String key, int hash) {
+                return (this.nameHash == hash && this.nameKey.equals (key));
+        }
+
+        /**
+         * Folds a node name into its case-insensitive key.
+         * Names which are already folded are returned as-is.
+         *
+         * @param name The name.
+         * @return The key.
+         */
+        @Nonnull
+        public static String foldName (@Nonnull String name) {
+                for (int i = 0; i < name.length (); i++) {
+                        char current = name.charAt (i);
+
+                        if (foldCharacter (current) != current) {
+                                char[] key = name.toCharArray ();
+                                for (int j = i; j < key.length; j++) { key[j] = foldCharacter (key[j]); }
+                                return new String (key);
+                        }
+                }
+
+                return name;
+        }
+
+        /**
+         * Folds a single character the same way {@link String#equalsIgnoreCase(String)} compares characters.
+         *
+         * @param character The character.
+         * @return The folded character.
+         */
+        private static char foldCharacter (char character) {
+                if (character < 0x80) {
+                        return (character >= 'A' && character <= 'Z' ? ((char) (character + ('a' - 'A'))) : character);
+                }
+
+                return Character.toLowerCase (Character.toUpperCase (character));
+        }
+
         /**
          * {@inheritDoc}
          */
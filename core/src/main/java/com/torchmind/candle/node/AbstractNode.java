@@ -21,6 +21,7 @@ import com.torchmind.candle.api.INode;
 import com.torchmind.candle.api.NodeType;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Provides an abstract utility implementation of {@link com.torchmind.candle.api.INode}.
@@ -29,6 +30,7 @@ import javax.annotation.Nonnull;
  */
 public abstract class AbstractNode implements INode {
         private IDocumentNode documentNode;
+        private boolean frozen = false;
 
         protected AbstractNode () { }
 
@@ -47,6 +49,19 @@ public abstract class AbstractNode implements INode {
                 return this.documentNode;
         }
 
+        /**
+         * Dispatches this node to the matching callback of a visitor.
+         * Node types which do not override this method are passed to {@link com.torchmind.candle.node.INodeVisitor#visit(AbstractNode)}.
+         *
+         * @param visitor The visitor.
+         * @param <R>     The result type.
+         * @return The visitor result.
+         */
+        @Nullable
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -58,4 +73,36 @@ public abstract class AbstractNode implements INode {
                 }
                 return this;
         }
+
+        /**
+         * Prevents any further modification of this node.
+         *
+         * @return The node.
+         */
+        @Nonnull
+        public AbstractNode freeze () {
+                this.frozen = true;
+                return this;
+        }
+
+        /**
+         * Checks whether this node has been frozen.
+         *
+         * @return True if the node may no longer be modified.
+         */
+        public boolean isFrozen () {
+                return this.frozen;
+        }
+
+        /**
+         * Ensures that this node may still be modified and notifies the document about the pending modification.
+         *
+         * @throws java.lang.IllegalStateException when the node has been frozen.
+         */
+        protected void ensureMutable () throws IllegalStateException {
+                if (this.frozen) { throw new IllegalStateException ("Cannot modify a frozen node"); }
+
+                IDocumentNode document = this.document ();
+                if (document != null) { document.modified (this); }
+        }
 }
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.api.INode;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.AbstractSequentialList;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Stores the children of an object node.
+ *
+ * Children are kept within a doubly linked list while an identity map tracks the list entry of each node. This permits
+ * positional operations relative to an existing child (insertion, replacement and removal) in constant time rather
+ * than locating the child with a linear scan first. Index based access remains linear.
+ *
+ * When the same node instance is stored multiple times, all operations refer to its first occurrence.
+ *
+ * @author Johannes Donath
+ */
+final class ChildList extends AbstractSequentialList<INode> {
+        private final Map<INode, Entry> entries = new IdentityHashMap<> ();
+        private Entry head;
+        private Entry tail;
+        private int size;
+        private int duplicates;
+
+        /**
+         * Appends a node.
+         *
+         * @param node The node.
+         * @return Always true.
+         */
+        @Override
+        public boolean add (@Nonnull INode node) {
+                this.link (node, this.tail, null);
+                return true;
+        }
+
+        /**
+         * Inserts a node directly after another node.
+         *
+         * @param after The node to insert after.
+         * @param node  The node to insert.
+         * @return True if the node has been inserted, false if the node to insert after is not part of this list.
+         */
+        public boolean insertAfter (@Nonnull INode after, @Nonnull INode node) {
+                Entry entry = this.entries.get (after);
+                if (entry == null) { return false; }
+
+                this.link (node, entry, entry.next);
+                return true;
+        }
+
+        /**
+         * Inserts a node directly before another node.
+         *
+         * @param before The node to insert before.
+         * @param node   The node to insert.
+         * @return True if the node has been inserted, false if the node to insert before is not part of this list.
+         */
+        public boolean insertBefore (@Nonnull INode before, @Nonnull INode node) {
+                Entry entry = this.entries.get (before);
+                if (entry == null) { return false; }
+
+                this.link (node, entry.previous, entry);
+                return true;
+        }
+
+        /**
+         * Replaces a node in place.
+         *
+         * @param node        The node to replace.
+         * @param replacement The replacement.
+         * @return True if the node has been replaced, false if the node is not part of this list.
+         */
+        public boolean replace (@Nonnull INode node, @Nonnull INode replacement) {
+                Entry entry = this.entries.get (node);
+                if (entry == null) { return false; }
+
+                Entry previous = entry.previous;
+                Entry next = entry.next;
+                this.unlink (entry);
+                this.link (replacement, previous, next);
+                return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean remove (Object node) {
+                Entry entry = this.entries.get (node);
+                if (entry == null) { return false; }
+
+                this.unlink (entry);
+                return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean contains (Object node) {
+                return this.entries.containsKey (node);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void clear () {
+                this.entries.clear ();
+                this.head = null;
+                this.tail = null;
+                this.size = 0;
+                this.duplicates = 0;
+                this.modCount++;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size () {
+                return this.size;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public ListIterator<INode> listIterator (@Nonnegative int index) {
+                if (index < 0 || index > this.size) { throw new IndexOutOfBoundsException ("Index: " + index + ", Size: " + this.size); }
+
+                Entry next = this.head;
+                for (int i = 0; i < index; i++) { next = next.next; }
+
+                return new Itr (next, index);
+        }
+
+        /**
+         * Links a new entry between two (possibly absent) neighbours.
+         *
+         * @param node     The node.
+         * @param previous The previous entry.
+         * @param next     The next entry.
+         * @return The new entry.
+         */
+        @Nonnull
+        private Entry link (@Nonnull INode node, Entry previous, Entry next) {
+                Entry entry = new Entry (node, previous, next);
+                if (previous == null) { this.head = entry; } else { previous.next = entry; }
+                if (next == null) { this.tail = entry; } else { next.previous = entry; }
+
+                Entry existing = this.entries.putIfAbsent (node, entry);
+                if (existing != null) {
+                        this.duplicates++;
+
+                        // the node is present already - keep track of whichever occurrence comes first
+                        for (Entry current = this.head; current != existing; current = current.next) {
+                                if (current == entry) {
+                                        this.entries.put (node, entry);
+                                        break;
+                                }
+                        }
+                }
+
+                this.size++;
+                this.modCount++;
+                return entry;
+        }
+
+        /**
+         * Unlinks an entry.
+         *
+         * @param entry The entry.
+         */
+        private void unlink (@Nonnull Entry entry) {
+                if (entry.previous == null) { this.head = entry.next; } else { entry.previous.next = entry.next; }
+                if (entry.next == null) { this.tail = entry.previous; } else { entry.next.previous = entry.previous; }
+
+                if (this.entries.get (entry.node) == entry) {
+                        this.entries.remove (entry.node);
+
+                        if (this.duplicates != 0) {
+                                for (Entry current = entry.next; current != null; current = current.next) {
+                                        if (current.node == entry.node) {
+                                                this.entries.put (current.node, current);
+                                                this.duplicates--;
+                                                break;
+                                        }
+                                }
+                        }
+                } else {
+                        this.duplicates--;
+                }
+
+                this.size--;
+                this.modCount++;
+        }
+
+        /**
+         * Represents a single list entry.
+         */
+        private static class Entry {
+                private final INode node;
+                private Entry previous;
+                private Entry next;
+
+                public Entry (@Nonnull INode node, Entry previous, Entry next) {
+                        this.node = node;
+                        this.previous = previous;
+                        this.next = next;
+                }
+        }
+
+        /**
+         * Iterates over the list.
+         * Modifications through the iterator are reflected in the list while any other modification of the list
+         * invalidates the iterator.
+         */
+        private class Itr implements ListIterator<INode> {
+                private int expectedModCount = ChildList.this.modCount;
+                private Entry next;
+                private Entry lastReturned;
+                private int index;
+
+                public Itr (Entry next, @Nonnegative int index) {
+                        this.next = next;
+                        this.index = index;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean hasNext () {
+                        return (this.index < ChildList.this.size);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public INode next () {
+                        this.checkModification ();
+                        if (this.next == null) { throw new NoSuchElementException (); }
+
+                        this.lastReturned = this.next;
+                        this.next = this.next.next;
+                        this.index++;
+                        return this.lastReturned.node;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean hasPrevious () {
+                        return (this.index > 0);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public INode previous () {
+                        this.checkModification ();
+                        if (this.index == 0) { throw new NoSuchElementException (); }
+
+                        this.next = (this.next == null ? ChildList.this.tail : this.next.previous);
+                        this.lastReturned = this.next;
+                        this.index--;
+                        return this.next.node;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int nextIndex () {
+                        return this.index;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int previousIndex () {
+                        return (this.index - 1);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void remove () {
+                        this.checkModification ();
+                        if (this.lastReturned == null) { throw new IllegalStateException (); }
+
+                        // the cursor is located in front of the removed entry when it has been returned by previous ()
+                        if (this.next == this.lastReturned) { this.next = this.lastReturned.next; } else { this.index--; }
+
+                        ChildList.this.unlink (this.lastReturned);
+                        this.lastReturned = null;
+                        this.expectedModCount = ChildList.this.modCount;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void set (@Nonnull INode node) {
+                        this.checkModification ();
+                        if (this.lastReturned == null) { throw new IllegalStateException (); }
+
+                        Entry previous = this.lastReturned.previous;
+                        Entry next = this.lastReturned.next;
+                        boolean cursorBefore = (this.next == this.lastReturned);
+
+                        ChildList.this.unlink (this.lastReturned);
+                        this.lastReturned = ChildList.this.link (node, previous, next);
+                        if (cursorBefore) { this.next = this.lastReturned; }
+
+                        this.expectedModCount = ChildList.this.modCount;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void add (@Nonnull INode node) {
+                        this.checkModification ();
+
+                        ChildList.this.link (node, (this.next == null ? ChildList.this.tail : this.next.previous), this.next);
+                        this.lastReturned = null;
+                        this.index++;
+                        this.expectedModCount = ChildList.this.modCount;
+                }
+
+                /**
+                 * Ensures that the list has not been modified since the iterator has been created or has last modified
+                 * the list itself.
+                 */
+                private void checkModification () {
+                        if (ChildList.this.modCount != this.expectedModCount) { throw new ConcurrentModificationException (); }
+                }
+        }
+}
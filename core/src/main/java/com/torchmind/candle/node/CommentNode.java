@@ -20,6 +20,7 @@ import com.torchmind.candle.api.ICommentNode;
 import com.torchmind.candle.api.IDocumentNode;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Provides an implementation of {@link }
@@ -50,6 +51,7 @@ public class CommentNode extends AbstractNode implements ICommentNode {
         @Nonnull
         @Override
         public ICommentNode text (@Nonnull String text) {
+                this.ensureMutable ();
                 this.content = text;
                 this.multiline = text.contains ("\n");
                 return this;
@@ -64,6 +66,15 @@ public class CommentNode extends AbstractNode implements ICommentNode {
                 return this.content;
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.node.property.*;
+import com.torchmind.candle.node.property.array.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Visits the concrete node types of a tree.
+ *
+ * Nodes dispatch themselves to the matching callback via {@link com.torchmind.candle.node.AbstractNode#accept(INodeVisitor)}
+ * which replaces type checks with a single virtual call. Unless overridden, each callback falls back to the callback of
+ * the next more general node type (e.g. array properties fall back to
+ * {@link #visit(com.torchmind.candle.node.property.array.AbstractArrayPropertyNode)}, all properties eventually fall
+ * back to {@link #visit(com.torchmind.candle.node.property.AbstractPropertyNode)} and all nodes fall back to
+ * {@link #visit(AbstractNode)} which does nothing).
+ *
+ * Visitors do not descend into objects on their own (see {@link com.torchmind.candle.node.ObjectNode#acceptChildren(INodeVisitor)}).
+ *
+ * @param <R> The result type.
+ * @author Johannes Donath
+ */
+public interface INodeVisitor<R> {
+
+        /**
+         * Visits an arbitrary node.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull AbstractNode node) {
+                return null;
+        }
+
+        /**
+         * Visits a comment.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull CommentNode node) {
+                return this.visit (((AbstractNode) node));
+        }
+
+        /**
+         * Visits an object.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull ObjectNode node) {
+                return this.visit (((AbstractNode) node));
+        }
+
+        /**
+         * Visits an arbitrary property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull AbstractPropertyNode node) {
+                return this.visit (((AbstractNode) node));
+        }
+
+        /**
+         * Visits a boolean property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull BooleanPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits a default property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull DefaultPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits a double property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull DoublePropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits an enum property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull EnumPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits a float property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull FloatPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits an integer property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull IntegerPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits a long property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull LongPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits a null property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull NullPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits a string property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull StringPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits an arbitrary array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull AbstractArrayPropertyNode node) {
+                return this.visit (((AbstractPropertyNode) node));
+        }
+
+        /**
+         * Visits a boolean array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull BooleanArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+
+        /**
+         * Visits a double array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull DoubleArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+
+        /**
+         * Visits an enum array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull EnumArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+
+        /**
+         * Visits a float array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull FloatArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+
+        /**
+         * Visits an integer array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull IntegerArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+
+        /**
+         * Visits a long array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull LongArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+
+        /**
+         * Visits a null array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull NullArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+
+        /**
+         * Visits a string array property.
+         *
+         * @param node The node.
+         * @return The result.
+         */
+        @Nullable
+        default R visit (@Nonnull StringArrayPropertyNode node) {
+                return this.visit (((AbstractArrayPropertyNode) node));
+        }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.api.INode;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects nodes which are appended to an object in a single step.
+ *
+ * Committing a batch is equivalent to appending each of its nodes in order (named nodes replace existing nodes of the
+ * same name in place) but duplicates are resolved within a single pass over the container and the document is only
+ * notified about a single pending modification of the container. Additions (and removals of replaced nodes) are
+ * still reported to the document for each node individually.
+ *
+ * @author Johannes Donath
+ */
+public final class NodeBatch {
+        private final ObjectNode container;
+        private final List<INode> nodes = new ArrayList<> ();
+
+        NodeBatch (@Nonnull ObjectNode container) {
+                this.container = container;
+        }
+
+        /**
+         * Adds a node to the batch.
+         *
+         * @param node The node.
+         * @return The batch.
+         */
+        @Nonnull
+        public NodeBatch append (@Nonnull INode node) {
+                this.nodes.add (node);
+                return this;
+        }
+
+        /**
+         * Adds a set of nodes to the batch.
+         *
+         * @param nodes The nodes.
+         * @return The batch.
+         */
+        @Nonnull
+        public NodeBatch appendAll (@Nonnull Iterable<? extends INode> nodes) {
+                nodes.forEach (this.nodes::add);
+                return this;
+        }
+
+        /**
+         * Appends all collected nodes to the container and resets the batch.
+         *
+         * @return The container.
+         *
+         * @throws java.lang.IllegalStateException when the container has been frozen.
+         */
+        @Nonnull
+        public ObjectNode commit () throws IllegalStateException {
+                if (this.nodes.isEmpty ()) { return this.container; }
+
+                this.container.appendAll (this.nodes);
+                this.nodes.clear ();
+                return this.container;
+        }
+
+        /**
+         * Retrieves the amount of pending nodes.
+         *
+         * @return The amount of nodes.
+         */
+        @Nonnegative
+        public int size () {
+                return this.nodes.size ();
+        }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * Represents a pre-compiled dotted node path.
+ * Each segment is case-folded and hashed once so that repeated lookups only need to compare hashes and keys.
+ *
+ * @author Johannes Donath
+ */
+public final class NodePath {
+        private final String path;
+        private final String[] names;
+        private final String[] keys;
+        private final int[] hashes;
+
+        private NodePath (@Nonnull String path, @Nonnull String[] names) {
+                this.path = path;
+                this.names = names;
+                this.keys = new String[names.length];
+                this.hashes = new int[names.length];
+
+                for (int i = 0; i < names.length; i++) {
+                        this.keys[i] = AbstractNamedNode.foldName (names[i]);
+                        this.hashes[i] = this.keys[i].hashCode ();
+                }
+        }
+
+        /**
+         * Compiles a dotted node path.
+         *
+         * @param path The path.
+         * @return The compiled path.
+         */
+        @Nonnull
+        public static NodePath compile (@Nonnull String path) {
+                int segments = 1;
+                for (int i = 0; i < path.length (); i++) {
+                        if (path.charAt (i) == '.') { segments++; }
+                }
+
+                if (segments == 1) { return new NodePath (path, new String[] { path }); }
+
+                String[] names = new String[segments];
+                int offset = 0;
+
+                for (int i = 0; i < segments; i++) {
+                        int end = path.indexOf ('.', offset);
+                        if (end == -1) { end = path.length (); }
+
+                        names[i] = path.substring (offset, end);
+                        offset = (end + 1);
+                }
+
+                return new NodePath (path, names);
+        }
+
+        /**
+         * Retrieves the hash of a segment key.
+         *
+         * @param index The segment index.
+         * @return The hash.
+         */
+        public int hash (@Nonnegative int index) {
+                return this.hashes[index];
+        }
+
+        /**
+         * Retrieves the case-folded key of a segment.
+         *
+         * @param index The segment index.
+         * @return The key.
+         */
+        @Nonnull
+        public String key (@Nonnegative int index) {
+                return this.keys[index];
+        }
+
+        /**
+         * Retrieves the amount of segments within the path.
+         *
+         * @return The length.
+         */
+        @Nonnegative
+        public int length () {
+                return this.names.length;
+        }
+
+        /**
+         * Retrieves the original name of a segment.
+         *
+         * @param index The segment index.
+         * @return The name.
+         */
+        @Nonnull
+        public String name (@Nonnegative int index) {
+                return this.names[index];
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals (Object o) {
+                if (this == o) { return true; }
+                if (o == null || this.getClass () != o.getClass ()) { return false; }
+
+                return Arrays.equals (this.keys, ((NodePath) o).keys);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode () {
+                return Arrays.hashCode (this.hashes);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString () {
+                return this.path;
+        }
+}
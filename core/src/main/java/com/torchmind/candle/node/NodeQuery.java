@@ -0,0 +1,269 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.IObjectNode;
+import com.torchmind.candle.api.IPropertyNode;
+import com.torchmind.candle.api.NodeValueType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Represents a pre-compiled path query.
+ *
+ * Queries consist of dot separated segments which are matched against node names (case-insensitively) level by level:
+ * <ul>
+ * <li>{@code name} matches a node of that name.</li>
+ * <li>{@code *} matches any single node.</li>
+ * <li>{@code **} matches any amount of levels (including none).</li>
+ * </ul>
+ * The final segment may be followed by a type filter such as {@code services.*.port:integer} which restricts the
+ * results to properties of the respective {@link com.torchmind.candle.api.NodeValueType} (or to objects when
+ * {@code :object} is used).
+ *
+ * Queries are evaluated in a single pre-order traversal which only descends into objects that may still contain
+ * matches. Results are produced lazily and are reported in document order. Parallel streams split the traversal at the
+ * outermost containers which still have multiple pending children.
+ *
+ * @author Johannes Donath
+ */
+public final class NodeQuery {
+        private static final String ANY = "*";
+        private static final String ANY_DEPTH = "**";
+        private static final int MAXIMUM_SEGMENTS = 63;
+
+        private final String query;
+        private final String[] keys;
+        private final long anyDepthMask;
+        private final NodeValueType valueType;
+        private final boolean objectsOnly;
+        private final TreeSpliterator.Filter filter = new QueryFilter ();
+
+        private NodeQuery (@Nonnull String query, @Nonnull String[] keys, @Nullable NodeValueType valueType, boolean objectsOnly) {
+                this.query = query;
+                this.keys = keys;
+                this.valueType = valueType;
+                this.objectsOnly = objectsOnly;
+
+                long anyDepthMask = 0;
+                for (int i = 0; i < keys.length; i++) {
+                        if (ANY_DEPTH.equals (keys[i])) { anyDepthMask |= (1L << i); }
+                }
+                this.anyDepthMask = anyDepthMask;
+        }
+
+        /**
+         * Compiles a query.
+         *
+         * @param query The query.
+         * @return The compiled query.
+         *
+         * @throws java.lang.IllegalArgumentException when the query is malformed.
+         */
+        @Nonnull
+        public static NodeQuery compile (@Nonnull String query) throws IllegalArgumentException {
+                String path = query;
+                NodeValueType valueType = null;
+                boolean objectsOnly = false;
+
+                int filter = query.lastIndexOf (':');
+                if (filter != -1) {
+                        String type = query.substring (filter + 1);
+                        path = query.substring (0, filter);
+
+                        if ("object".equalsIgnoreCase (type)) {
+                                objectsOnly = true;
+                        } else {
+                                try {
+                                        valueType = NodeValueType.valueOf (type.toUpperCase (Locale.ROOT));
+                                } catch (IllegalArgumentException ex) {
+                                        throw new IllegalArgumentException ("Unknown type filter \"" + type + "\" in query \"" + query + "\"", ex);
+                                }
+                        }
+                }
+
+                NodePath compiledPath = NodePath.compile (path);
+                if (compiledPath.length () > MAXIMUM_SEGMENTS) {
+                        throw new IllegalArgumentException ("Query \"" + query + "\" exceeds the maximum of " + MAXIMUM_SEGMENTS + " segments");
+                }
+
+                String[] keys = new String[compiledPath.length ()];
+                for (int i = 0; i < keys.length; i++) {
+                        keys[i] = compiledPath.key (i);
+                        if (keys[i].isEmpty ()) { throw new IllegalArgumentException ("Query \"" + query + "\" contains an empty segment"); }
+                }
+
+                return new NodeQuery (query, keys, valueType, objectsOnly);
+        }
+
+        /**
+         * Evaluates the query.
+         *
+         * @param node The node to start from (the query is matched against its children).
+         * @return A lazily evaluated stream of all matching nodes.
+         */
+        @Nonnull
+        public Stream<INode> stream (@Nonnull IObjectNode node) {
+                return StreamSupport.stream (new TreeSpliterator (node, this.filter), false);
+        }
+
+        /**
+         * Evaluates the query in parallel.
+         *
+         * @param node The node to start from (the query is matched against its children).
+         * @return A lazily evaluated parallel stream of all matching nodes.
+         */
+        @Nonnull
+        public Stream<INode> parallelStream (@Nonnull IObjectNode node) {
+                return StreamSupport.stream (new TreeSpliterator (node, this.filter), true);
+        }
+
+        /**
+         * Checks whether a node which is not attached to a tree matches the query.
+         *
+         * @param path The names of all objects which enclose the node (starting at the outermost object).
+         * @param node The node.
+         * @return True if the node matches.
+         */
+        public boolean matches (@Nonnull List<String> path, @Nonnull INode node) {
+                String key = key (node);
+                if (key == null) { return false; }
+
+                long states = this.close (1L);
+                for (String name : path) {
+                        states = this.advance (states, AbstractNamedNode.foldName (name));
+                        if (states == 0) { return false; }
+                }
+
+                states = this.advance (states, key);
+                return ((states & (1L << this.keys.length)) != 0 && this.accepts (node));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString () {
+                return this.query;
+        }
+
+        /**
+         * Adds all states which are reachable without consuming a level (e.g. by skipping a {@code **} segment).
+         *
+         * @param states The states.
+         * @return The closed states.
+         */
+        private long close (long states) {
+                long closed = states;
+
+                for (int i = 0; i < this.keys.length; i++) {
+                        if ((closed & (1L << i)) != 0 && (this.anyDepthMask & (1L << i)) != 0) { closed |= (1L << (i + 1)); }
+                }
+
+                return closed;
+        }
+
+        /**
+         * Computes the states after consuming a level with a certain name.
+         *
+         * @param states The (closed) states before the node.
+         * @param key    The case-folded node name.
+         * @return The closed states after the node.
+         */
+        private long advance (long states, @Nonnull String key) {
+                long next = 0;
+
+                for (int i = 0; i < this.keys.length; i++) {
+                        if ((states & (1L << i)) == 0) { continue; }
+
+                        String current = this.keys[i];
+                        if ((this.anyDepthMask & (1L << i)) != 0) {
+                                next |= (1L << i);
+                        } else if (current.equals (ANY) || current.equals (key)) {
+                                next |= (1L << (i + 1));
+                        }
+                }
+
+                return this.close (next);
+        }
+
+        /**
+         * Checks whether a node passes the type filter.
+         */
+        private boolean accepts (@Nonnull INode node) {
+                if (this.objectsOnly) { return (node instanceof IObjectNode); }
+                if (this.valueType == null) { return true; }
+
+                return (node instanceof IPropertyNode && ((IPropertyNode) node).valueType () == this.valueType);
+        }
+
+        /**
+         * Retrieves the case-folded name of a node.
+         */
+        @Nullable
+        private static String key (@Nonnull INode node) {
+                if (node instanceof AbstractNamedNode) { return ((AbstractNamedNode) node).nameKey (); }
+                if (node instanceof INamedNode) { return AbstractNamedNode.foldName (((INamedNode) node).name ()); }
+                return null;
+        }
+
+        /**
+         * Restricts a traversal to the nodes which match the query.
+         * The state of each node consists of the query states it has reached.
+         */
+        private class QueryFilter implements TreeSpliterator.Filter {
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public long initialState () {
+                        return NodeQuery.this.close (1L);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public long advance (long state, @Nonnull INode node) {
+                        String key = key (node);
+                        return (key != null ? NodeQuery.this.advance (state, key) : 0);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean descend (long state) {
+                        return ((state & ((1L << NodeQuery.this.keys.length) - 1)) != 0);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean accept (long state, @Nonnull INode node) {
+                        return ((state & (1L << NodeQuery.this.keys.length)) != 0 && NodeQuery.this.accepts (node));
+                }
+        }
+}
@@ -27,13 +27,14 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * @author Johannes Donath
  */
 public class ObjectNode extends AbstractNamedNode implements IObjectNode {
-        private final LinkedList<INode> children = new LinkedList<> ();
+        private final ChildList children = new ChildList ();
 
         protected ObjectNode () {
                 super ();
@@ -49,15 +50,69 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
         @Nonnull
         @Override
         public IObjectNode append (@Nonnull INode node) {
+                this.ensureMutable ();
+
                 if (node instanceof INamedNode && this.isPresent (((INamedNode) node).name ())) {
                         this.replace (((INamedNode) node).name (), node);
                         return this;
                 }
 
                 this.children.add (node);
+                this.added (node);
                 return this;
         }
 
+        /**
+         * Notifies the document about the addition of a child.
+         *
+         * @param node The child.
+         */
+        private void added (@Nonnull INode node) {
+                IDocumentNode document = this.document ();
+                if (document != null) { document.added (this, node); }
+        }
+
+        /**
+         * Appends a list of nodes as if {@link #append(com.torchmind.candle.api.INode)} was called for each of them.
+         * The document is notified about a single pending modification of this object followed by an addition (and
+         * the removal of any replaced node) per appended node.
+         *
+         * @param nodes The nodes.
+         */
+        void appendAll (@Nonnull List<INode> nodes) {
+                this.ensureMutable ();
+
+                Map<String, INode> named = new HashMap<> ();
+                for (INode child : this.children) {
+                        String key = key (child);
+                        if (key != null) { named.putIfAbsent (key, child); }
+                }
+
+                for (INode node : nodes) {
+                        String key = key (node);
+                        INode existing = (key != null ? named.put (key, node) : null);
+
+                        if (existing != null) {
+                                this.children.replace (existing, node);
+                                this.removed (existing);
+                        } else {
+                                this.children.add (node);
+                        }
+
+                        this.added (node);
+                }
+        }
+
+        /**
+         * Creates a batch which appends multiple nodes to this object in a single step.
+         *
+         * @return The batch.
+         */
+        @Nonnull
+        public NodeBatch batch () {
+                return new NodeBatch (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -82,32 +137,86 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
         @Nonnull
         @Override
         public IObjectNode clear () {
+                this.ensureMutable ();
+
+                List<INode> removed = new ArrayList<> (this.children);
                 this.children.clear ();
+
+                removed.forEach (this::removed);
+                return this;
+        }
+
+        /**
+         * Prevents any further modification of this node and all of its descendants.
+         *
+         * @return The node.
+         */
+        @Nonnull
+        @Override
+        public ObjectNode freeze () {
+                Deque<ObjectNode> pending = new ArrayDeque<> ();
+                pending.push (this);
+
+                while (!pending.isEmpty ()) {
+                        ObjectNode container = pending.pop ();
+                        container.freezeNode ();
+
+                        for (INode node : container.children) {
+                                if (node instanceof ObjectNode) {
+                                        pending.push (((ObjectNode) node));
+                                } else if (node instanceof AbstractNode) {
+                                        ((AbstractNode) node).freeze ();
+                                }
+                        }
+                }
+
                 return this;
         }
 
+        /**
+         * Freezes this node without visiting its children.
+         */
+        private void freezeNode () {
+                super.freeze ();
+        }
+
         /**
          * {@inheritDoc}
          */
         @Nonnull
         @Override
         public INode get (@Nonnull String name) throws NoSuchElementException {
-                final String closestNode = (name.indexOf ('.') == -1 ? name : name.substring (0, name.indexOf ('.')));
-
-                // @formatter:off
-                INode node = this.stream ()
-                        .filter (n -> {
-                                if (!(n instanceof INamedNode)) return false;
-                                return closestNode.equalsIgnoreCase (((INamedNode) n).name ());
-                        })
-                                 .findFirst ()
-                                        .orElseThrow (() -> new NoSuchElementException ("Could not locate element with name \"" + name + "\"" + (!closestNode.equals (name) ? " (failed to locate closest node \"" + closestNode + "\")" : "")));
-                // @formatter:on
-                if (name.indexOf ('.') == -1) { return node; }
-                if (!(node instanceof IObjectNode)) {
-                        throw new NoSuchElementException ("Node with name \"" + closestNode + "\" is not a container node");
+                return this.get (NodePath.compile (name));
+        }
+
+        /**
+         * Retrieves a node within the tree.
+         *
+         * @param path The pre-compiled node path.
+         * @return The node.
+         *
+         * @throws java.util.NoSuchElementException when the node is not present within the tree.
+         */
+        @Nonnull
+        public INode get (@Nonnull NodePath path) throws NoSuchElementException {
+                IObjectNode container = this;
+
+                for (int i = 0; i < path.length (); i++) {
+                        INode node = find (container, path, i);
+
+                        if (node == null) {
+                                throw new NoSuchElementException ("Could not locate element with name \"" + path + "\"" + (path.length () != 1 ? " (failed to locate closest node \"" + path.name (i) + "\")" : ""));
+                        }
+
+                        if (i == (path.length () - 1)) { return node; }
+                        if (!(node instanceof IObjectNode)) {
+                                throw new NoSuchElementException ("Node with name \"" + path.name (i) + "\" is not a container node");
+                        }
+
+                        container = ((IObjectNode) node);
                 }
-                return ((IObjectNode) node).get (name.substring ((closestNode.length () + 1)));
+
+                throw new NoSuchElementException ("Cannot locate element with an empty path");
         }
 
         /**
@@ -115,9 +224,23 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
          */
         @Nonnull
         @Override
-        @SuppressWarnings ("unchecked")
         public <T extends INode> T get (@Nonnull String name, @Nonnull Class<T> nodeType) throws IllegalStateException, NoSuchElementException {
-                INode node = this.get (name);
+                return cast (this.get (name), nodeType);
+        }
+
+        /**
+         * Ensures that a node is of a certain type.
+         *
+         * @param node     The node.
+         * @param nodeType The expected node type.
+         * @param <T>      The node type.
+         * @return The node.
+         *
+         * @throws java.lang.IllegalStateException when the node is of a different type.
+         */
+        @Nonnull
+        @SuppressWarnings ("unchecked")
+        private static <T extends INode> T cast (@Nonnull INode node, @Nonnull Class<T> nodeType) throws IllegalStateException {
                 if (!nodeType.isAssignableFrom (node.getClass ())) {
                         throw new IllegalStateException ("Expected node of type " + nodeType.getCanonicalName () + " but got " + node.getClass ().getName ());
                 }
@@ -160,6 +283,42 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
                 return this.getBooleanArray (name);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getDouble (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, DoublePropertyNode.class, DoublePropertyNode::value, () -> 0.0);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getDouble (@Nonnull String name, double defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getDouble (name);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public double[] getDoubleArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, DoubleArrayPropertyNode.class, DoubleArrayPropertyNode::array);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public double[] getDoubleArray (@Nonnegative String name, @Nullable double[] defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getDoubleArray (name);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -320,6 +479,48 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
                 return this.getIntegerArray (name);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getLong (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, IPropertyNode.class, (n) -> {
+                        if (n instanceof IntegerPropertyNode) { return ((long) ((IntegerPropertyNode) n).value ()); }
+                        return cast (n, LongPropertyNode.class).value ();
+                }, () -> 0L);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getLong (@Nonnull String name, long defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getLong (name);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public long[] getLongArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, IPropertyNode.class, (n) -> {
+                        if (n instanceof IntegerArrayPropertyNode) { return ((IntegerArrayPropertyNode) n).stream ().asLongStream ().toArray (); }
+                        return cast (n, LongArrayPropertyNode.class).array ();
+                });
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public long[] getLongArray (@Nonnull String name, @Nullable long[] defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getLongArray (name);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -386,6 +587,42 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
                 return this.getStringArray (name);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getUnsignedDouble (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, DoublePropertyNode.class, DoublePropertyNode::valueUnsigned, () -> 0.0);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getUnsignedDouble (@Nonnull String name, @Nonnegative double defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getUnsignedDouble (name);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public double[] getUnsignedDoubleArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, DoubleArrayPropertyNode.class, DoubleArrayPropertyNode::arrayUnsigned);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public double[] getUnsignedDoubleArray (@Nonnull String name, @Nullable @Nonnegative double[] defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getUnsignedDoubleArray (name);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -458,16 +695,57 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
                 return this.getUnsignedIntegerArray (name);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getUnsignedLong (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, IPropertyNode.class, (n) -> {
+                        if (n instanceof IntegerPropertyNode) { return ((long) ((IntegerPropertyNode) n).valueUnsigned ()); }
+                        return cast (n, LongPropertyNode.class).valueUnsigned ();
+                }, () -> 0L);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getUnsignedLong (@Nonnegative String name, @Nonnegative long defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getUnsignedLong (name);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public long[] getUnsignedLongArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.getPropertyValue (name, IPropertyNode.class, (n) -> {
+                        if (n instanceof IntegerArrayPropertyNode) { return IntStream.of (((IntegerArrayPropertyNode) n).arrayUnsigned ()).asLongStream ().toArray (); }
+                        return cast (n, LongArrayPropertyNode.class).arrayUnsigned ();
+                });
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public long[] getUnsignedLongArray (@Nonnull String name, @Nullable @Nonnegative long[] defaultValue) throws IllegalStateException, NoSuchElementException {
+                if (this.isDefault (name)) { return defaultValue; }
+                return this.getUnsignedLongArray (name);
+        }
+
         /**
          * {@inheritDoc}
          */
         @Nonnull
         @Override
         public IObjectNode insertAfter (@Nonnull String after, @Nonnull INode node) throws NoSuchElementException {
-                int index = after.indexOf ('.');
-                if (index != -1) {
-                        IObjectNode closestNode = this.get (after.substring (0, index), IObjectNode.class);
-                        closestNode.insertAfter (after.substring ((index + 1)), node);
+                if (after.indexOf ('.') != -1) {
+                        NodePath path = NodePath.compile (after);
+                        this.container (path).insertAfter (path.name ((path.length () - 1)), node);
                         return this;
                 }
 
@@ -480,11 +758,11 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
         @Nonnull
         @Override
         public IObjectNode insertAfter (@Nonnull INode after, @Nonnull INode node) throws NoSuchElementException {
-                int index = (this.children.indexOf (after) + 1);
-                if (index == 0) {
+                this.ensureMutable ();
+                if (!this.children.insertAfter (after, node)) {
                         throw new NoSuchElementException ("Cannot locate element to insert after within tree");
                 }
-                this.children.add (index, node);
+                this.added (node);
                 return this;
         }
 
@@ -494,10 +772,9 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
         @Nonnull
         @Override
         public IObjectNode insertBefore (@Nonnull String before, @Nonnull INode node) throws NoSuchElementException {
-                int index = before.indexOf ('.');
-                if (index != -1) {
-                        IObjectNode closestNode = this.get (before.substring (0, index), IObjectNode.class);
-                        closestNode.insertBefore (before.substring ((index + 1)), node);
+                if (before.indexOf ('.') != -1) {
+                        NodePath path = NodePath.compile (before);
+                        this.container (path).insertBefore (path.name ((path.length () - 1)), node);
                         return this;
                 }
 
@@ -510,11 +787,11 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
         @Nonnull
         @Override
         public IObjectNode insertBefore (@Nonnull INode before, @Nonnull INode node) throws NoSuchElementException {
-                int index = this.children.indexOf (before);
-                if (index == -1) {
+                this.ensureMutable ();
+                if (!this.children.insertBefore (before, node)) {
                         throw new NoSuchElementException ("Cannot locate element to insert before within tree");
                 }
-                this.children.add (index, node);
+                this.added (node);
                 return this;
         }
 
@@ -545,26 +822,7 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
          */
         @Override
         public boolean isPresent (@Nonnull String name) {
-                try {
-                        int index = name.indexOf ('.');
-                        if (index != -1) {
-                                IObjectNode closestNode = this.get (name.substring (0, index), IObjectNode.class);
-                                return closestNode.isPresent (name.substring ((index + 1)));
-                        }
-
-                        // @formatter:off
-                        return this.stream ()
-                                .parallel ()
-                                        .filter (n -> {
-                                                if (!(n instanceof INamedNode)) return false;
-                                                return name.equalsIgnoreCase (((INamedNode) n).name ());
-                                        })
-                                                .findAny ()
-                                                        .isPresent ();
-                        // @formatter:on
-                } catch (IllegalStateException | NoSuchElementException ex) {
-                        return false;
-                }
+                return this.isPresent (name, INode.class);
         }
 
         /**
@@ -572,26 +830,28 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
          */
         @Override
         public boolean isPresent (@Nonnull String name, @Nonnull Class<? extends INode> nodeType) {
-                try {
-                        int index = name.indexOf ('.');
-                        if (index != -1) {
-                                IObjectNode closestNode = this.get (name.substring (0, index), IObjectNode.class);
-                                return closestNode.isPresent (name.substring ((index + 1)), nodeType);
-                        }
+                NodePath path = NodePath.compile (name);
+                IObjectNode container = this;
 
-                        // @formatter:off
-                        return this.stream (nodeType)
-                                   .parallel ()
-                                           .filter (n -> {
-                                                   if (!(n instanceof INamedNode)) return false;
-                                                   return name.equalsIgnoreCase (((INamedNode) n).name ());
-                                           })
-                                                   .findAny ()
-                                                        .isPresent ();
-                        // @formatter:on
-                } catch (IllegalStateException | NoSuchElementException ex) {
-                        return false;
+                for (int i = 0; i < (path.length () - 1); i++) {
+                        INode node = find (container, path, i);
+                        if (!(node instanceof IObjectNode)) { return false; }
+
+                        container = ((IObjectNode) node);
+                }
+
+                if (!(container instanceof ObjectNode)) {
+                        return container.isPresent (path.name ((path.length () - 1)), nodeType);
                 }
+
+                String key = path.key ((path.length () - 1));
+                int hash = path.hash ((path.length () - 1));
+
+                for (INode node : ((ObjectNode) container).children) {
+                        if (nodeType.isAssignableFrom (node.getClass ()) && matches (node, key, hash)) { return true; }
+                }
+
+                return false;
         }
 
         /**
@@ -611,16 +871,28 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
                 return this.children ().iterator ();
         }
 
+        /**
+         * Retrieves all nodes below this node which match a query.
+         *
+         * @param query The query (see {@link com.torchmind.candle.node.NodeQuery}).
+         * @return A lazily evaluated stream of all matching nodes in document order.
+         *
+         * @throws java.lang.IllegalArgumentException when the query is malformed.
+         */
+        @Nonnull
+        public Stream<INode> query (@Nonnull String query) throws IllegalArgumentException {
+                return NodeQuery.compile (query).stream (this);
+        }
+
         /**
          * {@inheritDoc}
          */
         @Nonnull
         @Override
         public IObjectNode remove (@Nonnull String name) throws NoSuchElementException {
-                int index = name.indexOf ('.');
-                if (index != -1) {
-                        IObjectNode node = this.get (name.substring (0, index), IObjectNode.class);
-                        node.remove (name.substring ((index + 1)));
+                if (name.indexOf ('.') != -1) {
+                        NodePath path = NodePath.compile (name);
+                        this.container (path).remove (path.name ((path.length () - 1)));
                         return this;
                 }
 
@@ -633,22 +905,33 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
         @Nonnull
         @Override
         public IObjectNode remove (@Nonnull INode node) throws NoSuchElementException {
+                this.ensureMutable ();
                 if (!this.children.remove (node)) {
                         throw new NoSuchElementException ("Cannot locate element to remove within tree");
                 }
+                this.removed (node);
                 return this;
         }
 
+        /**
+         * Notifies the document about the removal of a child.
+         *
+         * @param node The child.
+         */
+        private void removed (@Nonnull INode node) {
+                IDocumentNode document = this.document ();
+                if (document != null) { document.removed (this, node); }
+        }
+
         /**
          * {@inheritDoc}
          */
         @Nonnull
         @Override
         public IObjectNode replace (@Nonnull String name, @Nonnull INode replacement) throws NoSuchElementException {
-                int index = name.indexOf ('.');
-                if (index != -1) {
-                        IObjectNode closestNode = this.get (name.substring (0, index), IObjectNode.class);
-                        closestNode.replace (name.substring ((index + 1)), replacement);
+                if (name.indexOf ('.') != -1) {
+                        NodePath path = NodePath.compile (name);
+                        this.container (path).replace (path.name ((path.length () - 1)), replacement);
                         return this;
                 }
 
@@ -661,11 +944,10 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
         @Nonnull
         @Override
         public IObjectNode replace (@Nonnull INode node, @Nonnull INode replacement) throws NoSuchElementException {
-                int index = this.children.indexOf (node);
-                if (index == -1) { throw new NoSuchElementException ("Cannot locate element to replace within tree"); }
-
-                this.children.remove (node);
-                this.children.add (index, replacement);
+                this.ensureMutable ();
+                if (!this.children.replace (node, replacement)) { throw new NoSuchElementException ("Cannot locate element to replace within tree"); }
+                this.removed (node);
+                this.added (replacement);
                 return this;
         }
 
@@ -698,6 +980,123 @@ public class ObjectNode extends AbstractNamedNode implements IObjectNode {
                                         .sequential ());
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public Spliterator<INode> treeSpliterator () {
+                return new TreeSpliterator (this);
+        }
+
+        /**
+         * Locates the container of the last element within a path.
+         *
+         * @param path The path.
+         * @return The container.
+         *
+         * @throws java.lang.IllegalStateException   when an intermediate node is not a container node.
+         * @throws java.util.NoSuchElementException when an intermediate node is not present within the tree.
+         */
+        @Nonnull
+        private IObjectNode container (@Nonnull NodePath path) throws IllegalStateException, NoSuchElementException {
+                IObjectNode container = this;
+
+                for (int i = 0; i < (path.length () - 1); i++) {
+                        INode node = find (container, path, i);
+
+                        if (node == null) {
+                                throw new NoSuchElementException ("Could not locate element with name \"" + path + "\" (failed to locate closest node \"" + path.name (i) + "\")");
+                        }
+
+                        if (!(node instanceof IObjectNode)) {
+                                throw new IllegalStateException ("Expected node of type " + IObjectNode.class.getCanonicalName () + " but got " + node.getClass ().getName ());
+                        }
+
+                        container = ((IObjectNode) node);
+                }
+
+                return container;
+        }
+
+        /**
+         * Locates a direct child of a container which matches a certain path segment.
+         *
+         * @param container The container.
+         * @param path      The path.
+         * @param index     The segment index.
+         * @return The node or null if no such node exists.
+         */
+        @Nullable
+        private static INode find (@Nonnull IObjectNode container, @Nonnull NodePath path, @Nonnegative int index) {
+                if (!(container instanceof ObjectNode)) {
+                        try {
+                                return container.get (path.name (index));
+                        } catch (NoSuchElementException ex) {
+                                return null;
+                        }
+                }
+
+                String key = path.key (index);
+                int hash = path.hash (index);
+
+                for (INode node : ((ObjectNode) container).children) {
+                        if (matches (node, key, hash)) { return node; }
+                }
+
+                return null;
+        }
+
+        /**
+         * Retrieves the case-folded name of a node.
+         *
+         * @param node The node.
+         * @return The key or null if the node is not named.
+         */
+        @Nullable
+        private static String key (@Nonnull INode node) {
+                if (node instanceof AbstractNamedNode) { return ((AbstractNamedNode) node).nameKey (); }
+                return (node instanceof INamedNode ? AbstractNamedNode.foldName (((INamedNode) node).name ()) : null);
+        }
+
+        /**
+         * Checks whether a node name matches a case-folded key.
+         *
+         * @param node The node.
+         * @param key  The case-folded key.
+         * @param hash The key hash.
+         * @return True if the node is named and matches the key.
+         */
+        private static boolean matches (@Nonnull INode node, @Nonnull String key, int hash) {
+                if (node instanceof AbstractNamedNode) { return ((AbstractNamedNode) node).nameEquals (key, hash); }
+                return (node instanceof INamedNode && key.equalsIgnoreCase (((INamedNode) node).name ()));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
+        /**
+         * Dispatches all direct children of this object to a visitor.
+         * Custom child implementations which do not extend {@link com.torchmind.candle.node.AbstractNode} are skipped.
+         *
+         * @param visitor The visitor.
+         * @return The node.
+         */
+        @Nonnull
+        public ObjectNode acceptChildren (@Nonnull INodeVisitor<?> visitor) {
+                for (INode child : this.children) {
+                        if (child instanceof AbstractNode) { ((AbstractNode) child).accept (visitor); }
+                }
+
+                return this;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.api.IDocumentNode;
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.IObjectNode;
+import com.torchmind.candle.api.ITreeListener;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Indexes all named nodes within a document by their full case-folded path.
+ *
+ * Exact lookups are served from a hash table while prefix queries (e.g. all nodes below {@code cluster.nodes}) are
+ * served from a sorted map. When multiple siblings share a name, only the first one is indexed (matching the behavior
+ * of {@link com.torchmind.candle.node.ObjectNode#get(String)}).
+ *
+ * The index is built on its first query and is maintained incrementally afterwards: added, removed and renamed nodes
+ * are indexed or dropped along with their own subtrees while changes to property values do not require any work at
+ * all. Documents which do not support listeners are thus rejected upon construction.
+ *
+ * @author Johannes Donath
+ */
+public class PathIndex implements ITreeListener, AutoCloseable {
+        private final IDocumentNode document;
+        private final Map<String, INode> nodes = new HashMap<> ();
+        private final NavigableMap<String, INode> sortedNodes = new TreeMap<> ();
+        private final Map<INode, String> paths = new IdentityHashMap<> ();
+        private final NavigableMap<String, Integer> shadowedNodes = new TreeMap<> ();
+        private volatile boolean dirty = true;
+
+        public PathIndex (@Nonnull IDocumentNode document) {
+                this.document = document;
+                this.document.addListener (this);
+        }
+
+        /**
+         * Stops listening for modifications.
+         */
+        @Override
+        public void close () {
+                this.document.removeListener (this);
+        }
+
+        /**
+         * Retrieves a node.
+         *
+         * @param path The dotted node path (compared case-insensitively).
+         * @return The node or null if no such node exists.
+         */
+        @Nullable
+        public INode get (@Nonnull String path) {
+                this.update ();
+                return this.nodes.get (AbstractNamedNode.foldName (path));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onAddition (@Nonnull IObjectNode container, @Nonnull INode node) {
+                String name = key (node);
+                if (name == null) { return; }
+
+                synchronized (this.nodes) {
+                        String prefix = this.prefix (container);
+                        if (prefix != null) { this.add (container, node, prefix + name, name); }
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onModification (@Nonnull INode node) {
+                // structural modifications are handled once they have been completed
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onRemoval (@Nonnull IObjectNode container, @Nonnull INode node) {
+                String name = key (node);
+                if (name == null) { return; }
+
+                synchronized (this.nodes) {
+                        String prefix = this.prefix (container);
+                        if (prefix != null) { this.remove (container, node, prefix + name, name); }
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onRename (@Nonnull INamedNode node, @Nonnull String previousName) {
+                synchronized (this.nodes) {
+                        if (this.dirty) { return; }
+
+                        String path = this.paths.get (node);
+                        if (path == null) {
+                                // the parents of shadowed siblings are unknown so their new name could take precedence anywhere
+                                if (!this.shadowedNodes.isEmpty ()) { this.dirty = true; }
+                                return;
+                        }
+
+                        int separator = path.lastIndexOf ('.');
+                        String prefix = path.substring (0, (separator + 1));
+                        INode container = (separator == -1 ? this.document : this.nodes.get (path.substring (0, separator)));
+                        if (!(container instanceof IObjectNode)) { return; }
+
+                        String name = key (node);
+                        this.remove (((IObjectNode) container), node, path, AbstractNamedNode.foldName (previousName));
+                        this.add (((IObjectNode) container), node, prefix + name, name);
+                }
+        }
+
+        /**
+         * Retrieves all nodes whose path starts with a certain prefix.
+         * The returned map is a read-only view which reflects the document at the time of the call and must not be used
+         * once the document is modified.
+         *
+         * @param prefix The path prefix (compared case-insensitively, e.g. {@code cluster.nodes.}).
+         * @return The nodes keyed by their case-folded path in lexicographical order.
+         */
+        @Nonnull
+        public NavigableMap<String, INode> prefix (@Nonnull String prefix) {
+                this.update ();
+
+                String key = AbstractNamedNode.foldName (prefix);
+                return Collections.unmodifiableNavigableMap (this.sortedNodes.subMap (key, true, key + Character.MAX_VALUE, false));
+        }
+
+        /**
+         * Retrieves the amount of indexed nodes.
+         *
+         * @return The amount.
+         */
+        @Nonnegative
+        public int size () {
+                this.update ();
+                return this.nodes.size ();
+        }
+
+        /**
+         * Indexes a node which has been added to an indexed container.
+         *
+         * @param container The container.
+         * @param node      The node.
+         * @param path      The node path.
+         * @param name      The case-folded node name.
+         */
+        private void add (@Nonnull IObjectNode container, @Nonnull INode node, @Nonnull String path, @Nonnull String name) {
+                INode existing = this.nodes.get (path);
+                if (existing == null) {
+                        this.index (node, path);
+                        return;
+                }
+
+                this.shadowedNodes.merge (path, 1, Integer::sum);
+
+                // the node only takes precedence when it has been inserted in front of its namesake
+                if (existing != node && first (container, name) == node) {
+                        this.unindex (path);
+                        this.index (node, path);
+                }
+        }
+
+        /**
+         * Removes a node which has been removed from an indexed container.
+         *
+         * @param container The container.
+         * @param node      The node.
+         * @param path      The node path.
+         * @param name      The case-folded node name.
+         */
+        private void remove (@Nonnull IObjectNode container, @Nonnull INode node, @Nonnull String path, @Nonnull String name) {
+                if (this.nodes.get (path) != node) {
+                        this.unshadow (path);
+                        return;
+                }
+
+                if (!this.shadowedNodes.containsKey (path)) {
+                        this.unindex (path);
+                        return;
+                }
+
+                // a shadowed sibling of the same name takes the place of the removed node
+                this.unshadow (path);
+
+                INode replacement = first (container, name);
+                if (replacement == node) { return; }
+
+                this.unindex (path);
+                if (replacement != null) { this.index (replacement, path); }
+        }
+
+        /**
+         * Indexes a node along with its subtree.
+         *
+         * @param node The node.
+         * @param path The node path.
+         */
+        private void index (@Nonnull INode node, @Nonnull String path) {
+                this.nodes.put (path, node);
+                this.sortedNodes.put (path, node);
+                this.paths.put (node, path);
+
+                if (node instanceof IObjectNode) { this.indexChildren (((IObjectNode) node), path + "."); }
+        }
+
+        /**
+         * Indexes the subtree of a container.
+         *
+         * @param container The container.
+         * @param prefix    The path prefix of all children (empty for the document root).
+         */
+        private void indexChildren (@Nonnull IObjectNode container, @Nonnull String prefix) {
+                Deque<IObjectNode> containers = new ArrayDeque<> ();
+                Deque<String> prefixes = new ArrayDeque<> ();
+                containers.push (container);
+                prefixes.push (prefix);
+
+                while (!containers.isEmpty ()) {
+                        IObjectNode current = containers.pop ();
+                        String currentPrefix = prefixes.pop ();
+
+                        for (INode node : current) {
+                                String name = key (node);
+                                if (name == null) { continue; }
+
+                                String path = currentPrefix + name;
+                                if (this.nodes.putIfAbsent (path, node) != null) {
+                                        this.shadowedNodes.merge (path, 1, Integer::sum);
+                                        continue;
+                                }
+
+                                this.sortedNodes.put (path, node);
+                                this.paths.put (node, path);
+
+                                if (node instanceof IObjectNode) {
+                                        containers.push (((IObjectNode) node));
+                                        prefixes.push (path + ".");
+                                }
+                        }
+                }
+        }
+
+        /**
+         * Removes a node along with its subtree from the index.
+         *
+         * @param path The node path.
+         */
+        private void unindex (@Nonnull String path) {
+                this.paths.remove (this.nodes.remove (path));
+                this.sortedNodes.remove (path);
+
+                SortedMap<String, INode> subtree = this.sortedNodes.subMap (path + ".", path + '/');
+                for (Map.Entry<String, INode> entry : subtree.entrySet ()) {
+                        this.nodes.remove (entry.getKey ());
+                        this.paths.remove (entry.getValue ());
+                }
+
+                subtree.clear ();
+                this.shadowedNodes.subMap (path + ".", path + '/').clear ();
+        }
+
+        /**
+         * Records the removal of a shadowed sibling.
+         *
+         * @param path The node path.
+         */
+        private void unshadow (@Nonnull String path) {
+                this.shadowedNodes.computeIfPresent (path, (k, count) -> (count > 1 ? (count - 1) : null));
+        }
+
+        /**
+         * Retrieves the path prefix of the children of a container.
+         *
+         * @param container The container.
+         * @return The prefix or null if the container is not indexed (or the index has not been built yet).
+         */
+        @Nullable
+        private String prefix (@Nonnull IObjectNode container) {
+                if (this.dirty) { return null; }
+                if (container == this.document) { return ""; }
+
+                String path = this.paths.get (container);
+                return (path != null ? path + "." : null);
+        }
+
+        /**
+         * Rebuilds the entire index if it has not been built yet or has been invalidated.
+         */
+        private void update () {
+                if (!this.dirty) { return; }
+
+                synchronized (this.nodes) {
+                        if (!this.dirty) { return; }
+
+                        this.nodes.clear ();
+                        this.sortedNodes.clear ();
+                        this.paths.clear ();
+                        this.shadowedNodes.clear ();
+
+                        this.indexChildren (this.document, "");
+                        this.dirty = false;
+                }
+        }
+
+        /**
+         * Locates the first child of a certain name.
+         *
+         * @param container The container.
+         * @param name      The case-folded name.
+         * @return The child or null if no such child exists.
+         */
+        @Nullable
+        private static INode first (@Nonnull IObjectNode container, @Nonnull String name) {
+                for (INode node : container) {
+                        if (name.equals (key (node))) { return node; }
+                }
+
+                return null;
+        }
+
+        /**
+         * Retrieves the case-folded name of a node.
+         */
+        @Nullable
+        private static String key (@Nonnull INode node) {
+                if (node instanceof AbstractNamedNode) { return ((AbstractNamedNode) node).nameKey (); }
+                if (node instanceof INamedNode) { return AbstractNamedNode.foldName (((INamedNode) node).name ()); }
+                return null;
+        }
+}
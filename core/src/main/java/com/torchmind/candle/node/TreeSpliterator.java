@@ -0,0 +1,270 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.IObjectNode;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Traverses all nodes within a subtree in document order (pre-order).
+ *
+ * The traversal may be restricted by a {@link com.torchmind.candle.node.TreeSpliterator.Filter} which carries a state
+ * from each container to its children (for instance the matching states of a compiled query). Subtrees are only
+ * descended into when the filter permits it.
+ *
+ * Splits are performed at the outermost object which still has multiple pending children. When possible, the split
+ * point is placed between two nested objects such that both halves receive the same amount of containers (which carry
+ * the bulk of the work in large documents) rather than the same amount of direct children.
+ *
+ * @author Johannes Donath
+ */
+final class TreeSpliterator implements Spliterator<INode> {
+        private final Filter filter;
+        private final List<Frame> frames;
+        private long estimate;
+
+        TreeSpliterator (@Nonnull IObjectNode node) {
+                this (node, Filter.ALL);
+        }
+
+        TreeSpliterator (@Nonnull IObjectNode node, @Nonnull Filter filter) {
+                this.filter = filter;
+                this.frames = new ArrayList<> ();
+                this.frames.add (new Frame (filter.initialState (), node.iterator ()));
+                this.estimate = Long.MAX_VALUE;
+        }
+
+        private TreeSpliterator (@Nonnull Filter filter, @Nonnull List<Frame> frames, long estimate) {
+                this.filter = filter;
+                this.frames = frames;
+                this.estimate = estimate;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance (Consumer<? super INode> action) {
+                while (!this.frames.isEmpty ()) {
+                        Frame frame = this.frames.get (this.frames.size () - 1);
+                        if (!frame.iterator.hasNext ()) {
+                                this.frames.remove (this.frames.size () - 1);
+                                continue;
+                        }
+
+                        INode node = frame.iterator.next ();
+                        long state = this.filter.advance (frame.state, node);
+                        if (state == 0) { continue; }
+
+                        // descend first so that the subtree is visited right after the node itself
+                        if (node instanceof IObjectNode && this.filter.descend (state)) {
+                                this.frames.add (new Frame (state, ((IObjectNode) node).iterator ()));
+                        }
+
+                        if (this.filter.accept (state, node)) {
+                                action.accept (node);
+                                return true;
+                        }
+                }
+
+                return false;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void forEachRemaining (Consumer<? super INode> action) {
+                while (!this.frames.isEmpty ()) {
+                        Frame frame = this.frames.remove (this.frames.size () - 1);
+                        Iterator<INode> iterator = frame.iterator;
+                        long state = frame.state;
+
+                        while (iterator.hasNext ()) {
+                                INode node = iterator.next ();
+                                long next = this.filter.advance (state, node);
+                                if (next == 0) { continue; }
+
+                                if (this.filter.accept (next, node)) { action.accept (node); }
+
+                                if (node instanceof IObjectNode && this.filter.descend (next)) {
+                                        this.frames.add (new Frame (state, iterator));
+                                        iterator = ((IObjectNode) node).iterator ();
+                                        state = next;
+                                }
+                        }
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator<INode> trySplit () {
+                for (int i = 0; i < this.frames.size (); i++) {
+                        Frame frame = this.frames.get (i);
+
+                        List<INode> pending = new ArrayList<> ();
+                        frame.iterator.forEachRemaining (pending::add);
+
+                        int middle = split (pending);
+                        if (middle == -1) {
+                                this.frames.set (i, new Frame (frame.state, pending.iterator ()));
+                                continue;
+                        }
+
+                        // the prefix (all deeper frames and the first part of this frame) is handed off
+                        List<Frame> prefix = new ArrayList<> (this.frames.subList (i + 1, this.frames.size ()));
+                        prefix.add (0, new Frame (frame.state, pending.subList (0, middle).iterator ()));
+
+                        this.frames.subList (i, this.frames.size ()).clear ();
+                        this.frames.add (new Frame (frame.state, pending.subList (middle, pending.size ()).iterator ()));
+
+                        this.estimate >>>= 1;
+                        return new TreeSpliterator (this.filter, prefix, this.estimate);
+                }
+
+                return null;
+        }
+
+        /**
+         * Selects a split point within a list of pending siblings.
+         *
+         * @param pending The pending siblings.
+         * @return The index of the first node within the second half or -1 if the list cannot be split.
+         */
+        private static int split (@Nonnull List<INode> pending) {
+                if (pending.size () < 2) { return -1; }
+
+                int containers = 0;
+                for (INode node : pending) {
+                        if (node instanceof IObjectNode) { containers++; }
+                }
+
+                if (containers < 2) { return (pending.size () / 2); }
+
+                int target = (containers / 2);
+                for (int i = 0; i < pending.size (); i++) {
+                        if (!(pending.get (i) instanceof IObjectNode)) { continue; }
+                        if (target-- == 0) { return i; }
+                }
+
+                return (pending.size () / 2);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long estimateSize () {
+                return this.estimate;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int characteristics () {
+                return (ORDERED | NONNULL);
+        }
+
+        /**
+         * Decides which nodes are reported and which objects are descended into.
+         * Each node is assigned a state derived from the state of its container; a state of zero excludes the node
+         * along with its entire subtree.
+         */
+        interface Filter {
+
+                /**
+                 * Reports all nodes.
+                 */
+                Filter ALL = new Filter () {
+                        @Override
+                        public long initialState () {
+                                return 1;
+                        }
+
+                        @Override
+                        public long advance (long state, @Nonnull INode node) {
+                                return state;
+                        }
+
+                        @Override
+                        public boolean descend (long state) {
+                                return true;
+                        }
+
+                        @Override
+                        public boolean accept (long state, @Nonnull INode node) {
+                                return true;
+                        }
+                };
+
+                /**
+                 * Retrieves the state of the children of the traversal root.
+                 *
+                 * @return The state.
+                 */
+                long initialState ();
+
+                /**
+                 * Computes the state of a node.
+                 *
+                 * @param state The state of the enclosing container.
+                 * @param node  The node.
+                 * @return The state of the node or zero if the node and its subtree are to be skipped.
+                 */
+                long advance (long state, @Nonnull INode node);
+
+                /**
+                 * Checks whether the children of an object are to be visited.
+                 *
+                 * @param state The state of the object.
+                 * @return True if the object is to be descended into.
+                 */
+                boolean descend (long state);
+
+                /**
+                 * Checks whether a node is to be reported.
+                 *
+                 * @param state The state of the node.
+                 * @param node  The node.
+                 * @return True if the node is to be reported.
+                 */
+                boolean accept (long state, @Nonnull INode node);
+        }
+
+        /**
+         * Represents the pending children of a container along with the state they are evaluated against.
+         */
+        private static final class Frame {
+                private final long state;
+                private final Iterator<INode> iterator;
+
+                public Frame (long state, @Nonnull Iterator<INode> iterator) {
+                        this.state = state;
+                        this.iterator = iterator;
+                }
+        }
+}
@@ -0,0 +1,521 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
+import com.torchmind.candle.api.IObjectNode;
+import com.torchmind.candle.api.ITreeListener;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Memoizes typed values read from an object node.
+ *
+ * Each value is computed once per path and requested type using the regular (validating) accessors of
+ * {@link com.torchmind.candle.api.IObjectNode} and is served from the cache afterwards. Every cached value records the
+ * names it was resolved through within each container along its path as well as the property itself. A value is thus
+ * only discarded when the property is modified or when a node of a matching name is added to, removed from or renamed
+ * within one of its containers. Failed reads are not cached.
+ *
+ * Arrays are cached as well but copied before they are returned.
+ *
+ * The cache listens for modifications of the document which owns the node and thus has to be closed once it is no
+ * longer needed. Nodes within documents which do not support listeners are rejected upon construction.
+ *
+ * @author Johannes Donath
+ */
+public class ValueCache implements ITreeListener, AutoCloseable {
+        private static final Object NULL = new Object ();
+
+        private final IObjectNode node;
+        private final ConcurrentMap<Key, Object> values = new ConcurrentHashMap<> ();
+        private final Map<INode, Set<Key>> dependents = new IdentityHashMap<> ();
+        private final Map<INode, Map<String, Set<Key>>> childDependents = new IdentityHashMap<> ();
+        private final Map<INode, Set<Key>> renameDependents = new IdentityHashMap<> ();
+        private volatile long modifications = 0;
+
+        public ValueCache (@Nonnull IObjectNode node) {
+                this.node = node;
+                this.node.document ().addListener (this);
+        }
+
+        /**
+         * Stops listening for modifications and discards all cached values.
+         */
+        @Override
+        public void close () {
+                this.node.document ().removeListener (this);
+                this.invalidateAll ();
+        }
+
+        /**
+         * Retrieves a memoized value.
+         *
+         * @param name The node name or path.
+         * @param type The type discriminator (distinguishes different representations of the same node).
+         * @param reader The function which computes the value.
+         * @param <R>  The value type.
+         * @return The value.
+         */
+        @Nullable
+        @SuppressWarnings ("unchecked")
+        public <R> R get (@Nonnull String name, @Nonnull Object type, @Nonnull Function<String, R> reader) {
+                Key key = new Key (name, type);
+
+                Object value = this.values.get (key);
+                if (value != null) { return (value == NULL ? null : ((R) value)); }
+
+                // values which are computed while the tree is modified are returned but never cached
+                long modifications = this.modifications;
+
+                R result = reader.apply (name);
+                NodePath path = NodePath.compile (name);
+                List<INode> nodes = this.resolve (path);
+
+                synchronized (this.dependents) {
+                        if (modifications != this.modifications) { return result; }
+
+                        for (int i = 1; i < nodes.size (); i++) {
+                                this.childDependents.computeIfAbsent (nodes.get (i - 1), (n) -> new HashMap<> ()).computeIfAbsent (path.key (i - 1), (k) -> new HashSet<> ()).add (key);
+                                (i == (nodes.size () - 1) ? this.dependents : this.renameDependents).computeIfAbsent (nodes.get (i), (n) -> new HashSet<> ()).add (key);
+                        }
+
+                        this.values.put (key, (result == null ? NULL : result));
+                }
+
+                return result;
+        }
+
+        /**
+         * Retrieves a memoized boolean value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getBoolean(String)
+         */
+        public boolean getBoolean (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, boolean.class, this.node::getBoolean);
+        }
+
+        /**
+         * Retrieves a memoized copy of a boolean array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getBooleanArray(String)
+         */
+        @Nullable
+        public boolean[] getBooleanArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                boolean[] array = this.get (name, boolean[].class, this.node::getBooleanArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized double value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getDouble(String)
+         */
+        public double getDouble (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, double.class, this.node::getDouble);
+        }
+
+        /**
+         * Retrieves a memoized copy of a double array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getDoubleArray(String)
+         */
+        @Nullable
+        public double[] getDoubleArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                double[] array = this.get (name, double[].class, this.node::getDoubleArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized enum value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getEnum(String, Class)
+         */
+        @Nullable
+        public <T extends Enum> T getEnum (@Nonnull String name, @Nonnull Class<T> enumType) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, enumType, (n) -> this.node.getEnum (n, enumType));
+        }
+
+        /**
+         * Retrieves a memoized copy of an enum array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getEnumArray(String, Class)
+         */
+        @Nullable
+        public <T extends Enum> T[] getEnumArray (@Nonnull String name, @Nonnull Class<T> enumType) throws IllegalStateException, NoSuchElementException {
+                T[] array = this.get (name, new ArrayType (enumType), (n) -> this.node.getEnumArray (n, enumType));
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized float value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getFloat(String)
+         */
+        public float getFloat (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, float.class, this.node::getFloat);
+        }
+
+        /**
+         * Retrieves a memoized copy of a float array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getFloatArray(String)
+         */
+        @Nullable
+        public float[] getFloatArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                float[] array = this.get (name, float[].class, this.node::getFloatArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized integer value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getInteger(String)
+         */
+        public int getInteger (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, int.class, this.node::getInteger);
+        }
+
+        /**
+         * Retrieves a memoized copy of an integer array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getIntegerArray(String)
+         */
+        @Nullable
+        public int[] getIntegerArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                int[] array = this.get (name, int[].class, this.node::getIntegerArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized long value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getLong(String)
+         */
+        public long getLong (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, long.class, this.node::getLong);
+        }
+
+        /**
+         * Retrieves a memoized copy of a long array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getLongArray(String)
+         */
+        @Nullable
+        public long[] getLongArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                long[] array = this.get (name, long[].class, this.node::getLongArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized string value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getString(String)
+         */
+        @Nullable
+        public String getString (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, String.class, this.node::getString);
+        }
+
+        /**
+         * Retrieves a memoized copy of a string array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getStringArray(String)
+         */
+        @Nullable
+        public String[] getStringArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                String[] array = this.get (name, String[].class, this.node::getStringArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized unsigned double value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedDouble(String)
+         */
+        public double getUnsignedDouble (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, Unsigned.DOUBLE, this.node::getUnsignedDouble);
+        }
+
+        /**
+         * Retrieves a memoized copy of an unsigned double array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedDoubleArray(String)
+         */
+        @Nullable
+        public double[] getUnsignedDoubleArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                double[] array = this.get (name, Unsigned.DOUBLE_ARRAY, this.node::getUnsignedDoubleArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized unsigned float value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedFloat(String)
+         */
+        public float getUnsignedFloat (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, Unsigned.FLOAT, this.node::getUnsignedFloat);
+        }
+
+        /**
+         * Retrieves a memoized copy of an unsigned float array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedFloatArray(String)
+         */
+        @Nullable
+        public float[] getUnsignedFloatArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                float[] array = this.get (name, Unsigned.FLOAT_ARRAY, this.node::getUnsignedFloatArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized unsigned integer value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedInteger(String)
+         */
+        public int getUnsignedInteger (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, Unsigned.INTEGER, this.node::getUnsignedInteger);
+        }
+
+        /**
+         * Retrieves a memoized copy of an unsigned integer array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedIntegerArray(String)
+         */
+        @Nullable
+        public int[] getUnsignedIntegerArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                int[] array = this.get (name, Unsigned.INTEGER_ARRAY, this.node::getUnsignedIntegerArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Retrieves a memoized unsigned long value.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedLong(String)
+         */
+        public long getUnsignedLong (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                return this.get (name, Unsigned.LONG, this.node::getUnsignedLong);
+        }
+
+        /**
+         * Retrieves a memoized copy of an unsigned long array.
+         *
+         * @see com.torchmind.candle.api.IObjectNode#getUnsignedLongArray(String)
+         */
+        @Nullable
+        public long[] getUnsignedLongArray (@Nonnull String name) throws IllegalStateException, NoSuchElementException {
+                long[] array = this.get (name, Unsigned.LONG_ARRAY, this.node::getUnsignedLongArray);
+                return (array != null ? array.clone () : null);
+        }
+
+        /**
+         * Discards all cached values.
+         */
+        public void invalidateAll () {
+                synchronized (this.dependents) {
+                        this.modifications++;
+                        this.values.clear ();
+                        this.dependents.clear ();
+                        this.childDependents.clear ();
+                        this.renameDependents.clear ();
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onAddition (@Nonnull IObjectNode container, @Nonnull INode node) {
+                this.onStructuralModification (container, node);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onModification (@Nonnull INode node) {
+                synchronized (this.dependents) {
+                        this.modifications++;
+                        this.invalidate (this.dependents.remove (node));
+                }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onRemoval (@Nonnull IObjectNode container, @Nonnull INode node) {
+                this.onStructuralModification (container, node);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onRename (@Nonnull INamedNode node, @Nonnull String previousName) {
+                String key = AbstractNamedNode.foldName (node.name ());
+
+                synchronized (this.dependents) {
+                        this.modifications++;
+
+                        // values which were resolved through the node or which may now resolve to it are affected
+                        this.invalidate (this.renameDependents.remove (node));
+                        this.childDependents.values ().forEach ((c) -> this.invalidate (c.remove (key)));
+                }
+        }
+
+        /**
+         * Discards all values which were resolved through a node of the same name as an added or removed node.
+         *
+         * @param container The container.
+         * @param node      The added or removed node.
+         */
+        private void onStructuralModification (@Nonnull IObjectNode container, @Nonnull INode node) {
+                synchronized (this.dependents) {
+                        this.modifications++;
+
+                        Map<String, Set<Key>> children = this.childDependents.get (container);
+                        if (children == null || !(node instanceof INamedNode)) { return; }
+
+                        this.invalidate (children.remove (AbstractNamedNode.foldName (((INamedNode) node).name ())));
+                }
+        }
+
+        /**
+         * Discards a set of values.
+         * Callers are expected to hold the lock on {@link #dependents}.
+         *
+         * @param keys The keys (may be null).
+         */
+        private void invalidate (@Nullable Set<Key> keys) {
+                if (keys == null) { return; }
+                for (Key key : keys) { this.values.remove (key); }
+        }
+
+        /**
+         * Retrieves the amount of cached values.
+         *
+         * @return The amount.
+         */
+        public int size () {
+                return this.values.size ();
+        }
+
+        /**
+         * Resolves all nodes a value depends on.
+         *
+         * @param path The node path.
+         * @return The containers along the path followed by the node itself.
+         */
+        @Nonnull
+        private List<INode> resolve (@Nonnull NodePath path) {
+                List<INode> nodes = new ArrayList<> (path.length () + 1);
+
+                IObjectNode container = this.node;
+                nodes.add (container);
+
+                for (int i = 0; i < path.length (); i++) {
+                        INode node = container.get (path.name (i));
+                        nodes.add (node);
+
+                        if (!(node instanceof IObjectNode)) { break; }
+                        container = ((IObjectNode) node);
+                }
+
+                return nodes;
+        }
+
+        /**
+         * Distinguishes unsigned representations from their signed counterparts.
+         */
+        private enum Unsigned {
+                DOUBLE,
+                DOUBLE_ARRAY,
+                FLOAT,
+                FLOAT_ARRAY,
+                INTEGER,
+                INTEGER_ARRAY,
+                LONG,
+                LONG_ARRAY
+        }
+
+        /**
+         * Distinguishes enum arrays from single enum values of the same type.
+         */
+        private static class ArrayType {
+                private final Class<?> itemType;
+
+                public ArrayType (@Nonnull Class<?> itemType) {
+                        this.itemType = itemType;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean equals (Object o) {
+                        return (o instanceof ArrayType && ((ArrayType) o).itemType == this.itemType);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int hashCode () {
+                        return (31 * this.itemType.hashCode ());
+                }
+        }
+
+        /**
+         * Identifies a cached value.
+         */
+        private static class Key {
+                private final String name;
+                private final Object type;
+
+                public Key (@Nonnull String name, @Nonnull Object type) {
+                        this.name = name;
+                        this.type = type;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean equals (Object o) {
+                        if (this == o) { return true; }
+                        if (!(o instanceof Key)) { return false; }
+
+                        Key key = ((Key) o);
+                        return this.name.equals (key.name) && this.type.equals (key.type);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int hashCode () {
+                        return (31 * this.name.hashCode () + this.type.hashCode ());
+                }
+        }
+}
@@ -18,8 +18,10 @@ package com.torchmind.candle.node.property;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents a boolean within the node tree.
@@ -50,6 +52,7 @@ public class BooleanPropertyNode extends AbstractPropertyNode {
          */
         @Nonnull
         public BooleanPropertyNode value (boolean value) {
+                this.ensureMutable ();
                 this.value = value;
                 return this;
         }
@@ -63,6 +66,15 @@ public class BooleanPropertyNode extends AbstractPropertyNode {
                 return NodeValueType.BOOLEAN;
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -18,8 +18,10 @@ package com.torchmind.candle.node.property;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents a default value.
@@ -50,6 +52,15 @@ public class DefaultPropertyNode extends AbstractPropertyNode {
                 return NodeValueType.DEFAULT;
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node.property;
+
+import com.torchmind.candle.node.AbstractNamedNode;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves enum constants by name.
+ *
+ * Lookup tables are created once per enum type and are shared by all nodes. Names are matched exactly first and
+ * case-insensitively (the same way object and property names are matched) otherwise. Case-insensitive matches are only
+ * permitted when they are unambiguous (e.g. when no two constants of the enum differ solely by case).
+ *
+ * @author Johannes Donath
+ */
+public final class EnumLookup {
+        private static final ClassValue<EnumLookup> LOOKUPS = new ClassValue<EnumLookup> () {
+                @Override
+                protected EnumLookup computeValue (Class<?> type) {
+                        return new EnumLookup (type);
+                }
+        };
+
+        private final Map<String, Enum> constants = new HashMap<> ();
+        private final Map<String, Enum> foldedConstants = new HashMap<> ();
+
+        private EnumLookup (@Nonnull Class<?> enumType) {
+                Object[] values = enumType.getEnumConstants ();
+                if (values == null) { return; }
+
+                Set<String> ambiguousKeys = new HashSet<> ();
+                for (Object value : values) {
+                        Enum constant = ((Enum) value);
+                        String key = AbstractNamedNode.foldName (constant.name ());
+
+                        this.constants.put (constant.name (), constant);
+                        if (this.foldedConstants.put (key, constant) != null) { ambiguousKeys.add (key); }
+                }
+
+                this.foldedConstants.keySet ().removeAll (ambiguousKeys);
+        }
+
+        /**
+         * Retrieves the lookup table for an enum type.
+         *
+         * @param enumType The enum type.
+         * @return The lookup table.
+         */
+        @Nonnull
+        public static EnumLookup of (@Nonnull Class<? extends Enum> enumType) {
+                return LOOKUPS.get (enumType);
+        }
+
+        /**
+         * Resolves a constant.
+         *
+         * @param name The constant name.
+         * @return The constant or null if no such constant exists.
+         */
+        @Nullable
+        public Enum find (@Nonnull String name) {
+                Enum constant = this.constants.get (name);
+                if (constant != null) { return constant; }
+
+                return this.foldedConstants.get (AbstractNamedNode.foldName (name));
+        }
+
+        /**
+         * Resolves a constant.
+         *
+         * @param enumType The enum type.
+         * @param name     The constant name.
+         * @param <T>      The enum type.
+         * @return The constant.
+         *
+         * @throws java.lang.IllegalStateException when the enum does not contain a matching constant.
+         */
+        @Nonnull
+        @SuppressWarnings ("unchecked")
+        public static <T extends Enum> T resolve (@Nonnull Class<T> enumType, @Nonnull String name) throws IllegalStateException {
+                Enum constant = of (enumType).find (name);
+
+                if (constant == null) {
+                        throw new IllegalStateException ("Enum of type " + enumType.getCanonicalName () + " does not contain possible value \"" + name + "\"");
+                }
+
+                return ((T) constant);
+        }
+}
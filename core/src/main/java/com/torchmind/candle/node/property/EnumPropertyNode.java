@@ -18,8 +18,10 @@ package com.torchmind.candle.node.property;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents an enum value within the tree.
@@ -28,6 +30,7 @@ import javax.annotation.Nonnull;
  */
 public class EnumPropertyNode extends AbstractPropertyNode {
         private String value;
+        private volatile Resolution resolution;
 
         public EnumPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull String value) {
                 super (documentNode, name);
@@ -59,12 +62,16 @@ public class EnumPropertyNode extends AbstractPropertyNode {
          */
         @Nonnull
         public EnumPropertyNode value (String value) {
+                this.ensureMutable ();
                 this.value = value;
+                this.resolution = null;
                 return this;
         }
 
         /**
          * Retrieves the enum value.
+         * The constant is resolved once per enum type and cached until the value is changed. Names are matched
+         * case-insensitively unless this is ambiguous for the enum type.
          *
          * @param enumType The enum type.
          * @param <T>      The enum type.
@@ -73,13 +80,14 @@ public class EnumPropertyNode extends AbstractPropertyNode {
          * @throws java.lang.IllegalStateException when the enum does not contain the node value.
          */
         @Nonnull
+        @SuppressWarnings ("unchecked")
         public <T extends Enum> T value (@Nonnull Class<T> enumType) throws IllegalStateException {
-                try {
-                        // Looks unneeded, should be unneeded, isn't unneeded ...
-                        return ((T) Enum.valueOf (enumType, this.value ()));
-                } catch (IllegalArgumentException ex) {
-                        throw new IllegalStateException ("Enum of type " + enumType.getCanonicalName () + " does not contain possible value \"" + this.value () + "\"", ex);
-                }
+                Resolution resolution = this.resolution;
+                if (resolution != null && resolution.enumType == enumType) { return ((T) resolution.constant); }
+
+                T constant = EnumLookup.resolve (enumType, this.value ());
+                this.resolution = new Resolution (enumType, constant);
+                return constant;
         }
 
         /**
@@ -103,6 +111,15 @@ public class EnumPropertyNode extends AbstractPropertyNode {
                 return NodeValueType.ENUM;
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -110,4 +127,17 @@ public class EnumPropertyNode extends AbstractPropertyNode {
         public String toString () {
                 return String.format ("EnumPropertyNode{%s,value=%s}", super.toString (), this.value ());
         }
+
+        /**
+         * Represents the constant a value resolved to for a certain enum type.
+         */
+        private static class Resolution {
+                private final Class<?> enumType;
+                private final Enum constant;
+
+                public Resolution (@Nonnull Class<?> enumType, @Nonnull Enum constant) {
+                        this.enumType = enumType;
+                        this.constant = constant;
+                }
+        }
 }
@@ -18,9 +18,11 @@ package com.torchmind.candle.node.property;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents a float value within the tree.
@@ -53,6 +55,7 @@ public class FloatPropertyNode extends AbstractPropertyNode {
          */
         @Nonnull
         public FloatPropertyNode value (float value) {
+                this.ensureMutable ();
                 this.value = value;
                 return this;
         }
@@ -81,6 +84,15 @@ public class FloatPropertyNode extends AbstractPropertyNode {
                 return this.value ();
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -18,9 +18,11 @@ package com.torchmind.candle.node.property;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents an integer value within the tree.
@@ -48,6 +50,7 @@ public class IntegerPropertyNode extends AbstractPropertyNode {
          */
         @Nonnull
         public IntegerPropertyNode value (int value) {
+                this.ensureMutable ();
                 this.value = value;
                 return this;
         }
@@ -72,6 +75,15 @@ public class IntegerPropertyNode extends AbstractPropertyNode {
                 return this.value ();
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -18,8 +18,10 @@ package com.torchmind.candle.node.property;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents a string value within the tree.
@@ -51,6 +53,7 @@ public class StringPropertyNode extends AbstractPropertyNode {
          */
         @Nonnull
         public StringPropertyNode value (@Nonnull String value) {
+                this.ensureMutable ();
                 this.value = value;
                 return this;
         }
@@ -64,6 +67,15 @@ public class StringPropertyNode extends AbstractPropertyNode {
                 return NodeValueType.STRING;
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         @Override
         public String toString () {
                 return String.format ("StringPropertyNode{%s,value=\"%s\"}", super.toString (), this.value ());
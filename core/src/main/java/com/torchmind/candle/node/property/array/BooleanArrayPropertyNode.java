@@ -18,9 +18,15 @@ package com.torchmind.candle.node.property.array;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Represents a boolean array property within the tree.
@@ -45,27 +51,42 @@ public class BooleanArrayPropertyNode extends AbstractArrayPropertyNode {
         }
 
         /**
-         * Retrieves the boolean array.
+         * Retrieves a copy of the boolean array.
+         * Use {@link #get(int)} or {@link #values()} to access the values without copying them.
          *
          * @return The array.
          */
         @Nonnull
         public boolean[] array () {
-                return this.array;
+                return this.array.clone ();
         }
 
         /**
          * Sets the boolean array.
+         * The array is used as is (e.g. it is not copied) and should not be modified afterwards.
          *
          * @param array The array.
          * @return The node.
          */
         @Nonnull
         public BooleanArrayPropertyNode array (@Nonnull boolean[] array) {
+                this.ensureMutable ();
                 this.array = array;
                 return this;
         }
 
+        /**
+         * Retrieves a single boolean value.
+         *
+         * @param index The index.
+         * @return The value.
+         *
+         * @throws java.lang.IndexOutOfBoundsException when the index exceeds the array bounds.
+         */
+        public boolean get (@Nonnegative int index) throws IndexOutOfBoundsException {
+                return this.array[index];
+        }
+
         @Nonnull
         @Override
         public NodeValueType itemType () {
@@ -77,11 +98,58 @@ public class BooleanArrayPropertyNode extends AbstractArrayPropertyNode {
                 return this.array.length;
         }
 
+        /**
+         * Retrieves a read-only list view of the boolean values.
+         * This method does not copy the values.
+         *
+         * @return The list.
+         */
+        @Nonnull
+        public List<Boolean> values () {
+                return new BooleanList (this.array);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public String toString () {
-                return String.format ("BooleanArrayPropertyNode{%s,array=%s}", super.toString (), Arrays.toString (this.array ()));
+                return String.format ("BooleanArrayPropertyNode{%s,array=%s}", super.toString (), Arrays.toString (this.array));
+        }
+
+        /**
+         * Provides a read-only list view of a boolean array.
+         */
+        private static class BooleanList extends AbstractList<Boolean> implements RandomAccess {
+                private final boolean[] array;
+
+                public BooleanList (@Nonnull boolean[] array) {
+                        this.array = array;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public Boolean get (int index) {
+                        return this.array[index];
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int size () {
+                        return this.array.length;
+                }
         }
 }
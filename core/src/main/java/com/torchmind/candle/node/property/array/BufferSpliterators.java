@@ -0,0 +1,312 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node.property.array;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Provides spliterators which read straight from numeric buffers using absolute indices.
+ *
+ * @author Johannes Donath
+ */
+final class BufferSpliterators {
+        private static final int CHARACTERISTICS = (Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+
+        private BufferSpliterators () {
+        }
+
+        /**
+         * Iterates over a double buffer.
+         */
+        static final class DoubleBufferSpliterator implements Spliterator.OfDouble {
+                private final DoubleBuffer buffer;
+                private int index;
+                private final int limit;
+
+                DoubleBufferSpliterator (@Nonnull DoubleBuffer buffer) {
+                        this (buffer, buffer.position (), buffer.limit ());
+                }
+
+                private DoubleBufferSpliterator (@Nonnull DoubleBuffer buffer, @Nonnegative int index, @Nonnegative int limit) {
+                        this.buffer = buffer;
+                        this.index = index;
+                        this.limit = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int characteristics () {
+                        return CHARACTERISTICS;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public long estimateSize () {
+                        return (this.limit - this.index);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void forEachRemaining (@Nonnull DoubleConsumer action) {
+                        int limit = this.limit;
+                        for (int i = this.index; i < limit; i++) { action.accept (this.buffer.get (i)); }
+                        this.index = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean tryAdvance (@Nonnull DoubleConsumer action) {
+                        if (this.index >= this.limit) { return false; }
+                        action.accept (this.buffer.get (this.index++));
+                        return true;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public DoubleBufferSpliterator trySplit () {
+                        int middle = ((this.index + this.limit) >>> 1);
+                        if (middle <= this.index) { return null; }
+
+                        DoubleBufferSpliterator prefix = new DoubleBufferSpliterator (this.buffer, this.index, middle);
+                        this.index = middle;
+                        return prefix;
+                }
+        }
+
+        /**
+         * Iterates over a float buffer (widening each element to double).
+         */
+        static final class FloatBufferSpliterator implements Spliterator.OfDouble {
+                private final FloatBuffer buffer;
+                private int index;
+                private final int limit;
+
+                FloatBufferSpliterator (@Nonnull FloatBuffer buffer) {
+                        this (buffer, buffer.position (), buffer.limit ());
+                }
+
+                private FloatBufferSpliterator (@Nonnull FloatBuffer buffer, @Nonnegative int index, @Nonnegative int limit) {
+                        this.buffer = buffer;
+                        this.index = index;
+                        this.limit = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int characteristics () {
+                        return CHARACTERISTICS;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public long estimateSize () {
+                        return (this.limit - this.index);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void forEachRemaining (@Nonnull DoubleConsumer action) {
+                        int limit = this.limit;
+                        for (int i = this.index; i < limit; i++) { action.accept (this.buffer.get (i)); }
+                        this.index = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean tryAdvance (@Nonnull DoubleConsumer action) {
+                        if (this.index >= this.limit) { return false; }
+                        action.accept (this.buffer.get (this.index++));
+                        return true;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public FloatBufferSpliterator trySplit () {
+                        int middle = ((this.index + this.limit) >>> 1);
+                        if (middle <= this.index) { return null; }
+
+                        FloatBufferSpliterator prefix = new FloatBufferSpliterator (this.buffer, this.index, middle);
+                        this.index = middle;
+                        return prefix;
+                }
+        }
+
+        /**
+         * Iterates over an integer buffer.
+         */
+        static final class IntBufferSpliterator implements Spliterator.OfInt {
+                private final IntBuffer buffer;
+                private int index;
+                private final int limit;
+
+                IntBufferSpliterator (@Nonnull IntBuffer buffer) {
+                        this (buffer, buffer.position (), buffer.limit ());
+                }
+
+                private IntBufferSpliterator (@Nonnull IntBuffer buffer, @Nonnegative int index, @Nonnegative int limit) {
+                        this.buffer = buffer;
+                        this.index = index;
+                        this.limit = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int characteristics () {
+                        return CHARACTERISTICS;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public long estimateSize () {
+                        return (this.limit - this.index);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void forEachRemaining (@Nonnull IntConsumer action) {
+                        int limit = this.limit;
+                        for (int i = this.index; i < limit; i++) { action.accept (this.buffer.get (i)); }
+                        this.index = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean tryAdvance (@Nonnull IntConsumer action) {
+                        if (this.index >= this.limit) { return false; }
+                        action.accept (this.buffer.get (this.index++));
+                        return true;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public IntBufferSpliterator trySplit () {
+                        int middle = ((this.index + this.limit) >>> 1);
+                        if (middle <= this.index) { return null; }
+
+                        IntBufferSpliterator prefix = new IntBufferSpliterator (this.buffer, this.index, middle);
+                        this.index = middle;
+                        return prefix;
+                }
+        }
+
+        /**
+         * Iterates over a long buffer.
+         */
+        static final class LongBufferSpliterator implements Spliterator.OfLong {
+                private final LongBuffer buffer;
+                private int index;
+                private final int limit;
+
+                LongBufferSpliterator (@Nonnull LongBuffer buffer) {
+                        this (buffer, buffer.position (), buffer.limit ());
+                }
+
+                private LongBufferSpliterator (@Nonnull LongBuffer buffer, @Nonnegative int index, @Nonnegative int limit) {
+                        this.buffer = buffer;
+                        this.index = index;
+                        this.limit = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public int characteristics () {
+                        return CHARACTERISTICS;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public long estimateSize () {
+                        return (this.limit - this.index);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public void forEachRemaining (@Nonnull LongConsumer action) {
+                        int limit = this.limit;
+                        for (int i = this.index; i < limit; i++) { action.accept (this.buffer.get (i)); }
+                        this.index = limit;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public boolean tryAdvance (@Nonnull LongConsumer action) {
+                        if (this.index >= this.limit) { return false; }
+                        action.accept (this.buffer.get (this.index++));
+                        return true;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @Override
+                public LongBufferSpliterator trySplit () {
+                        int middle = ((this.index + this.limit) >>> 1);
+                        if (middle <= this.index) { return null; }
+
+                        LongBufferSpliterator prefix = new LongBufferSpliterator (this.buffer, this.index, middle);
+                        this.index = middle;
+                        return prefix;
+                }
+        }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node.property.array;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Provides factory methods for off-heap array storage.
+ * Buffers created by this class are either allocated directly (outside of the Java heap) or mapped from a file and
+ * thus are neither scanned nor moved by the garbage collector.
+ *
+ * @author Johannes Donath
+ */
+public final class DirectBuffers {
+
+        private DirectBuffers () {
+        }
+
+        /**
+         * Allocates a direct double buffer.
+         *
+         * @param length The amount of elements.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static DoubleBuffer allocateDoubles (@Nonnegative int length) {
+                return allocate (length, 8).asDoubleBuffer ();
+        }
+
+        /**
+         * Allocates a direct float buffer.
+         *
+         * @param length The amount of elements.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static FloatBuffer allocateFloats (@Nonnegative int length) {
+                return allocate (length, 4).asFloatBuffer ();
+        }
+
+        /**
+         * Allocates a direct integer buffer.
+         *
+         * @param length The amount of elements.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static IntBuffer allocateInts (@Nonnegative int length) {
+                return allocate (length, 4).asIntBuffer ();
+        }
+
+        /**
+         * Allocates a direct long buffer.
+         *
+         * @param length The amount of elements.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static LongBuffer allocateLongs (@Nonnegative int length) {
+                return allocate (length, 8).asLongBuffer ();
+        }
+
+        /**
+         * Allocates a direct byte buffer large enough to hold a certain amount of elements.
+         *
+         * @param length      The amount of elements.
+         * @param elementSize The size of a single element (in bytes).
+         * @return The buffer.
+         */
+        @Nonnull
+        private static ByteBuffer allocate (@Nonnegative int length, @Nonnegative int elementSize) {
+                return ByteBuffer.allocateDirect (Math.multiplyExact (length, elementSize)).order (ByteOrder.nativeOrder ());
+        }
+
+        /**
+         * Copies a double array into a direct buffer.
+         *
+         * @param array The array.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static DoubleBuffer copyOf (@Nonnull double[] array) {
+                DoubleBuffer buffer = allocateDoubles (array.length);
+                buffer.put (array).flip ();
+                return buffer;
+        }
+
+        /**
+         * Copies a float array into a direct buffer.
+         *
+         * @param array The array.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static FloatBuffer copyOf (@Nonnull float[] array) {
+                FloatBuffer buffer = allocateFloats (array.length);
+                buffer.put (array).flip ();
+                return buffer;
+        }
+
+        /**
+         * Copies an integer array into a direct buffer.
+         *
+         * @param array The array.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static IntBuffer copyOf (@Nonnull int[] array) {
+                IntBuffer buffer = allocateInts (array.length);
+                buffer.put (array).flip ();
+                return buffer;
+        }
+
+        /**
+         * Copies a long array into a direct buffer.
+         *
+         * @param array The array.
+         * @return The buffer.
+         */
+        @Nonnull
+        public static LongBuffer copyOf (@Nonnull long[] array) {
+                LongBuffer buffer = allocateLongs (array.length);
+                buffer.put (array).flip ();
+                return buffer;
+        }
+
+        /**
+         * Maps a region of a file as a read-only double buffer.
+         * The region is expected to consist of little endian values.
+         *
+         * @param file     The file.
+         * @param position The region offset (in bytes).
+         * @param length   The amount of elements.
+         * @return The buffer.
+         *
+         * @throws java.io.IOException when mapping the file fails.
+         */
+        @Nonnull
+        public static DoubleBuffer mapDoubles (@Nonnull Path file, @Nonnegative long position, @Nonnegative int length) throws IOException {
+                return map (file, position, length, 8).asDoubleBuffer ();
+        }
+
+        /**
+         * Maps a region of a file as a read-only float buffer.
+         * The region is expected to consist of little endian values.
+         *
+         * @param file     The file.
+         * @param position The region offset (in bytes).
+         * @param length   The amount of elements.
+         * @return The buffer.
+         *
+         * @throws java.io.IOException when mapping the file fails.
+         */
+        @Nonnull
+        public static FloatBuffer mapFloats (@Nonnull Path file, @Nonnegative long position, @Nonnegative int length) throws IOException {
+                return map (file, position, length, 4).asFloatBuffer ();
+        }
+
+        /**
+         * Maps a region of a file as a read-only integer buffer.
+         * The region is expected to consist of little endian values.
+         *
+         * @param file     The file.
+         * @param position The region offset (in bytes).
+         * @param length   The amount of elements.
+         * @return The buffer.
+         *
+         * @throws java.io.IOException when mapping the file fails.
+         */
+        @Nonnull
+        public static IntBuffer mapInts (@Nonnull Path file, @Nonnegative long position, @Nonnegative int length) throws IOException {
+                return map (file, position, length, 4).asIntBuffer ();
+        }
+
+        /**
+         * Maps a region of a file as a read-only long buffer.
+         * The region is expected to consist of little endian values.
+         *
+         * @param file     The file.
+         * @param position The region offset (in bytes).
+         * @param length   The amount of elements.
+         * @return The buffer.
+         *
+         * @throws java.io.IOException when mapping the file fails.
+         */
+        @Nonnull
+        public static LongBuffer mapLongs (@Nonnull Path file, @Nonnegative long position, @Nonnegative int length) throws IOException {
+                return map (file, position, length, 8).asLongBuffer ();
+        }
+
+        /**
+         * Maps a region of elements within a file.
+         * The mapping stays valid after the channel has been closed.
+         *
+         * @param file        The file.
+         * @param position    The region offset (in bytes).
+         * @param length      The amount of elements.
+         * @param elementSize The size of a single element (in bytes).
+         * @return The buffer.
+         *
+         * @throws java.io.IOException when mapping the file fails.
+         */
+        @Nonnull
+        private static ByteBuffer map (@Nonnull Path file, @Nonnegative long position, @Nonnegative int length, @Nonnegative int elementSize) throws IOException {
+                try (FileChannel channel = FileChannel.open (file, StandardOpenOption.READ)) {
+                        MappedByteBuffer buffer = channel.map (FileChannel.MapMode.READ_ONLY, position, Math.multiplyExact ((long) length, elementSize));
+                        buffer.order (ByteOrder.LITTLE_ENDIAN);
+                        return buffer;
+                }
+        }
+}
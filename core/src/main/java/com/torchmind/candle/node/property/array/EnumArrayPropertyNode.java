@@ -18,10 +18,16 @@ package com.torchmind.candle.node.property.array;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
+import com.torchmind.candle.node.property.EnumLookup;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents an enum array property within the tree.
@@ -30,6 +36,7 @@ import java.util.Arrays;
  */
 public class EnumArrayPropertyNode extends AbstractArrayPropertyNode {
         private String[] array;
+        private volatile Resolution resolution;
 
         public EnumArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull String[] array) {
                 super (documentNode, name);
@@ -44,48 +51,44 @@ public class EnumArrayPropertyNode extends AbstractArrayPropertyNode {
         }
 
         /**
-         * Retrieves the raw enum array.
+         * Retrieves a copy of the raw enum array.
+         * Use {@link #get(int)} or {@link #values()} to access the values without copying them.
          *
          * @return The array.
          */
         @Nonnull
         public String[] array () {
-                return this.array;
+                return this.array.clone ();
         }
 
         /**
-         * Retrieves the enum array.
+         * Retrieves a copy of the enum array.
+         * Use {@link #get(int, Class)} or {@link #values(Class)} to access the values without copying them.
          *
          * @param enumType The enum type.
          * @param <T>      The enum type.
          * @return The array.
+         *
+         * @throws java.lang.IllegalStateException when the enum does not contain one or more values.
          */
         @Nonnull
         @SuppressWarnings ("unchecked")
-        public <T extends Enum> T[] array (@Nonnull Class<T> enumType) {
-                try {
-                        T[] array = ((T[]) Array.newInstance (enumType, this.length ()));
-
-                        for (int i = 0; i < this.length (); i++) {
-                                String currentElement = this.array ()[i];
-                                array[i] = (currentElement != null ? ((T) Enum.valueOf (enumType, currentElement)) : null);
-                        }
-
-                        return array;
-                } catch (IllegalArgumentException ex) {
-                        throw new IllegalStateException ("Enum contains one or more values not listed by type " + enumType.getCanonicalName () + ": " + ex.getMessage (), ex);
-                }
+        public <T extends Enum> T[] array (@Nonnull Class<T> enumType) throws IllegalStateException {
+                return ((T[]) this.resolve (enumType).constants.clone ());
         }
 
         /**
          * Sets the raw enum array.
+         * The array is used as is (e.g. it is not copied) and should not be modified afterwards.
          *
          * @param array The array.
          * @return The node.
          */
         @Nonnull
         public EnumArrayPropertyNode array (@Nonnull String[] array) {
+                this.ensureMutable ();
                 this.array = array;
+                this.resolution = null;
                 return this;
         }
 
@@ -105,6 +108,36 @@ public class EnumArrayPropertyNode extends AbstractArrayPropertyNode {
                 return this.array (convertedArray);
         }
 
+        /**
+         * Retrieves a single raw enum value.
+         *
+         * @param index The index.
+         * @return The value.
+         *
+         * @throws java.lang.IndexOutOfBoundsException when the index exceeds the array bounds.
+         */
+        @Nullable
+        public String get (@Nonnegative int index) throws IndexOutOfBoundsException {
+                return this.array[index];
+        }
+
+        /**
+         * Retrieves a single enum value.
+         *
+         * @param index    The index.
+         * @param enumType The enum type.
+         * @param <T>      The enum type.
+         * @return The value.
+         *
+         * @throws java.lang.IllegalStateException     when the enum does not contain one or more values.
+         * @throws java.lang.IndexOutOfBoundsException when the index exceeds the array bounds.
+         */
+        @Nullable
+        @SuppressWarnings ("unchecked")
+        public <T extends Enum> T get (@Nonnegative int index, @Nonnull Class<T> enumType) throws IllegalStateException, IndexOutOfBoundsException {
+                return ((T) this.resolve (enumType).constants[index]);
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -122,11 +155,94 @@ public class EnumArrayPropertyNode extends AbstractArrayPropertyNode {
                 return this.array.length;
         }
 
+        /**
+         * Retrieves a read-only list view of the raw enum values.
+         * This method does not copy the values.
+         *
+         * @return The list.
+         */
+        @Nonnull
+        public List<String> values () {
+                return Collections.unmodifiableList (Arrays.asList (this.array));
+        }
+
+        /**
+         * Retrieves a read-only list view of the enum values.
+         * This method does not copy the values.
+         *
+         * @param enumType The enum type.
+         * @param <T>      The enum type.
+         * @return The list.
+         *
+         * @throws java.lang.IllegalStateException when the enum does not contain one or more values.
+         */
+        @Nonnull
+        @SuppressWarnings ("unchecked")
+        public <T extends Enum> List<T> values (@Nonnull Class<T> enumType) throws IllegalStateException {
+                return ((List<T>) this.resolve (enumType).view);
+        }
+
+        /**
+         * Resolves all values for a certain enum type.
+         * The constants are resolved once per enum type and cached until the array is changed.
+         *
+         * @param enumType The enum type.
+         * @return The resolution.
+         *
+         * @throws java.lang.IllegalStateException when the enum does not contain one or more values.
+         */
+        @Nonnull
+        private Resolution resolve (@Nonnull Class<? extends Enum> enumType) throws IllegalStateException {
+                Resolution resolution = this.resolution;
+                if (resolution != null && resolution.enumType == enumType) { return resolution; }
+
+                String[] array = this.array;
+                Enum[] constants = ((Enum[]) Array.newInstance (enumType, array.length));
+                EnumLookup lookup = EnumLookup.of (enumType);
+
+                for (int i = 0; i < array.length; i++) {
+                        if (array[i] == null) { continue; }
+
+                        constants[i] = lookup.find (array[i]);
+                        if (constants[i] == null) {
+                                throw new IllegalStateException ("Enum contains one or more values not listed by type " + enumType.getCanonicalName () + ": " + array[i]);
+                        }
+                }
+
+                resolution = new Resolution (enumType, constants);
+                this.resolution = resolution;
+                return resolution;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public String toString () {
-                return String.format ("EnumArrayPropertyNode{%s,array=%s}", super.toString (), Arrays.toString (this.array ()));
+                return String.format ("EnumArrayPropertyNode{%s,array=%s}", super.toString (), Arrays.toString (this.array));
+        }
+
+        /**
+         * Represents the constants an array resolved to for a certain enum type.
+         */
+        private static class Resolution {
+                private final Class<?> enumType;
+                private final Enum[] constants;
+                private final List<Enum> view;
+
+                public Resolution (@Nonnull Class<?> enumType, @Nonnull Enum[] constants) {
+                        this.enumType = enumType;
+                        this.constants = constants;
+                        this.view = Collections.unmodifiableList (Arrays.asList (constants));
+                }
         }
 }
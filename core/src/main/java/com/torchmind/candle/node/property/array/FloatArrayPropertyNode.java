@@ -18,18 +18,29 @@ package com.torchmind.candle.node.property.array;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a float array within the tree.
+ * The values are either held in a heap array or in an (optionally off-heap) {@link java.nio.FloatBuffer}.
  *
  * @author Johannes Donath
  */
 public class FloatArrayPropertyNode extends AbstractArrayPropertyNode {
         private float[] array;
+        private FloatBuffer buffer;
+        private int firstNegative;
 
         public FloatArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull float[] array) {
                 super (documentNode, name);
@@ -45,25 +56,56 @@ public class FloatArrayPropertyNode extends AbstractArrayPropertyNode {
                 this.array (primitiveArray);
         }
 
+        public FloatArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull FloatBuffer buffer) {
+                super (documentNode, name);
+
+                this.array (buffer);
+        }
+
         /**
-         * Retrieves the float array.
+         * Retrieves a copy of the float array.
+         * Use {@link #buffer()}, {@link #get(int)} or {@link #spliterator()} to access the values without copying them.
          *
          * @return The array.
          */
         @Nonnull
         public float[] array () {
-                return this.array;
+                if (this.array != null) { return this.array.clone (); }
+
+                float[] array = new float[this.buffer.remaining ()];
+                this.buffer.duplicate ().get (array);
+                return array;
         }
 
         /**
          * Sets the float array.
+         * The array is used as is (e.g. it is not copied) and should not be modified afterwards.
          *
          * @param array The array.
          * @return The node.
          */
         @Nonnull
         public FloatArrayPropertyNode array (@Nonnull float[] array) {
+                this.ensureMutable ();
                 this.array = array;
+                this.buffer = null;
+                this.firstNegative = this.findNegative ();
+                return this;
+        }
+
+        /**
+         * Sets the float buffer.
+         * The buffer is used as is (e.g. it is not copied) from its current position up to its limit.
+         *
+         * @param buffer The buffer.
+         * @return The node.
+         */
+        @Nonnull
+        public FloatArrayPropertyNode array (@Nonnull FloatBuffer buffer) {
+                this.ensureMutable ();
+                this.array = null;
+                this.buffer = buffer.slice ();
+                this.firstNegative = this.findNegative ();
                 return this;
         }
 
@@ -75,13 +117,66 @@ public class FloatArrayPropertyNode extends AbstractArrayPropertyNode {
         @Nonnull
         @Nonnegative
         public float[] arrayUnsigned () {
-                for (float current : this.array) {
-                        if (current < 0) {
-                                throw new IllegalStateException ("Expected an unsigned value but got " + current);
-                        }
+                if (this.firstNegative != -1) {
+                        throw new IllegalStateException ("Expected an unsigned value but got " + this.get (this.firstNegative));
                 }
 
-                return this.array;
+                return this.array ();
+        }
+
+        /**
+         * Retrieves a read-only buffer view of the float values.
+         * This method does not copy the values.
+         *
+         * @return The buffer.
+         */
+        @Nonnull
+        public FloatBuffer buffer () {
+                if (this.array != null) { return FloatBuffer.wrap (this.array).asReadOnlyBuffer (); }
+                return this.buffer.asReadOnlyBuffer ();
+        }
+
+        /**
+         * Locates the first negative value.
+         *
+         * @return The index or -1 if all values are unsigned.
+         */
+        private int findNegative () {
+                for (int i = 0; i < this.length (); i++) {
+                        if (this.get (i) < 0) { return i; }
+                }
+
+                return -1;
+        }
+
+        /**
+         * Retrieves a single float value.
+         *
+         * @param index The index.
+         * @return The value.
+         *
+         * @throws java.lang.IndexOutOfBoundsException when the index exceeds the array bounds.
+         */
+        public float get (@Nonnegative int index) throws IndexOutOfBoundsException {
+                return (this.array != null ? this.array[index] : this.buffer.get (index));
+        }
+
+        /**
+         * Checks whether the values are stored outside of the Java heap.
+         *
+         * @return True if off-heap.
+         */
+        public boolean isDirect () {
+                return (this.buffer != null && this.buffer.isDirect ());
+        }
+
+        /**
+         * Checks whether all values are unsigned (e.g. not negative).
+         *
+         * @return True if unsigned.
+         */
+        public boolean isUnsigned () {
+                return (this.firstNegative == -1);
         }
 
         /**
@@ -98,7 +193,61 @@ public class FloatArrayPropertyNode extends AbstractArrayPropertyNode {
          */
         @Override
         public int length () {
-                return this.array.length;
+                return (this.array != null ? this.array.length : this.buffer.remaining ());
+        }
+
+        /**
+         * Retrieves an iterator over the float values.
+         * This method does not copy the values.
+         *
+         * @return The iterator.
+         */
+        @Nonnull
+        public PrimitiveIterator.OfDouble iterator () {
+                return Spliterators.iterator (this.spliterator ());
+        }
+
+        /**
+         * Retrieves a spliterator over the float values.
+         * This method does not copy the values.
+         *
+         * @return The spliterator.
+         */
+        @Nonnull
+        public Spliterator.OfDouble spliterator () {
+                return new BufferSpliterators.FloatBufferSpliterator (this.buffer ());
+        }
+
+        /**
+         * Retrieves a stream of the float values.
+         * This method does not copy the values.
+         *
+         * @return The stream.
+         */
+        @Nonnull
+        public DoubleStream stream () {
+                return StreamSupport.doubleStream (this.spliterator (), false);
+        }
+
+        /**
+         * Moves the values into an off-heap buffer.
+         * Nodes which are already stored off-heap are not altered.
+         *
+         * @return The node.
+         */
+        @Nonnull
+        public FloatArrayPropertyNode toDirect () {
+                if (this.array != null) { this.array (DirectBuffers.copyOf (this.array)); }
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
         }
 
         /**
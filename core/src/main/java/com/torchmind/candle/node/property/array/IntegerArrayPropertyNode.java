@@ -18,18 +18,29 @@ package com.torchmind.candle.node.property.array;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.IntBuffer;
 import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents integer array properties within the tree.
+ * The values are either held in a heap array or in an (optionally off-heap) {@link java.nio.IntBuffer}.
  *
  * @author Johannes Donath
  */
 public class IntegerArrayPropertyNode extends AbstractArrayPropertyNode {
         private int[] array;
+        private IntBuffer buffer;
+        private int firstNegative;
 
         public IntegerArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull int[] array) {
                 super (documentNode, name);
@@ -45,25 +56,56 @@ public class IntegerArrayPropertyNode extends AbstractArrayPropertyNode {
                 this.array (primitiveArray);
         }
 
+        public IntegerArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull IntBuffer buffer) {
+                super (documentNode, name);
+
+                this.array (buffer);
+        }
+
         /**
-         * Retrieves the integer array.
+         * Retrieves a copy of the integer array.
+         * Use {@link #buffer()}, {@link #get(int)} or {@link #spliterator()} to access the values without copying them.
          *
          * @return The array.
          */
         @Nonnull
         public int[] array () {
-                return this.array;
+                if (this.array != null) { return this.array.clone (); }
+
+                int[] array = new int[this.buffer.remaining ()];
+                this.buffer.duplicate ().get (array);
+                return array;
         }
 
         /**
          * Sets the integer array.
+         * The array is used as is (e.g. it is not copied) and should not be modified afterwards.
          *
          * @param array The array.
          * @return The node.
          */
         @Nonnull
         public IntegerArrayPropertyNode array (@Nonnull int[] array) {
+                this.ensureMutable ();
                 this.array = array;
+                this.buffer = null;
+                this.firstNegative = this.findNegative ();
+                return this;
+        }
+
+        /**
+         * Sets the integer buffer.
+         * The buffer is used as is (e.g. it is not copied) from its current position up to its limit.
+         *
+         * @param buffer The buffer.
+         * @return The node.
+         */
+        @Nonnull
+        public IntegerArrayPropertyNode array (@Nonnull IntBuffer buffer) {
+                this.ensureMutable ();
+                this.array = null;
+                this.buffer = buffer.slice ();
+                this.firstNegative = this.findNegative ();
                 return this;
         }
 
@@ -75,13 +117,66 @@ public class IntegerArrayPropertyNode extends AbstractArrayPropertyNode {
         @Nonnull
         @Nonnegative
         public int[] arrayUnsigned () {
-                for (int current : this.array) {
-                        if (current < 0) {
-                                throw new IllegalStateException ("Expected an unsigned value but got " + current);
-                        }
+                if (this.firstNegative != -1) {
+                        throw new IllegalStateException ("Expected an unsigned value but got " + this.get (this.firstNegative));
                 }
 
-                return this.array;
+                return this.array ();
+        }
+
+        /**
+         * Retrieves a read-only buffer view of the integer values.
+         * This method does not copy the values.
+         *
+         * @return The buffer.
+         */
+        @Nonnull
+        public IntBuffer buffer () {
+                if (this.array != null) { return IntBuffer.wrap (this.array).asReadOnlyBuffer (); }
+                return this.buffer.asReadOnlyBuffer ();
+        }
+
+        /**
+         * Locates the first negative value.
+         *
+         * @return The index or -1 if all values are unsigned.
+         */
+        private int findNegative () {
+                for (int i = 0; i < this.length (); i++) {
+                        if (this.get (i) < 0) { return i; }
+                }
+
+                return -1;
+        }
+
+        /**
+         * Retrieves a single integer value.
+         *
+         * @param index The index.
+         * @return The value.
+         *
+         * @throws java.lang.IndexOutOfBoundsException when the index exceeds the array bounds.
+         */
+        public int get (@Nonnegative int index) throws IndexOutOfBoundsException {
+                return (this.array != null ? this.array[index] : this.buffer.get (index));
+        }
+
+        /**
+         * Checks whether the values are stored outside of the Java heap.
+         *
+         * @return True if off-heap.
+         */
+        public boolean isDirect () {
+                return (this.buffer != null && this.buffer.isDirect ());
+        }
+
+        /**
+         * Checks whether all values are unsigned (e.g. not negative).
+         *
+         * @return True if unsigned.
+         */
+        public boolean isUnsigned () {
+                return (this.firstNegative == -1);
         }
 
         /**
@@ -98,7 +193,61 @@ public class IntegerArrayPropertyNode extends AbstractArrayPropertyNode {
          */
         @Override
         public int length () {
-                return this.array.length;
+                return (this.array != null ? this.array.length : this.buffer.remaining ());
+        }
+
+        /**
+         * Retrieves an iterator over the integer values.
+         * This method does not copy the values.
+         *
+         * @return The iterator.
+         */
+        @Nonnull
+        public PrimitiveIterator.OfInt iterator () {
+                return Spliterators.iterator (this.spliterator ());
+        }
+
+        /**
+         * Retrieves a spliterator over the integer values.
+         * This method does not copy the values.
+         *
+         * @return The spliterator.
+         */
+        @Nonnull
+        public Spliterator.OfInt spliterator () {
+                return new BufferSpliterators.IntBufferSpliterator (this.buffer ());
+        }
+
+        /**
+         * Retrieves a stream of the integer values.
+         * This method does not copy the values.
+         *
+         * @return The stream.
+         */
+        @Nonnull
+        public IntStream stream () {
+                return StreamSupport.intStream (this.spliterator (), false);
+        }
+
+        /**
+         * Moves the values into an off-heap buffer.
+         * Nodes which are already stored off-heap are not altered.
+         *
+         * @return The node.
+         */
+        @Nonnull
+        public IntegerArrayPropertyNode toDirect () {
+                if (this.array != null) { this.array (DirectBuffers.copyOf (this.array)); }
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
         }
 
         /**
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node.property.array;
+
+import com.torchmind.candle.api.IDocumentNode;
+import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Represents long array properties within the tree.
+ * The values are either held in a heap array or in an (optionally off-heap) {@link java.nio.LongBuffer}.
+ *
+ * @author Johannes Donath
+ */
+public class LongArrayPropertyNode extends AbstractArrayPropertyNode {
+        private long[] array;
+        private LongBuffer buffer;
+        private int firstNegative;
+
+        public LongArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull long[] array) {
+                super (documentNode, name);
+
+                this.array (array);
+        }
+
+        public LongArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull Long[] array) {
+                super (documentNode, name);
+
+                long[] primitiveArray = new long[array.length];
+                for (int i = 0; i < primitiveArray.length; i++) { primitiveArray[i] = array[i]; }
+                this.array (primitiveArray);
+        }
+
+        public LongArrayPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull LongBuffer buffer) {
+                super (documentNode, name);
+
+                this.array (buffer);
+        }
+
+        /**
+         * Retrieves a copy of the long array.
+         * Use {@link #buffer()}, {@link #get(int)} or {@link #spliterator()} to access the values without copying them.
+         *
+         * @return The array.
+         */
+        @Nonnull
+        public long[] array () {
+                if (this.array != null) { return this.array.clone (); }
+
+                long[] array = new long[this.buffer.remaining ()];
+                this.buffer.duplicate ().get (array);
+                return array;
+        }
+
+        /**
+         * Sets the long array.
+         * The array is used as is (e.g. it is not copied) and should not be modified afterwards.
+         *
+         * @param array The array.
+         * @return The node.
+         */
+        @Nonnull
+        public LongArrayPropertyNode array (@Nonnull long[] array) {
+                this.ensureMutable ();
+                this.array = array;
+                this.buffer = null;
+                this.firstNegative = this.findNegative ();
+                return this;
+        }
+
+        /**
+         * Sets the long buffer.
+         * The buffer is used as is (e.g. it is not copied) from its current position up to its limit.
+         *
+         * @param buffer The buffer.
+         * @return The node.
+         */
+        @Nonnull
+        public LongArrayPropertyNode array (@Nonnull LongBuffer buffer) {
+                this.ensureMutable ();
+                this.array = null;
+                this.buffer = buffer.slice ();
+                this.firstNegative = this.findNegative ();
+                return this;
+        }
+
+        /**
+         * Retrieves the unsigned long array.
+         *
+         * @return The array.
+         */
+        @Nonnull
+        @Nonnegative
+        public long[] arrayUnsigned () {
+                if (this.firstNegative != -1) {
+                        throw new IllegalStateException ("Expected an unsigned value but got " + this.get (this.firstNegative));
+                }
+
+                return this.array ();
+        }
+
+        /**
+         * Retrieves a read-only buffer view of the long values.
+         * This method does not copy the values.
+         *
+         * @return The buffer.
+         */
+        @Nonnull
+        public LongBuffer buffer () {
+                if (this.array != null) { return LongBuffer.wrap (this.array).asReadOnlyBuffer (); }
+                return this.buffer.asReadOnlyBuffer ();
+        }
+
+        /**
+         * Locates the first negative value.
+         *
+         * @return The index or -1 if all values are unsigned.
+         */
+        private int findNegative () {
+                for (int i = 0; i < this.length (); i++) {
+                        if (this.get (i) < 0) { return i; }
+                }
+
+                return -1;
+        }
+
+        /**
+         * Retrieves a single long value.
+         *
+         * @param index The index.
+         * @return The value.
+         *
+         * @throws java.lang.IndexOutOfBoundsException when the index exceeds the array bounds.
+         */
+        public long get (@Nonnegative int index) throws IndexOutOfBoundsException {
+                return (this.array != null ? this.array[index] : this.buffer.get (index));
+        }
+
+        /**
+         * Checks whether the values are stored outside of the Java heap.
+         *
+         * @return True if off-heap.
+         */
+        public boolean isDirect () {
+                return (this.buffer != null && this.buffer.isDirect ());
+        }
+
+        /**
+         * Checks whether all values are unsigned (e.g. not negative).
+         *
+         * @return True if unsigned.
+         */
+        public boolean isUnsigned () {
+                return (this.firstNegative == -1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public NodeValueType itemType () {
+                return NodeValueType.LONG;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int length () {
+                return (this.array != null ? this.array.length : this.buffer.remaining ());
+        }
+
+        /**
+         * Retrieves an iterator over the long values.
+         * This method does not copy the values.
+         *
+         * @return The iterator.
+         */
+        @Nonnull
+        public PrimitiveIterator.OfLong iterator () {
+                return Spliterators.iterator (this.spliterator ());
+        }
+
+        /**
+         * Retrieves a spliterator over the long values.
+         * This method does not copy the values.
+         *
+         * @return The spliterator.
+         */
+        @Nonnull
+        public Spliterator.OfLong spliterator () {
+                return new BufferSpliterators.LongBufferSpliterator (this.buffer ());
+        }
+
+        /**
+         * Retrieves a stream of the long values.
+         * This method does not copy the values.
+         *
+         * @return The stream.
+         */
+        @Nonnull
+        public LongStream stream () {
+                return StreamSupport.longStream (this.spliterator (), false);
+        }
+
+        /**
+         * Moves the values into an off-heap buffer.
+         * Nodes which are already stored off-heap are not altered.
+         *
+         * @return The node.
+         */
+        @Nonnull
+        public LongArrayPropertyNode toDirect () {
+                if (this.array != null) { this.array (DirectBuffers.copyOf (this.array)); }
+                return this;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString () {
+                return String.format ("LongArrayPropertyNode{%s,array=%s}", super.toString (), Arrays.toString (this.array ()));
+        }
+}
@@ -18,9 +18,14 @@ package com.torchmind.candle.node.property.array;
 
 import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.NodeValueType;
+import com.torchmind.candle.node.INodeVisitor;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a string array property within the tree.
@@ -37,25 +42,41 @@ public class StringArrayPropertyNode extends AbstractArrayPropertyNode {
         }
 
         /**
-         * Retrieves the string array.
+         * Retrieves a copy of the string array.
+         * Use {@link #get(int)} or {@link #values()} to access the values without copying them.
          *
          * @return The array.
          */
         public String[] array () {
-                return this.array;
+                return this.array.clone ();
         }
 
         /**
          * Sets the string array.
+         * The array is used as is (e.g. it is not copied) and should not be modified afterwards.
          *
          * @param array The array.
          * @return The node.
          */
         public StringArrayPropertyNode array (String[] array) {
+                this.ensureMutable ();
                 this.array = array;
                 return this;
         }
 
+        /**
+         * Retrieves a single string value.
+         *
+         * @param index The index.
+         * @return The value.
+         *
+         * @throws java.lang.IndexOutOfBoundsException when the index exceeds the array bounds.
+         */
+        @Nullable
+        public String get (@Nonnegative int index) throws IndexOutOfBoundsException {
+                return this.array[index];
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -70,11 +91,31 @@ public class StringArrayPropertyNode extends AbstractArrayPropertyNode {
                 return this.array.length;
         }
 
+        /**
+         * Retrieves a read-only list view of the string values.
+         * This method does not copy the values.
+         *
+         * @return The list.
+         */
+        @Nonnull
+        public List<String> values () {
+                return Collections.unmodifiableList (Arrays.asList (this.array));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public <R> R accept (@Nonnull INodeVisitor<R> visitor) {
+                return visitor.visit (this);
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public String toString () {
-                return String.format ("StringArrayPropertyNode{%s,array=%s}", super.toString (), Arrays.toString (this.array ()));
+                return String.format ("StringArrayPropertyNode{%s,array=%s}", super.toString (), Arrays.toString (this.array));
         }
 }
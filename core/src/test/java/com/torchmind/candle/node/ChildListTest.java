@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.node;
+
+import com.torchmind.candle.Candle;
+import com.torchmind.candle.api.INode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+
+/**
+ * Provides test cases for {@link com.torchmind.candle.node.ChildList}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith (MockitoJUnitRunner.class)
+public class ChildListTest {
+
+        /**
+         * Tests modifications through {@link com.torchmind.candle.node.ChildList#listIterator(int)}.
+         */
+        @Test
+        public void testIteratorModification () {
+                Candle candle = new Candle ();
+
+                CommentNode node1 = new CommentNode (candle, "Test 1");
+                CommentNode node2 = new CommentNode (candle, "Test 2");
+                CommentNode node3 = new CommentNode (candle, "Test 3");
+                CommentNode node4 = new CommentNode (candle, "Test 4");
+
+                ChildList list = new ChildList ();
+                list.addAll (Arrays.asList (node1, node2, node3));
+
+                ListIterator<INode> it = list.listIterator ();
+                Assert.assertEquals (node1, it.next ());
+                it.remove ();
+                Assert.assertEquals (0, it.nextIndex ());
+                Assert.assertEquals (Arrays.asList (node2, node3), list);
+                Assert.assertFalse (list.contains (node1));
+
+                try {
+                        it.remove ();
+                        Assert.fail ("Removed the same node twice");
+                } catch (IllegalStateException ignore) {
+                }
+
+                Assert.assertEquals (node2, it.next ());
+                it.set (node4);
+                it.add (node1);
+                Assert.assertEquals (2, it.nextIndex ());
+                Assert.assertEquals (node3, it.next ());
+                Assert.assertEquals (Arrays.asList (node4, node1, node3), list);
+
+                Assert.assertEquals (node3, it.previous ());
+                it.remove ();
+                Assert.assertEquals (node1, it.previous ());
+                it.set (node2);
+                Assert.assertEquals (node2, it.next ());
+                Assert.assertFalse (it.hasNext ());
+                Assert.assertEquals (Arrays.asList (node4, node2), list);
+                Assert.assertTrue (list.insertAfter (node2, node3));
+                Assert.assertEquals (Arrays.asList (node4, node2, node3), list);
+
+                // positional list methods are implemented on top of the iterator
+                list.add (1, node1);
+                Assert.assertEquals (node4, list.set (0, node2));
+                Assert.assertEquals (node3, list.remove (3));
+                Assert.assertEquals (Arrays.asList (node2, node1, node2), list);
+        }
+
+        /**
+         * Tests modifications through the iterator of nodes which have been added more than once.
+         */
+        @Test
+        public void testIteratorModificationDuplicate () {
+                Candle candle = new Candle ();
+
+                CommentNode node1 = new CommentNode (candle, "Test 1");
+                CommentNode node2 = new CommentNode (candle, "Test 2");
+                CommentNode node3 = new CommentNode (candle, "Test 3");
+
+                ChildList list = new ChildList ();
+                list.addAll (Arrays.asList (node1, node2, node1));
+
+                // removing the first occurrence promotes the next one
+                Iterator<INode> it = list.iterator ();
+                it.next ();
+                it.remove ();
+                Assert.assertTrue (list.insertBefore (node1, node3));
+                Assert.assertEquals (Arrays.asList (node2, node3, node1), list);
+
+                // adding an earlier occurrence makes it the first one
+                ListIterator<INode> listIterator = list.listIterator ();
+                listIterator.add (node1);
+                Assert.assertTrue (list.remove (node1));
+                Assert.assertEquals (Arrays.asList (node2, node3, node1), list);
+
+                // modifications through other iterators are still detected
+                Iterator<INode> other = list.iterator ();
+                listIterator = list.listIterator (3);
+                listIterator.previous ();
+                listIterator.remove ();
+                Assert.assertFalse (list.contains (node1));
+
+                try {
+                        other.next ();
+                        Assert.fail ("Modification has not been detected");
+                } catch (ConcurrentModificationException ignore) {
+                }
+        }
+}
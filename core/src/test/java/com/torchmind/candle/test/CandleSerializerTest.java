@@ -18,13 +18,19 @@ package com.torchmind.candle.test;
 
 import com.torchmind.candle.Candle;
 import com.torchmind.candle.CandleSerializer;
+import com.torchmind.candle.CandleWriter;
+import com.torchmind.candle.api.IDocumentNode;
 import com.torchmind.candle.api.error.CandleException;
+import com.torchmind.candle.node.property.StringPropertyNode;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import javax.annotation.Nonnull;
 import java.io.*;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Provides test cases for {@link com.torchmind.candle.CandleSerializer}.
@@ -56,4 +62,83 @@ public class CandleSerializerTest {
 
                 Assert.assertEquals (expected.toString (), writer.toString ());
         }
+
+        /**
+         * Tests the numeric notation written by {@link com.torchmind.candle.CandleSerializer#serialize(com.torchmind.candle.api.IDocumentNode, java.io.Writer)}.
+         */
+        @Test
+        public void testNumberWrite () throws CandleException, IOException {
+                String document = "property1 = 255\nproperty2 = -3\nproperty3 = 1.5e10\nproperty4 = 0.1\nproperty5 = 0.0001d\n" +
+                        "property6 = 5000000000L\nproperty7 = [16, 17]\nproperty8 = [0.5, 1.0e-7]\n";
+
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)));
+                CandleSerializer serializer = new CandleSerializer ().newline ("\n").hexadecimalIntegers (true).prettyPrint (false);
+
+                StringWriter writer = new StringWriter ();
+                serializer.serialize (candle, writer);
+
+                Assert.assertEquals ("property1=0xFF\nproperty2=-3\nproperty3=1.5E10\nproperty4=0.1\nproperty5=1.0E-4d\n" +
+                        "property6=0x12A05F200L\nproperty7=[0x10,0x11,]\nproperty8=[0.5,1.0E-7,]\n", writer.toString ());
+        }
+
+        /**
+         * Tests the output of {@link com.torchmind.candle.CandleWriter} against {@link com.torchmind.candle.CandleSerializer}.
+         */
+        @Test
+        public void testWriter () throws CandleException, IOException {
+                for (boolean prettyPrint : new boolean[] { true, false }) {
+                        CandleSerializer serializer = new CandleSerializer ().newline ("\n").prettyPrint (prettyPrint).hexadecimalIntegers (true);
+
+                        StringWriter output = new StringWriter ();
+                        try (CandleWriter writer = new CandleWriter (output, serializer)) {
+                                writer.comment (" Header");
+                                writer.property ("property1", 42);
+                                writer.beginObject ("object1");
+                                writer.comment ("Multi\nLine");
+                                writer.property ("property2", "Test \"1\"");
+                                writer.property ("property3", new long[] { 1L, -2L });
+                                writer.beginObject ("object2");
+                                writer.property ("property4", 1.5f);
+                                writer.property ("property5", new String[] { "A", null });
+                                writer.nullProperty ("property6");
+                                writer.endObject ();
+                                writer.comment (" Footer");
+                                writer.property ("property7", RetentionPolicy.RUNTIME);
+                                writer.endObject ();
+                                writer.defaultProperty ("property8");
+                                writer.emptyArray ("property9");
+                                writer.property ("property10", new double[] { 0.25 });
+                        }
+
+                        Candle candle = Candle.readFile (new ByteArrayInputStream (output.toString ().getBytes (StandardCharsets.UTF_8)));
+                        Assert.assertEquals (serializer.serialize (candle), output.toString ());
+                        Assert.assertEquals ("RUNTIME", candle.getEnum ("object1.property7"));
+                }
+        }
+
+        /**
+         * Tests the serialization of custom subclasses of built-in nodes.
+         */
+        @Test
+        public void testCustomNode () throws CandleException, IOException {
+                Candle candle = Candle.readFile (new ByteArrayInputStream ("property1 = \"A\"".getBytes (StandardCharsets.UTF_8)));
+                candle.append (new SecretPropertyNode (candle, "property2", "B"));
+
+                Assert.assertEquals ("property1 = \"A\"\nproperty2 = \"***\"\n", new SecretSerializer ().newline ("\n").serialize (candle));
+        }
+
+        private static class SecretPropertyNode extends StringPropertyNode {
+
+                SecretPropertyNode (@Nonnull IDocumentNode documentNode, @Nonnull String name, @Nonnull String value) {
+                        super (documentNode, name, value);
+                }
+        }
+
+        private static class SecretSerializer extends CandleSerializer {
+
+                @Nonnull
+                protected String serialize (@Nonnull SecretPropertyNode node, int level) {
+                        return this.indent (level) + node.name () + " = \"***\"";
+                }
+        }
 }
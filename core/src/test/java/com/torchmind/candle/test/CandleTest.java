@@ -17,17 +17,49 @@
 package com.torchmind.candle.test;
 
 import com.torchmind.candle.Candle;
+import com.torchmind.candle.CandleCache;
+import com.torchmind.candle.CandlePipeline;
+import com.torchmind.candle.CandleSerializer;
+import com.torchmind.candle.ParseOptions;
+import com.torchmind.candle.api.ICommentNode;
+import com.torchmind.candle.api.INamedNode;
+import com.torchmind.candle.api.INode;
 import com.torchmind.candle.api.IObjectNode;
 import com.torchmind.candle.api.error.CandleException;
 import com.torchmind.candle.api.error.CandleLexerException;
 import com.torchmind.candle.api.error.CandleParserException;
+import com.torchmind.candle.node.NodeQuery;
+import com.torchmind.candle.node.ObjectNode;
+import com.torchmind.candle.node.PathIndex;
+import com.torchmind.candle.node.property.IntegerPropertyNode;
+import com.torchmind.candle.node.property.StringPropertyNode;
+import com.torchmind.candle.node.property.array.FloatArrayPropertyNode;
+import com.torchmind.candle.node.property.array.IntegerArrayPropertyNode;
 import com.torchmind.candle.node.property.array.NullArrayPropertyNode;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Tests {@link com.torchmind.candle.Candle} and associated classes.
@@ -37,6 +69,445 @@ import java.io.IOException;
 @RunWith (MockitoJUnitRunner.class)
 public class CandleTest {
 
+        /**
+         * Tests {@link com.torchmind.candle.CandleCache}.
+         */
+        @Test
+        public void testCache () throws Exception {
+                Path first = Files.createTempFile ("candle", ".cndl");
+                Path second = Files.createTempFile ("candle", ".cndl");
+
+                try {
+                        Files.write (first, "value = 1\n".getBytes (StandardCharsets.UTF_8));
+                        Files.write (second, "value = 2\n".getBytes (StandardCharsets.UTF_8));
+
+                        CandleCache cache = new CandleCache ();
+                        ExecutorService executor = Executors.newFixedThreadPool (4);
+                        List<Future<Candle>> futures = new ArrayList<> ();
+
+                        try {
+                                for (int i = 0; i < 8; i++) { futures.add (executor.submit (() -> cache.get (first))); }
+
+                                Candle candle = cache.get (first);
+                                for (Future<Candle> future : futures) { Assert.assertSame (candle, future.get ()); }
+
+                                Assert.assertTrue (candle.isFrozen ());
+                                Assert.assertEquals (1, candle.getInteger ("value"));
+
+                                try {
+                                        candle.get ("value", IntegerPropertyNode.class).value (2);
+                                        Assert.fail ("Frozen document has been modified");
+                                } catch (IllegalStateException ignore) {
+                                }
+
+                                Files.write (first, "value = 10\n".getBytes (StandardCharsets.UTF_8));
+                                Candle updated = cache.get (first);
+                                Assert.assertNotSame (candle, updated);
+                                Assert.assertEquals (10, updated.getInteger ("value"));
+                                Assert.assertEquals (1, cache.size ());
+
+                                // only a single document fits into the budget
+                                cache.maximumWeight (cache.weight ());
+                                cache.get (second);
+                                Assert.assertEquals (1, cache.size ());
+                                Assert.assertNotSame (updated, cache.get (first));
+                        } finally {
+                                executor.shutdown ();
+                        }
+                } finally {
+                        Files.delete (first);
+                        Files.delete (second);
+                }
+        }
+
+        /**
+         * Tests off-heap storage of numeric arrays in {@link com.torchmind.candle.Candle#read(org.antlr.v4.runtime.ANTLRInputStream)}.
+         */
+        @Test
+        public void testDirectArrays () throws CandleException, IOException {
+                Candle candle = new Candle ().directArrayThreshold (4);
+                candle.read (CandleTest.class.getResourceAsStream ("/test.cndl"));
+
+                IntegerArrayPropertyNode integers = candle.get ("property21", IntegerArrayPropertyNode.class);
+                Assert.assertTrue (integers.isDirect ());
+                Assert.assertEquals (4, integers.buffer ().remaining ());
+                Assert.assertArrayEquals (new int[] { 1, 2, 3, 4 }, candle.getIntegerArray ("property21"));
+
+                FloatArrayPropertyNode floats = candle.get ("property24", FloatArrayPropertyNode.class);
+                Assert.assertTrue (floats.isDirect ());
+                Assert.assertArrayEquals (new float[] { 1.1f, 1.2f, 1.3f, 1.4f }, floats.array (), 0.001f);
+        }
+
+        /**
+         * Tests long and double values in {@link com.torchmind.candle.Candle#read(org.antlr.v4.runtime.ANTLRInputStream)}
+         * and {@link com.torchmind.candle.CandleSerializer}.
+         */
+        @Test
+        public void testLoadWideNumbers () throws CandleException, IOException {
+                String document = "property1 = 5000000000\nproperty2 = -42L\nproperty3 = 0x7FL\nproperty4 = 0.1d\nproperty5 = 1.5e300d\n" +
+                        "property6 = [1, 5000000000, null]\nproperty7 = [1.5, 0.25d]\nproperty8 = 42\nproperty9 = [null, 1.1, 0.25d]\nproperty10 = [0.25d, 1.1]";
+
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)));
+
+                for (int i = 0; i < 2; i++) {
+                        Assert.assertEquals (5000000000L, candle.getLong ("property1"));
+                        Assert.assertEquals (-42L, candle.getLong ("property2"));
+                        Assert.assertEquals (0x7FL, candle.getLong ("property3"));
+                        Assert.assertEquals (0.1, candle.getDouble ("property4"), 0.0);
+                        Assert.assertEquals (1.5e300, candle.getDouble ("property5"), 0.0);
+                        Assert.assertArrayEquals (new long[] { 1L, 5000000000L, 0L }, candle.getLongArray ("property6"));
+                        Assert.assertArrayEquals (new double[] { 1.5, 0.25 }, candle.getDoubleArray ("property7"), 0.0);
+                        Assert.assertEquals (42L, candle.getLong ("property8"));
+                        Assert.assertArrayEquals (new double[] { 0.0, 1.1, 0.25 }, candle.getDoubleArray ("property9"), 0.0);
+                        Assert.assertArrayEquals (new double[] { 0.25, 1.1 }, candle.getDoubleArray ("property10"), 0.0);
+
+                        StringWriter writer = new StringWriter ();
+                        new CandleSerializer ().serialize (candle, writer);
+                        candle = Candle.readFile (new ByteArrayInputStream (writer.toString ().getBytes (StandardCharsets.UTF_8)));
+                }
+        }
+
+        /**
+         * Tests compiled document images in {@link com.torchmind.candle.Candle#read(java.io.File, com.torchmind.candle.ParseOptions)}.
+         */
+        @Test
+        public void testImageCache () throws Exception {
+                Path directory = Files.createTempDirectory ("candle");
+                Path file = directory.resolve ("test.cndl");
+                Path cache = directory.resolve ("cache");
+
+                try {
+                        try (InputStream inputStream = CandleTest.class.getResourceAsStream ("/test.cndl")) {
+                                Files.copy (inputStream, file);
+                        }
+
+                        ParseOptions options = new ParseOptions ().cacheDirectory (cache);
+                        CandleSerializer serializer = new CandleSerializer ();
+                        String reference = serializer.serialize (Candle.readFile (file.toFile ()));
+
+                        Assert.assertEquals (reference, serializer.serialize (Candle.readFile (file.toFile (), options)));
+                        Assert.assertEquals (1, cache.toFile ().list ().length);
+
+                        Path image = cache.resolve (cache.toFile ().list ()[0]);
+                        long modified = Files.getLastModifiedTime (image).toMillis ();
+                        Assert.assertEquals (reference, serializer.serialize (Candle.readFile (file.toFile (), options)));
+                        Assert.assertEquals (modified, Files.getLastModifiedTime (image).toMillis ());
+
+                        // damaged images are replaced
+                        Files.write (image, new byte[] { 1, 2, 3 });
+                        Assert.assertEquals (reference, serializer.serialize (Candle.readFile (file.toFile (), options)));
+                        Assert.assertEquals (reference, serializer.serialize (Candle.readFile (file.toFile (), options)));
+
+                        // images of previous revisions are replaced
+                        Files.write (file, "value = 1\n".getBytes (StandardCharsets.UTF_8));
+                        Assert.assertEquals (1, Candle.readFile (file.toFile (), options).getInteger ("value"));
+                        Assert.assertEquals (1, cache.toFile ().list ().length);
+                        Assert.assertNotEquals (image.getFileName ().toString (), cache.toFile ().list ()[0]);
+
+                        // images of other sources are kept
+                        Path other = directory.resolve ("other.cndl");
+                        Files.write (other, "value = 2\n".getBytes (StandardCharsets.UTF_8));
+                        Assert.assertEquals (2, Candle.readFile (other.toFile (), options).getInteger ("value"));
+                        Assert.assertEquals (2, cache.toFile ().list ().length);
+                } finally {
+                        Files.walk (directory).sorted (Comparator.reverseOrder ()).forEach ((p) -> p.toFile ().delete ());
+                }
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.node.PathIndex}.
+         */
+        @Test
+        public void testPathIndex () throws CandleException, IOException {
+                String document = "cluster {\n  nodes {\n    n1 { host = \"a\" }\n    n2 { host = \"b\" }\n  }\n}\nname = \"test\"";
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8))).indexPaths (true);
+                PathIndex index = candle.pathIndex ();
+
+                Assert.assertEquals ("b", candle.getString ("Cluster.Nodes.N2.Host"));
+                Assert.assertEquals (7, index.size ());
+                Assert.assertEquals (Arrays.asList ("cluster.nodes.n1", "cluster.nodes.n1.host", "cluster.nodes.n2", "cluster.nodes.n2.host"), new ArrayList<> (index.prefix ("cluster.nodes.").keySet ()));
+
+                IObjectNode nodes = candle.get ("cluster.nodes", IObjectNode.class);
+                ObjectNode node = new ObjectNode (candle, "n3");
+                node.append (new StringPropertyNode (candle, "host", "c"));
+                nodes.append (node);
+                nodes.remove ("n1");
+
+                Assert.assertEquals ("c", candle.getString ("cluster.nodes.n3.host"));
+                Assert.assertNull (index.get ("cluster.nodes.n1.host"));
+
+                candle.get ("cluster.nodes.n2", ObjectNode.class).name ("n4");
+                Assert.assertNull (index.get ("cluster.nodes.n2"));
+                Assert.assertEquals ("b", candle.getString ("cluster.nodes.n4.host"));
+                Assert.assertEquals (7, index.size ());
+
+                // siblings which share a name are only indexed once the first of them is removed
+                ObjectNode shadowed = new ObjectNode (candle, "n3");
+                shadowed.append (new StringPropertyNode (candle, "host", "d"));
+                nodes.insertBefore ("n3", shadowed);
+                Assert.assertEquals ("d", candle.getString ("cluster.nodes.n3.host"));
+
+                nodes.remove (shadowed);
+                Assert.assertEquals ("c", candle.getString ("cluster.nodes.n3.host"));
+                Assert.assertEquals (7, index.size ());
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.node.NodeQuery}.
+         */
+        @Test
+        public void testQuery () throws CandleException, IOException {
+                StringBuilder document = new StringBuilder ("timeout = 1\nservices {\n");
+                for (int i = 0; i < 100; i++) {
+                        document.append ("  s").append (i).append (" { port = ").append (i).append ("\n    http { timeout = \"").append (i).append ("s\" } }\n");
+                }
+                document.append ("}");
+
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.toString ().getBytes (StandardCharsets.UTF_8)));
+
+                List<Integer> ports = candle.query ("Services.*.PORT").map ((n) -> ((IntegerPropertyNode) n).value ()).collect (Collectors.toList ());
+                Assert.assertEquals (IntStream.range (0, 100).boxed ().collect (Collectors.toList ()), ports);
+
+                Assert.assertEquals (101, candle.query ("**.timeout").count ());
+                Assert.assertEquals (100, candle.query ("**.timeout:string").count ());
+                Assert.assertEquals (100, candle.query ("services.*.*:object").count ());
+                Assert.assertEquals (0, candle.query ("services.port").count ());
+
+                List<INode> sequential = NodeQuery.compile ("services.**").stream (candle).collect (Collectors.toList ());
+                Assert.assertEquals (401, sequential.size ());
+                Assert.assertEquals (sequential, NodeQuery.compile ("services.**").parallelStream (candle).collect (Collectors.toList ()));
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.CandlePipeline}.
+         */
+        @Test
+        public void testPipeline () throws CandleException, IOException {
+                CandleSerializer serializer = new CandleSerializer ().newline ("\n");
+
+                // without stages, documents are written exactly as the serializer would write them
+                Candle reference = Candle.readFile (CandleTest.class.getResourceAsStream ("/test.cndl"));
+                StringWriter output = new StringWriter ();
+                new CandlePipeline ().serializer (serializer).transform (new InputStreamReader (CandleTest.class.getResourceAsStream ("/test.cndl"), StandardCharsets.UTF_8), output);
+                Assert.assertEquals (serializer.serialize (reference), output.toString ());
+
+                String document = "// Header\nservices {\n  web { port = 80\n    debug = true\n    logs { level = \"debug\" } }\n" +
+                        "  db { port = 5432\n    debug = false } }\nlegacy { value = 1 }\n";
+
+                output = new StringWriter ();
+                new CandlePipeline ()
+                        .serializer (serializer)
+                        .drop ("**.debug")
+                        .drop ("services.*.logs")
+                        .rename ("legacy", "current")
+                        .map ("services.db.port:integer", (n) -> ((IntegerPropertyNode) n).value (5433))
+                        .map ("current.value", (n) -> new StringPropertyNode (((IntegerPropertyNode) n).document (), "value", "one"))
+                        .transform (new StringReader (document), output);
+
+                Candle expected = Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)));
+                expected.remove ("services.web.debug");
+                expected.remove ("services.db.debug");
+                expected.remove ("services.web.logs");
+                expected.get ("legacy", ObjectNode.class).name ("current");
+                expected.get ("services.db.port", IntegerPropertyNode.class).value (5433);
+                expected.get ("current", ObjectNode.class).replace ("value", new StringPropertyNode (expected, "value", "one"));
+
+                Assert.assertEquals (serializer.serialize (expected), output.toString ());
+
+                // stages refer to the names produced by their predecessors only
+                output = new StringWriter ();
+                new CandlePipeline ()
+                        .serializer (serializer)
+                        .drop ("a.b")
+                        .rename ("a", "x")
+                        .drop ("x.c")
+                        .drop ("a.d")
+                        .transform (new StringReader ("a { b = 1\n c = 2\n d = 3\n e = 4 }"), output);
+                Assert.assertEquals (serializer.serialize (Candle.readFile (new ByteArrayInputStream ("x { d = 3\n e = 4 }".getBytes (StandardCharsets.UTF_8)))), output.toString ());
+
+                try {
+                        new CandlePipeline ().transform (new StringReader ("object { property = }"), new StringWriter ());
+                        Assert.fail ("Expected a parser error");
+                } catch (CandleParserException ignore) {
+                }
+
+                // files are replaced only once the transformation has completed
+                Path directory = Files.createTempDirectory ("candle");
+                Path file = directory.resolve ("test.cndl");
+
+                try {
+                        Files.write (file, "a = 1\nb = 2\n".getBytes (StandardCharsets.UTF_8));
+                        new CandlePipeline ().serializer (serializer).drop ("a").transform (file.toFile (), file.toFile ());
+                        Assert.assertEquals ("b = 2\n", new String (Files.readAllBytes (file), StandardCharsets.UTF_8));
+
+                        Path broken = directory.resolve ("broken.cndl");
+                        Files.write (broken, "object { property = }".getBytes (StandardCharsets.UTF_8));
+
+                        try {
+                                new CandlePipeline ().transform (broken.toFile (), file.toFile ());
+                                Assert.fail ("Expected a parser error");
+                        } catch (CandleParserException ignore) {
+                        }
+
+                        Assert.assertEquals ("b = 2\n", new String (Files.readAllBytes (file), StandardCharsets.UTF_8));
+                        Assert.assertEquals (2, directory.toFile ().list ().length);
+                } finally {
+                        Files.walk (directory).sorted (Comparator.reverseOrder ()).forEach ((p) -> p.toFile ().delete ());
+                }
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.api.IObjectNode#treeSpliterator()}.
+         */
+        @Test
+        public void testTreeStream () throws CandleException, IOException {
+                StringBuilder document = new StringBuilder ("first = 1\n");
+                for (int i = 0; i < 200; i++) {
+                        document.append ("o").append (i).append (" { value = ").append (i).append ("\n  nested { value = 1 } }\n");
+                }
+
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.toString ().getBytes (StandardCharsets.UTF_8)));
+
+                List<INode> sequential = candle.treeStream ().collect (Collectors.toList ());
+                Assert.assertEquals (801, sequential.size ());
+                Assert.assertEquals ("first", ((INamedNode) sequential.get (0)).name ());
+                Assert.assertEquals ("value", ((INamedNode) sequential.get (2)).name ());
+                Assert.assertEquals (sequential, candle.parallelTreeStream ().collect (Collectors.toList ()));
+
+                List<INode> remaining = new ArrayList<> ();
+                candle.treeSpliterator ().forEachRemaining (remaining::add);
+                Assert.assertEquals (sequential, remaining);
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.ParseOptions} in {@link com.torchmind.candle.Candle#read(java.io.InputStream, com.torchmind.candle.ParseOptions)}.
+         */
+        @Test
+        public void testParseOptions () throws CandleException, IOException {
+                Candle reference = Candle.readFile (CandleTest.class.getResourceAsStream ("/test.cndl"));
+                Candle candle = Candle.readFile (CandleTest.class.getResourceAsStream ("/test.cndl"), new ParseOptions ().discardComments (true).internNames (true));
+
+                Assert.assertTrue (reference.stream ().anyMatch ((n) -> n instanceof ICommentNode));
+                Assert.assertFalse (candle.stream ().anyMatch ((n) -> n instanceof ICommentNode));
+                Assert.assertEquals (reference.stream ().filter ((n) -> !(n instanceof ICommentNode)).count (), candle.stream ().count ());
+                Assert.assertEquals (reference.getString ("property1"), candle.getString ("property1"));
+
+                String document = "first { value = 1 }\nsecond { value = 2 }";
+                candle = Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)), new ParseOptions ().internNames (true));
+                Assert.assertSame (candle.get ("first", IObjectNode.class).get ("value", INamedNode.class).name (), candle.get ("second", IObjectNode.class).get ("value", INamedNode.class).name ());
+        }
+
+        /**
+         * Tests resource limits in {@link com.torchmind.candle.Candle#read(java.io.InputStream, com.torchmind.candle.ParseOptions)}.
+         */
+        @Test
+        public void testLimits () throws CandleException, IOException {
+                String document = "a = 1\nb {\n  c {\n    d = \"value\"\n    e = [1, 2, 3]\n  }\n}";
+
+                this.assertLimit (document, new ParseOptions ().maximumDepth (1), 3, 2);
+                this.assertLimit (document, new ParseOptions ().maximumNodes (3), 4, 4);
+                this.assertLimit (document, new ParseOptions ().maximumStringLength (4), 4, 8);
+                this.assertLimit (document, new ParseOptions ().maximumArrayLength (2), 5, 15);
+
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)), new ParseOptions ().maximumDepth (2).maximumNodes (5).maximumStringLength (5).maximumArrayLength (3));
+                Assert.assertEquals ("value", candle.getString ("b.c.d"));
+        }
+
+        private void assertLimit (@Nonnull String document, @Nonnull ParseOptions options, int line, int offset) throws CandleException, IOException {
+                try {
+                        Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)), options);
+                        Assert.fail ("Expected limit violation for " + options);
+                } catch (CandleParserException ex) {
+                        Assert.assertEquals (ex.getMessage (), line, ex.line ());
+                        Assert.assertEquals (ex.getMessage (), offset, ex.offset ());
+                }
+        }
+
+        /**
+         * Tests deeply nested documents in {@link com.torchmind.candle.Candle#read(org.antlr.v4.runtime.ANTLRInputStream)}
+         * and {@link com.torchmind.candle.CandleSerializer}.
+         */
+        @Test
+        public void testDeepNesting () throws CandleException, IOException {
+                final int depth = 20000;
+                StringBuilder document = new StringBuilder ();
+                StringBuilder path = new StringBuilder ();
+
+                for (int i = 0; i < depth; i++) {
+                        document.append ("level {\n");
+                        path.append ("level.");
+                }
+
+                document.append ("value = 42\n");
+                path.append ("value");
+                for (int i = 0; i < depth; i++) { document.append ("}\n"); }
+
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.toString ().getBytes (StandardCharsets.UTF_8)));
+                Assert.assertEquals (42, candle.getInteger (path.toString ()));
+
+                String serialized = new CandleSerializer ().indentation ("").prettyPrint (false).serialize (candle);
+                candle = Candle.readFile (new ByteArrayInputStream (serialized.getBytes (StandardCharsets.UTF_8)));
+                Assert.assertEquals (42, candle.getInteger (path.toString ()));
+
+                candle.remove (path.toString ());
+                Assert.assertFalse (candle.isPresent (path.toString ()));
+        }
+
+        /**
+         * Tests large arrays in {@link com.torchmind.candle.Candle#read(org.antlr.v4.runtime.ANTLRInputStream)}.
+         */
+        @Test
+        public void testLargeArray () throws CandleException, IOException {
+                final int length = 1000000;
+                StringBuilder document = new StringBuilder ("value = [");
+
+                for (int i = 0; i < length; i++) {
+                        if (i != 0) { document.append (", "); }
+                        document.append (i);
+                }
+
+                document.append (",]\n");
+
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.toString ().getBytes (StandardCharsets.UTF_8)));
+                int[] array = candle.getIntegerArray ("value");
+
+                Assert.assertEquals (length, array.length);
+                Assert.assertEquals (0, array[0]);
+                Assert.assertEquals ((length - 1), array[length - 1]);
+        }
+
+        /**
+         * Tests error handling of unbalanced objects in {@link com.torchmind.candle.Candle#read(org.antlr.v4.runtime.ANTLRInputStream)}.
+         */
+        @Test
+        public void testUnbalancedObjects () throws CandleException, IOException {
+                this.assertLimit ("a {\n  b {\n  }\n", new ParseOptions (), 1, 0);
+                this.assertLimit ("a {\n}\n}", new ParseOptions (), 3, 0);
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.Candle#validate(org.antlr.v4.runtime.ANTLRInputStream, com.torchmind.candle.ParseOptions)}.
+         */
+        @Test
+        public void testValidate () throws IOException {
+                String document = "a = 1\nb = # 2\nc = 99999999999999999999\nd = [1, \"x\", 2]\ne = = 3\n}\nf {\ng = 1\n";
+                List<CandleException> errors = Candle.validateFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)));
+
+                Assert.assertEquals (6, errors.size ());
+                Assert.assertTrue (errors.get (0) instanceof CandleLexerException);
+                Assert.assertEquals (2, ((CandleLexerException) errors.get (0)).line ());
+
+                int[] lines = { 3, 4, 5, 6, 7 };
+                for (int i = 0; i < lines.length; i++) {
+                        CandleParserException error = ((CandleParserException) errors.get ((i + 1)));
+
+                        Assert.assertEquals (lines[i], error.line ());
+                        Assert.assertEquals (0, error.getStackTrace ().length);
+                }
+
+                Assert.assertTrue (Candle.validateFile (CandleTest.class.getResourceAsStream ("/test.cndl")).isEmpty ());
+        }
+
         /**
          * Tests error handling of {@link com.torchmind.candle.Candle#read(org.antlr.v4.runtime.ANTLRInputStream)}.
          */
@@ -248,6 +719,27 @@ public class CandleTest {
                 }
         }
 
+        /**
+         * Tests {@link com.torchmind.candle.Candle#readFile(java.io.File)} with files which are smaller than a single read.
+         */
+        @Test
+        public void testReadFile () throws CandleException, IOException {
+                Path file = Files.createTempFile ("candle", ".cndl");
+
+                try {
+                        Files.write (file, "a = 1\nb = \"test\"\n".getBytes ());
+
+                        Candle candle = Candle.readFile (file.toFile ());
+                        Assert.assertEquals (1, candle.getInteger ("a"));
+                        Assert.assertEquals ("test", candle.getString ("b"));
+
+                        Files.write (file, new byte[0]);
+                        Assert.assertTrue (Candle.readFile (file.toFile ()).children ().isEmpty ());
+                } finally {
+                        Files.delete (file);
+                }
+        }
+
         /**
          * Tests error handling of {@link com.torchmind.candle.Candle#read(org.antlr.v4.runtime.ANTLRInputStream)}.
          */
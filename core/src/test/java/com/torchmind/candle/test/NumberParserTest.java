@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.test;
+
+import com.torchmind.candle.antlr.NumberParser;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * Provides test cases for {@link com.torchmind.candle.antlr.NumberParser}.
+ * @author Johannes Donath
+ */
+@RunWith (MockitoJUnitRunner.class)
+public class NumberParserTest {
+
+        /**
+         * Tests {@link com.torchmind.candle.antlr.NumberParser#parseLong(char[], int, int)}.
+         */
+        @Test
+        public void testLong () {
+                Assert.assertEquals (1234L, this.parseLong ("1234"));
+                Assert.assertEquals (-1234L, this.parseLong ("-1234"));
+                Assert.assertEquals (0xFFL, this.parseLong ("0xFF"));
+                Assert.assertEquals (Long.MIN_VALUE, this.parseLong ("-9223372036854775808"));
+                Assert.assertEquals (Long.MAX_VALUE, this.parseLong ("0x7FFFFFFFFFFFFFFF"));
+
+                char[] data = "property = 42,".toCharArray ();
+                Assert.assertEquals (42L, NumberParser.parseLong (data, 11, 2));
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.antlr.NumberParser#parseLong(char[], int, int)}.
+         */
+        @Test (expected = NumberFormatException.class)
+        public void testLongOverflow () {
+                this.parseLong ("9223372036854775808");
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.antlr.NumberParser#parseFloat(char[], int, int)} and
+         * {@link com.torchmind.candle.antlr.NumberParser#parseDouble(char[], int, int)}.
+         */
+        @Test
+        public void testFloatingPoint () {
+                NumberParser parser = new NumberParser ();
+
+                for (String value : new String[] { "1.23", "-1.23", ".5", "0.1", "1.5e10", "-2.5E-7", "3.4028235e38", "1.4e-45", "123456789.123456789", "1e300d", "0.0", "-0.0" }) {
+                        char[] data = value.toCharArray ();
+
+                        Assert.assertEquals (value, Float.floatToIntBits (Float.parseFloat (value)), Float.floatToIntBits (parser.parseFloat (data, 0, data.length)));
+                        Assert.assertEquals (value, Double.doubleToLongBits (Double.parseDouble (value)), Double.doubleToLongBits (parser.parseDouble (data, 0, data.length)));
+                }
+        }
+
+        private long parseLong (String value) {
+                return NumberParser.parseLong (value.toCharArray (), 0, value.length ());
+        }
+}
@@ -48,6 +48,36 @@ public class EnumPropertyNodeTest {
                 Assert.assertEquals ("VALUE2", node2.value ());
         }
 
+        /**
+         * Tests case-insensitive resolution and invalidation in {@link com.torchmind.candle.node.property.EnumPropertyNode#value(Class)}.
+         */
+        @Test
+        public void testResolution () {
+                EnumPropertyNode node = new EnumPropertyNode (this.candle, "testProperty", "value1");
+
+                Assert.assertSame (TestEnum.VALUE1, node.value (TestEnum.class));
+                Assert.assertSame (TestEnum.VALUE1, node.value (TestEnum.class));
+
+                node.value ("VALUE3");
+                Assert.assertSame (TestEnum.VALUE3, node.value (TestEnum.class));
+
+                // ambiguous names are only matched exactly
+                node.value ("mixed");
+                Assert.assertSame (AmbiguousEnum.mixed, node.value (AmbiguousEnum.class));
+
+                node.value ("MiXeD");
+                try {
+                        node.value (AmbiguousEnum.class);
+                        Assert.fail ("Ambiguous enum value has been resolved");
+                } catch (IllegalStateException ignore) {
+                }
+        }
+
+        public enum AmbiguousEnum {
+                MIXED,
+                mixed
+        }
+
         public enum TestEnum {
                 VALUE1,
                 VALUE2,
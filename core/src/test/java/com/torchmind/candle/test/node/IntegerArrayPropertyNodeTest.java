@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.test.node;
+
+import com.torchmind.candle.Candle;
+import com.torchmind.candle.node.property.array.IntegerArrayPropertyNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Provides test cases for {@link com.torchmind.candle.node.property.array.IntegerArrayPropertyNode}.
+ * @author Johannes Donath
+ */
+@RunWith (MockitoJUnitRunner.class)
+public class IntegerArrayPropertyNodeTest {
+        @Mock
+        private Candle candle;
+
+        /**
+         * Tests {@link com.torchmind.candle.node.property.array.IntegerArrayPropertyNode#buffer()}.
+         */
+        @Test (expected = ReadOnlyBufferException.class)
+        public void testReadOnlyBuffer () {
+                IntegerArrayPropertyNode node = new IntegerArrayPropertyNode (this.candle, "testProperty1", new int[] { 1, 2, 3 });
+                IntBuffer buffer = node.buffer ();
+
+                Assert.assertEquals (3, buffer.remaining ());
+                buffer.put (0, 42);
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.node.property.array.IntegerArrayPropertyNode#array()}.
+         */
+        @Test
+        public void testArrayCopy () {
+                IntegerArrayPropertyNode node = new IntegerArrayPropertyNode (this.candle, "testProperty1", new int[] { 1, 2, 3 });
+                node.array ()[0] = 42;
+
+                Assert.assertEquals (1, node.get (0));
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.node.property.array.IntegerArrayPropertyNode#iterator()} and
+         * {@link com.torchmind.candle.node.property.array.IntegerArrayPropertyNode#stream()}.
+         */
+        @Test
+        public void testIteration () {
+                IntegerArrayPropertyNode node = new IntegerArrayPropertyNode (this.candle, "testProperty1", IntBuffer.wrap (new int[] { 1, 2, 3, 4 }));
+
+                PrimitiveIterator.OfInt iterator = node.iterator ();
+                for (int i = 1; i <= 4; i++) { Assert.assertEquals (i, iterator.nextInt ()); }
+                Assert.assertFalse (iterator.hasNext ());
+
+                Assert.assertEquals (10, node.stream ().parallel ().sum ());
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.node.property.array.IntegerArrayPropertyNode#arrayUnsigned()}.
+         */
+        @Test (expected = IllegalStateException.class)
+        public void testFailureUnsigned () {
+                IntegerArrayPropertyNode node = new IntegerArrayPropertyNode (this.candle, "testProperty1", new int[] { 1, -2, 3 });
+
+                Assert.assertFalse (node.isUnsigned ());
+                node.arrayUnsigned ();
+        }
+}
@@ -18,7 +18,11 @@ package com.torchmind.candle.test.node;
 
 import com.torchmind.candle.Candle;
 import com.torchmind.candle.api.INode;
+import com.torchmind.candle.node.AbstractNode;
 import com.torchmind.candle.node.CommentNode;
+import com.torchmind.candle.node.INodeVisitor;
+import com.torchmind.candle.node.NodeBatch;
+import com.torchmind.candle.node.NodePath;
 import com.torchmind.candle.node.ObjectNode;
 import com.torchmind.candle.node.property.*;
 import com.torchmind.candle.node.property.array.*;
@@ -27,7 +31,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Provides test cases for {@link com.torchmind.candle.node.ObjectNode}.
@@ -141,6 +152,32 @@ public class ObjectNodeTest {
                 Assert.assertEquals (testValue13, candle.getString ("property13"));
         }
 
+        /**
+         * Tests case insensitive lookups through {@link com.torchmind.candle.node.ObjectNode#get(String)} and {@link com.torchmind.candle.node.ObjectNode#get(com.torchmind.candle.node.NodePath)}.
+         */
+        @Test
+        public void testGetIgnoreCase () {
+                Candle candle = new Candle ();
+
+                ObjectNode parentNode1 = new ObjectNode (candle, "Object1");
+                IntegerPropertyNode node1 = new IntegerPropertyNode (candle, "propertyOne", 42);
+
+                parentNode1.append (node1);
+                candle.append (parentNode1);
+
+                Assert.assertEquals (node1, candle.get ("object1.PROPERTYONE"));
+                Assert.assertEquals (node1, candle.get (NodePath.compile ("OBJECT1.propertyone")));
+                Assert.assertTrue (candle.isPresent ("oBjEcT1.PropertyOne"));
+                Assert.assertTrue (candle.isPresent ("object1.propertyOne", IntegerPropertyNode.class));
+                Assert.assertFalse (candle.isPresent ("object1.propertyOne", StringPropertyNode.class));
+                Assert.assertFalse (candle.isPresent ("object1.propertyTwo"));
+                Assert.assertFalse (candle.isPresent ("object1.propertyOne.value"));
+
+                node1.name ("propertyTwo");
+                Assert.assertEquals (node1, candle.get ("OBJECT1.PROPERTYTWO"));
+                Assert.assertEquals (NodePath.compile ("object1.propertyTwo"), NodePath.compile ("OBJECT1.PROPERTYTWO"));
+        }
+
         /**
          * Tests {@link com.torchmind.candle.node.ObjectNode#append(com.torchmind.candle.api.INode)}, {@link com.torchmind.candle.node.ObjectNode#insertBefore(com.torchmind.candle.api.INode, com.torchmind.candle.api.INode)} and {@link com.torchmind.candle.node.ObjectNode#insertAfter(com.torchmind.candle.api.INode, com.torchmind.candle.api.INode)}.
          */
@@ -167,6 +204,81 @@ public class ObjectNodeTest {
                 Assert.assertEquals (node1, it.next ());
         }
 
+        /**
+         * Tests positional modifications of nodes which have been added more than once.
+         */
+        @Test
+        public void testInsertDuplicate () {
+                Candle candle = new Candle ();
+
+                CommentNode node1 = new CommentNode (candle, "Test 1");
+                CommentNode node2 = new CommentNode (candle, "Test 2");
+                CommentNode node3 = new CommentNode (candle, "Test 3");
+                CommentNode node4 = new CommentNode (candle, "Test 4");
+                CommentNode node5 = new CommentNode (candle, "Test 5");
+                CommentNode node6 = new CommentNode (candle, "Test 6");
+
+                candle.append (node1);
+                candle.append (node2);
+                candle.append (node1);
+
+                // positional modifications refer to the first occurrence
+                candle.insertAfter (node1, node3);
+                Assert.assertEquals (Arrays.asList (node1, node3, node2, node1), candle.children ());
+
+                candle.insertBefore (node1, node4);
+                Assert.assertEquals (Arrays.asList (node4, node1, node3, node2, node1), candle.children ());
+
+                candle.remove (node1);
+                Assert.assertEquals (Arrays.asList (node4, node3, node2, node1), candle.children ());
+
+                candle.insertBefore (node1, node5);
+                Assert.assertEquals (Arrays.asList (node4, node3, node2, node5, node1), candle.children ());
+
+                candle.replace (node1, node6);
+                Assert.assertEquals (Arrays.asList (node4, node3, node2, node5, node6), candle.children ());
+
+                try {
+                        candle.remove (node1);
+                        Assert.fail ("Removed node is still present");
+                } catch (NoSuchElementException ignore) {
+                }
+
+                // occurrences which are inserted in front of the current first occurrence take precedence
+                candle.insertBefore (node4, node2);
+                candle.replace (node2, node1);
+                Assert.assertEquals (Arrays.asList (node1, node4, node3, node2, node5, node6), candle.children ());
+
+                candle.remove (node2);
+                Assert.assertEquals (Arrays.asList (node1, node4, node3, node5, node6), candle.children ());
+                Assert.assertEquals (5, candle.size ());
+        }
+
+        /**
+         * Tests the detection of modifications while iterating over the children of an object.
+         */
+        @Test
+        public void testIterateConcurrentModification () {
+                Candle candle = new Candle ();
+
+                CommentNode node1 = new CommentNode (candle, "Test 1");
+                CommentNode node2 = new CommentNode (candle, "Test 2");
+
+                candle.append (node1);
+                candle.append (node2);
+
+                Iterator<INode> it = candle.iterator ();
+                Assert.assertEquals (node1, it.next ());
+
+                candle.remove (node2);
+
+                try {
+                        it.next ();
+                        Assert.fail ("Modification has not been detected");
+                } catch (ConcurrentModificationException ignore) {
+                }
+        }
+
         /**
          * Tests {@link com.torchmind.candle.node.ObjectNode#insertBefore(com.torchmind.candle.api.INode, com.torchmind.candle.api.INode)} and {@link com.torchmind.candle.node.ObjectNode#insertAfter(com.torchmind.candle.api.INode, com.torchmind.candle.api.INode)}.
          */
@@ -220,6 +332,78 @@ public class ObjectNodeTest {
                 Assert.assertEquals (node1, it.next ());
         }
 
+        /**
+         * Tests {@link com.torchmind.candle.node.ObjectNode#batch()}.
+         */
+        @Test
+        public void testBatch () {
+                Candle candle = new Candle ();
+
+                IntegerPropertyNode node1 = new IntegerPropertyNode (candle, "property1", 1);
+                IntegerPropertyNode node2 = new IntegerPropertyNode (candle, "property2", 2);
+                IntegerPropertyNode node3 = new IntegerPropertyNode (candle, "PROPERTY1", 3);
+                IntegerPropertyNode node4 = new IntegerPropertyNode (candle, "property3", 4);
+                IntegerPropertyNode node5 = new IntegerPropertyNode (candle, "Property3", 5);
+                CommentNode comment = new CommentNode (candle, "Test");
+
+                candle.append (node1);
+                candle.append (node2);
+
+                List<INode> modified = new ArrayList<> ();
+                candle.addListener (modified::add);
+
+                NodeBatch batch = candle.batch ().append (node3).append (comment).appendAll (Arrays.asList (node4, node5));
+                Assert.assertEquals (4, batch.size ());
+                Assert.assertSame (candle, batch.commit ());
+                Assert.assertEquals (0, batch.size ());
+
+                Assert.assertEquals (Arrays.asList (node3, node2, comment, node5), candle.children ());
+                Assert.assertEquals (Collections.singletonList (candle), modified);
+        }
+
+        /**
+         * Tests {@link com.torchmind.candle.node.ObjectNode#acceptChildren(com.torchmind.candle.node.INodeVisitor)}.
+         */
+        @Test
+        public void testAccept () {
+                Candle candle = new Candle ();
+
+                candle.append (new CommentNode (candle, "Test"));
+                candle.append (new IntegerPropertyNode (candle, "property1", 42));
+                candle.append (new IntegerArrayPropertyNode (candle, "property2", new int[] { 1, 2 }));
+                candle.append (new StringArrayPropertyNode (candle, "property3", new String[] { "Test" }));
+                candle.append (new ObjectNode (candle, "object1"));
+
+                StringBuilder buffer = new StringBuilder ();
+                candle.acceptChildren (new INodeVisitor<Void> () {
+                        @Override
+                        public Void visit (@Nonnull AbstractNode node) {
+                                buffer.append ('n');
+                                return null;
+                        }
+
+                        @Override
+                        public Void visit (@Nonnull AbstractArrayPropertyNode node) {
+                                buffer.append ('a');
+                                return null;
+                        }
+
+                        @Override
+                        public Void visit (@Nonnull IntegerPropertyNode node) {
+                                buffer.append ('i');
+                                return null;
+                        }
+                });
+
+                Assert.assertEquals ("niaan", buffer.toString ());
+                Assert.assertEquals ("property1", new IntegerPropertyNode (candle, "property1", 42).accept (new INodeVisitor<String> () {
+                        @Override
+                        public String visit (@Nonnull AbstractPropertyNode node) {
+                                return node.name ();
+                        }
+                }));
+        }
+
         enum TestEnum {
                 VALUE1,
                 VALUE2,
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Johannes Donath <johannesd@torchmind.com>
+ * and other copyright owners as documented in the project's IP log.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 	http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.torchmind.candle.test.node;
+
+import com.torchmind.candle.Candle;
+import com.torchmind.candle.api.IObjectNode;
+import com.torchmind.candle.api.error.CandleException;
+import com.torchmind.candle.node.ValueCache;
+import com.torchmind.candle.node.property.IntegerPropertyNode;
+import com.torchmind.candle.node.property.array.IntegerArrayPropertyNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Provides test cases for {@link com.torchmind.candle.node.ValueCache}.
+ *
+ * @author Johannes Donath
+ */
+@RunWith (MockitoJUnitRunner.class)
+public class ValueCacheTest {
+
+        /**
+         * Tests memoization and invalidation.
+         */
+        @Test
+        public void testInvalidation () throws CandleException, IOException {
+                String document = "a { b = 1\n c = [1, 2, 3] }\nd = 2";
+                Candle candle = Candle.readFile (new ByteArrayInputStream (document.getBytes (StandardCharsets.UTF_8)));
+
+                try (ValueCache cache = new ValueCache (candle)) {
+                        Assert.assertEquals (1, cache.getInteger ("a.b"));
+                        Assert.assertArrayEquals (new int[] { 1, 2, 3 }, cache.getUnsignedIntegerArray ("a.c"));
+                        Assert.assertEquals (2, cache.getInteger ("d"));
+                        Assert.assertEquals (3, cache.size ());
+
+                        // modifications only discard the values which depend on the modified node
+                        candle.get ("a.b", IntegerPropertyNode.class).value (5);
+                        Assert.assertEquals (2, cache.size ());
+                        Assert.assertEquals (5, cache.getInteger ("a.b"));
+
+                        candle.get ("a.c", IntegerArrayPropertyNode.class).array (new int[] { -1 });
+                        try {
+                                cache.getUnsignedIntegerArray ("a.c");
+                                Assert.fail ("Stale array has been returned");
+                        } catch (IllegalStateException ignore) {
+                        }
+
+                        candle.get ("a", IObjectNode.class).remove ("b");
+                        Assert.assertEquals (1, cache.size ());
+                        Assert.assertEquals (2, cache.getInteger ("d"));
+
+                        // structural modifications only discard the values which are resolved through the same name
+                        candle.get ("a", IObjectNode.class).append (new IntegerPropertyNode (candle, "b", 6));
+                        Assert.assertEquals (6, cache.getInteger ("a.b"));
+                        Assert.assertEquals (2, cache.size ());
+
+                        candle.append (new IntegerPropertyNode (candle, "e", 3));
+                        Assert.assertEquals (2, cache.size ());
+
+                        candle.append (new IntegerPropertyNode (candle, "D", 4));
+                        Assert.assertEquals (1, cache.size ());
+                        Assert.assertEquals (4, cache.getInteger ("d"));
+                        Assert.assertEquals (2, cache.size ());
+
+                        candle.get ("e", IntegerPropertyNode.class).name ("renamed");
+                        Assert.assertEquals (2, cache.size ());
+
+                        candle.get ("a", IObjectNode.class).name ("f");
+                        Assert.assertEquals (1, cache.size ());
+                }
+        }
+}